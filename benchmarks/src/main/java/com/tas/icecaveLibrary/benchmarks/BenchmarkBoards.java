@@ -0,0 +1,71 @@
+package com.tas.icecaveLibrary.benchmarks;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.EGenerationMode;
+import com.tas.icecaveLibrary.mapLogic.IceCaveBoard;
+import com.tas.icecaveLibrary.utils.Point;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * The boards the benchmarks run on, all generated from fixed seeds.
+ *
+ */
+final class BenchmarkBoards
+{
+	/**
+	 * Seed of the first board.
+	 */
+	static final long SEED = 0x1CECAFEL;
+
+	/**
+	 * Number of rows on the boards.
+	 */
+	static final int ROWS = 15;
+
+	/**
+	 * Number of columns on the boards.
+	 */
+	static final int COLUMNS = 20;
+
+	/**
+	 * Number of boulders on the boards.
+	 */
+	static final int BOULDER_NUM = 30;
+
+	/**
+	 * The width of the wall on the boards.
+	 */
+	static final int WALL_WIDTH = 1;
+
+	/**
+	 * The starting location of the player.
+	 */
+	static final Point START = new Point(1, 1);
+
+	/**
+	 * Create a new instance of the BenchmarkBoards object.
+	 */
+	private BenchmarkBoards()
+	{
+	}
+
+	/**
+	 * Generate a board.
+	 * @param difficulty - The difficulty of the board.
+	 * @param seed - Seed of the random values of the generation.
+	 * @return The board generated.
+	 */
+	static IceCaveBoard generate(EDifficulty difficulty, long seed)
+	{
+		return new IceCaveBoard(ROWS,
+				COLUMNS,
+				START,
+				EDirection.RIGHT,
+				BOULDER_NUM,
+				WALL_WIDTH,
+				difficulty,
+				EGenerationMode.DISTANCE_FIELD,
+				new SplittableRandomServiceProvider(seed));
+	}
+}
@@ -0,0 +1,63 @@
+package com.tas.icecaveLibrary.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.mapLogic.IceCaveBoard;
+
+/**
+ * Benchmark of generating a board with the full IceCaveBoard constructor.
+ * Each iteration generates the same sequence of boards, seeded from BenchmarkBoards.SEED.
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardGenerationBenchmark
+{
+	/**
+	 * The difficulty of the boards.
+	 */
+	@Param({ "Easy", "Medium", "Hard" })
+	public EDifficulty mDifficulty;
+
+	/**
+	 * Seed of the next board.
+	 */
+	private long mSeed;
+
+	/**
+	 * Start the sequence of seeds over.
+	 */
+	@Setup(Level.Iteration)
+	public void resetSeed()
+	{
+		mSeed = BenchmarkBoards.SEED;
+	}
+
+	/**
+	 * Generate a board.
+	 * @return The board generated.
+	 */
+	@Benchmark
+	public IceCaveBoard generateBoard()
+	{
+		return BenchmarkBoards.generate(mDifficulty, mSeed++);
+	}
+}
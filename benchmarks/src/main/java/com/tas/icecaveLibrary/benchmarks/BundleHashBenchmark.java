@@ -0,0 +1,74 @@
+package com.tas.icecaveLibrary.benchmarks;
+
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.utils.bundle.BaseBundleMetaData;
+import com.tas.icecaveLibrary.utils.bundle.BundleHasher;
+
+/**
+ * Benchmark of hashing the metadata of a map bundle.
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BundleHashBenchmark
+{
+	/**
+	 * The hasher.
+	 */
+	private BundleHasher mHasher;
+
+	/**
+	 * The metadata to hash.
+	 */
+	private BaseBundleMetaData mMetaData;
+
+	/**
+	 * Create the hasher and the metadata.
+	 * @throws NoSuchAlgorithmException
+	 */
+	@Setup
+	public void setUp() throws NoSuchAlgorithmException
+	{
+		mHasher = new BundleHasher("MD5");
+		mMetaData = new BaseBundleMetaData(BenchmarkBoards.START,
+				EDifficulty.Hard,
+				EDirection.RIGHT,
+				BenchmarkBoards.ROWS,
+				BenchmarkBoards.COLUMNS,
+				BenchmarkBoards.BOULDER_NUM,
+				"1.0",
+				BenchmarkBoards.WALL_WIDTH);
+	}
+
+	/**
+	 * Hash the metadata.
+	 * @return The hash.
+	 * @throws IOException
+	 * @throws NoSuchAlgorithmException
+	 */
+	@Benchmark
+	public byte[] createMapBundleHash() throws IOException, NoSuchAlgorithmException
+	{
+		return mHasher.createMapBundleHash(mMetaData);
+	}
+}
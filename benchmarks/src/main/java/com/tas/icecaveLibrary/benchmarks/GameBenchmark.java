@@ -0,0 +1,143 @@
+package com.tas.icecaveLibrary.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.IceCaveBoard;
+import com.tas.icecaveLibrary.mapLogic.IceCaveGame;
+import com.tas.icecaveLibrary.mapLogic.IceCaveStage;
+import com.tas.icecaveLibrary.mapLogic.MapLogicContext;
+import com.tas.icecaveLibrary.mapLogic.MapLogicServiceProvider;
+import com.tas.icecaveLibrary.mapLogic.MoveBatchResult;
+import com.tas.icecaveLibrary.utils.Point;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Benchmark of playing a stage, and of resetting it.
+ * Each play resets the stage first, so every play makes the same moves on the same board.
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark
+{
+	/**
+	 * Number of moves in a play.
+	 */
+	private static final int MOVES_NUM = 64;
+
+	/**
+	 * The game to play.
+	 */
+	private IceCaveGame mGame;
+
+	/**
+	 * The moves of a play.
+	 */
+	private EDirection[] mMoves;
+
+	/**
+	 * A stage on its own, to reset.
+	 */
+	private IceCaveStage mStage;
+
+	/**
+	 * Create the game, the moves and the stage.
+	 * @throws CloneNotSupportedException
+	 */
+	@Setup
+	public void setUp() throws CloneNotSupportedException
+	{
+		mGame = new IceCaveGame(BenchmarkBoards.BOULDER_NUM,
+				BenchmarkBoards.COLUMNS,
+				BenchmarkBoards.ROWS,
+				EDifficulty.Hard,
+				new SplittableRandomServiceProvider(BenchmarkBoards.SEED));
+		mGame.newStage(BenchmarkBoards.START, BenchmarkBoards.WALL_WIDTH);
+
+		Random random = new Random(BenchmarkBoards.SEED);
+		mMoves = new EDirection[MOVES_NUM];
+		for (int i = 0; i < MOVES_NUM; i++)
+		{
+			mMoves[i] = EDirection.values()[random.nextInt(EDirection.values().length)];
+		}
+
+		IceCaveBoard board = BenchmarkBoards.generate(EDifficulty.Hard, BenchmarkBoards.SEED);
+		mStage = new IceCaveStage(new MapLogicContext(null,
+				MapLogicServiceProvider.getInstance().getTileValidatorFactory(),
+				new SplittableRandomServiceProvider(BenchmarkBoards.SEED)));
+		mStage.buildBoard(board);
+	}
+
+	/**
+	 * Play the moves one by one.
+	 * @return The player point after the moves.
+	 * @throws CloneNotSupportedException
+	 */
+	@Benchmark
+	public Point movePlayer() throws CloneNotSupportedException
+	{
+		restart();
+
+		for (EDirection move : mMoves)
+		{
+			mGame.movePlayer(move);
+		}
+
+		return mGame.getPlayerPoint();
+	}
+
+	/**
+	 * Play the moves as one batch.
+	 * @return Status of the game after the moves.
+	 * @throws CloneNotSupportedException
+	 */
+	@Benchmark
+	public MoveBatchResult applyMoves() throws CloneNotSupportedException
+	{
+		restart();
+
+		return mGame.applyMoves(mMoves);
+	}
+
+	/**
+	 * Reset a stage.
+	 * @return The board of the stage after the reset.
+	 * @throws CloneNotSupportedException
+	 */
+	@Benchmark
+	public IceCaveBoard resetStage() throws CloneNotSupportedException
+	{
+		mStage.reset();
+
+		return mStage.getBoard();
+	}
+
+	/**
+	 * Put the game back at the start of the stage.
+	 * @throws CloneNotSupportedException
+	 */
+	private void restart() throws CloneNotSupportedException
+	{
+		mGame.resetStage();
+		mGame.resetMoves();
+		mGame.resetPlayer(mGame.getBoard().getStartPoint());
+	}
+}
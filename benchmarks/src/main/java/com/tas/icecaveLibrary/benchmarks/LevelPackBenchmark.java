@@ -0,0 +1,108 @@
+package com.tas.icecaveLibrary.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.mapLogic.IceCaveBoard;
+import com.tas.icecaveLibrary.mapLogic.IceCaveGame;
+import com.tas.icecaveLibrary.mapLogic.LevelPack;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Benchmark of starting stages from a level pack.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LevelPackBenchmark
+{
+	/**
+	 * Number of stages in the pack.
+	 */
+	private static final int STAGES_NUM = 3000;
+
+	/**
+	 * The pack file.
+	 */
+	private File mPackFile;
+
+	/**
+	 * The pack to start the stages from.
+	 */
+	private LevelPack mPack;
+
+	/**
+	 * The game to start the stages in.
+	 */
+	private IceCaveGame mGame;
+
+	/**
+	 * Index of the next stage to start.
+	 */
+	private int mStageIndex;
+
+	/**
+	 * Write the pack, and open it.
+	 */
+	@Setup
+	public void setUp() throws IOException
+	{
+		List<IceCaveBoard> boards = new ArrayList<IceCaveBoard>(STAGES_NUM);
+		for (int i = 0; i < STAGES_NUM; i++)
+		{
+			boards.add(BenchmarkBoards.generate(EDifficulty.values()[i % EDifficulty.values().length],
+					BenchmarkBoards.SEED + i));
+		}
+
+		mPackFile = File.createTempFile("benchmark", ".pack");
+		LevelPack.write(mPackFile, boards);
+		mPack = LevelPack.open(mPackFile);
+		mGame = new IceCaveGame(BenchmarkBoards.BOULDER_NUM,
+				BenchmarkBoards.COLUMNS,
+				BenchmarkBoards.ROWS,
+				EDifficulty.Hard,
+				new SplittableRandomServiceProvider(BenchmarkBoards.SEED));
+	}
+
+	/**
+	 * Delete the pack file.
+	 */
+	@TearDown
+	public void tearDown()
+	{
+		mPackFile.delete();
+	}
+
+	/**
+	 * Start the next stage of the pack, going around the pack.
+	 * @return The board of the stage.
+	 */
+	@Benchmark
+	public IceCaveBoard newStage() throws IOException, CloneNotSupportedException
+	{
+		mGame.newStage(mPack, mStageIndex);
+		mStageIndex = (mStageIndex + 1) % STAGES_NUM;
+
+		return mGame.getBoard();
+	}
+}
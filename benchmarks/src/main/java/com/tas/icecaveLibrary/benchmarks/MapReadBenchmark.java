@@ -0,0 +1,98 @@
+package com.tas.icecaveLibrary.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.mapLogic.IceCaveBoard;
+import com.tas.icecaveLibrary.mapLogic.IceCaveBoardCodec;
+import com.tas.icecaveLibrary.mapLogic.IceCaveGame;
+
+/**
+ * Benchmark of reading a map board file into a new stage.
+ * The board is read by IceCaveGame.newStage, through readMapBoard.
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapReadBenchmark
+{
+	/**
+	 * Format of the map file, "codec" for IceCaveBoardCodec and "serialized" for java serialization.
+	 */
+	@Param({ "codec", "serialized" })
+	public String mFormat;
+
+	/**
+	 * The map file content.
+	 */
+	private byte[] mMapFile;
+
+	/**
+	 * The game to read the map into.
+	 */
+	private IceCaveGame mGame;
+
+	/**
+	 * Write the map file.
+	 * @throws IOException
+	 */
+	@Setup
+	public void setUp() throws IOException
+	{
+		IceCaveBoard board = BenchmarkBoards.generate(EDifficulty.Hard, BenchmarkBoards.SEED);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		if ("codec".equals(mFormat))
+		{
+			DataOutputStream out = new DataOutputStream(bytes);
+			IceCaveBoardCodec.write(board, out);
+			out.flush();
+		}
+		else
+		{
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(board);
+			out.flush();
+		}
+
+		mMapFile = bytes.toByteArray();
+		mGame = new IceCaveGame(BenchmarkBoards.BOULDER_NUM,
+				BenchmarkBoards.COLUMNS,
+				BenchmarkBoards.ROWS,
+				EDifficulty.Hard);
+	}
+
+	/**
+	 * Read the map file into a new stage.
+	 * @return The board of the new stage.
+	 * @throws Exception
+	 */
+	@Benchmark
+	public IceCaveBoard readMapBoard() throws Exception
+	{
+		mGame.newStage(new ByteArrayInputStream(mMapFile));
+
+		return mGame.getBoard();
+	}
+}
@@ -0,0 +1,125 @@
+package com.tas.icecaveLibrary.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.EGenerationMode;
+import com.tas.icecaveLibrary.mapLogic.ESlideEngine;
+import com.tas.icecaveLibrary.mapLogic.IceCaveBoard;
+import com.tas.icecaveLibrary.mapLogic.MapNode;
+import com.tas.icecaveLibrary.mapLogic.ReplayVerifier;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Benchmark of the slide engines, on a new engine per board and on an engine used before.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SlideEngineBenchmark
+{
+	/**
+	 * Number of moves of the replayed claim.
+	 */
+	private static final int CLAIM_MOVES_NUM = 64;
+
+	/**
+	 * The way slide stops are found.
+	 */
+	@Param({ "TABLE", "BITS" })
+	public ESlideEngine mEngine;
+
+	/**
+	 * Number of rows and of columns on the board.
+	 */
+	@Param({ "14", "60", "140" })
+	public int mSize;
+
+	/**
+	 * The board to slide on.
+	 */
+	private IceCaveBoard mBoard;
+
+	/**
+	 * A claim of random moves on the board.
+	 */
+	private ReplayVerifier.Claim mClaim;
+
+	/**
+	 * Generate the board, and the moves of the claim.
+	 */
+	@Setup
+	public void setUp()
+	{
+		mBoard = new IceCaveBoard(mSize,
+				mSize,
+				BenchmarkBoards.START,
+				EDirection.RIGHT,
+				mSize * mSize / 8,
+				BenchmarkBoards.WALL_WIDTH,
+				EDifficulty.Medium,
+				EGenerationMode.DISTANCE_FIELD,
+				new SplittableRandomServiceProvider(BenchmarkBoards.SEED));
+		mBoard.setSlideEngine(mEngine);
+
+		Random random = new Random(BenchmarkBoards.SEED);
+		byte[] moves = new byte[CLAIM_MOVES_NUM];
+		for (int i = 0; i < moves.length; i++)
+		{
+			moves[i] = (byte) random.nextInt(EDirection.values().length);
+		}
+
+		mClaim = new ReplayVerifier.Claim(mBoard, moves, CLAIM_MOVES_NUM);
+	}
+
+	/**
+	 * Solve a copy of the board on a new engine, like a board solved once while generating.
+	 * @return The last node of the road.
+	 */
+	@Benchmark
+	public MapNode solveFresh() throws CloneNotSupportedException
+	{
+		IceCaveBoard board = (IceCaveBoard) mBoard.clone();
+		board.setSlideEngine(mEngine);
+
+		return board.findShortestRoad(board.getStartPoint(), board.getFlagLocation());
+	}
+
+	/**
+	 * Solve the board again, on the engine of the earlier solves.
+	 * @return The last node of the road.
+	 */
+	@Benchmark
+	public MapNode solveWarm()
+	{
+		return mBoard.findShortestRoad(mBoard.getStartPoint(), mBoard.getFlagLocation());
+	}
+
+	/**
+	 * Replay the claim on a copy of the board, sharing the engine of the board.
+	 * @return The verdict of the claim.
+	 */
+	@Benchmark
+	public ReplayVerifier.Verdict verifyClaim()
+	{
+		return ReplayVerifier.verify(mClaim);
+	}
+}
@@ -0,0 +1,78 @@
+package com.tas.icecaveLibrary.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.mapLogic.IceCaveBoard;
+import com.tas.icecaveLibrary.mapLogic.MapNode;
+
+/**
+ * Benchmark of finding the shortest road on a board, and of measuring it.
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark
+{
+	/**
+	 * The difficulty of the board.
+	 */
+	@Param({ "Easy", "Medium", "Hard" })
+	public EDifficulty mDifficulty;
+
+	/**
+	 * The board to solve.
+	 */
+	private IceCaveBoard mBoard;
+
+	/**
+	 * The shortest road of the board.
+	 */
+	private MapNode mRoad;
+
+	/**
+	 * Generate the board, and its road.
+	 */
+	@Setup
+	public void setUp()
+	{
+		mBoard = BenchmarkBoards.generate(mDifficulty, BenchmarkBoards.SEED);
+		mRoad = mBoard.findShortestRoad(mBoard.getStartPoint(), mBoard.getFlagLocation());
+	}
+
+	/**
+	 * Find the shortest road from the start to the flag.
+	 * @return The last node of the road.
+	 */
+	@Benchmark
+	public MapNode findShortestRoad()
+	{
+		return mBoard.findShortestRoad(mBoard.getStartPoint(), mBoard.getFlagLocation());
+	}
+
+	/**
+	 * Get the length of the shortest road.
+	 * @return Level of the last node of the road.
+	 */
+	@Benchmark
+	public int getLevel()
+	{
+		return mRoad.getLevel();
+	}
+}
@@ -0,0 +1,159 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of board copies that share their tiles, and of the stages reset over them.
+ *
+ */
+public class BoardCopyTest
+{
+	/**
+	 * Number of seeded boards copied.
+	 */
+	private static final int BOARDS_NUM = 50;
+
+	/**
+	 * Most random moves made looking for a broken boulder.
+	 */
+	private static final int MOVES_NUM = 200;
+
+	/**
+	 * Describe the slides from every empty cell, in every direction.
+	 * @param board - The board to slide on.
+	 * @return The stops of the slides.
+	 */
+	private static String describeSlides(IceCaveBoard board)
+	{
+		StringBuilder description = new StringBuilder();
+
+		// Go through the cells.
+		for (int cell = 0; cell < board.getRowsNum() * board.getColumnNum(); cell++)
+		{
+			if (board.getTileType(cell) == ETileType.EMPTY)
+			{
+				for (EDirection direction : EDirection.values())
+				{
+					description.append(board.getSlideStop(cell, direction)).append(' ');
+				}
+			}
+		}
+
+		return description.toString();
+	}
+
+	/**
+	 * Find an empty cell inside the wall.
+	 * @param board - The board to look on.
+	 * @param random - Random values of the search.
+	 * @return Row and column of the cell.
+	 */
+	private static int[] findEmptyCell(IceCaveBoard board, Random random)
+	{
+		while (true)
+		{
+			int row = 1 + random.nextInt(board.getRowsNum() - 2);
+			int column = 1 + random.nextInt(board.getColumnNum() - 2);
+
+			if (board.getTileType(row, column) == ETileType.EMPTY)
+			{
+				return new int[] { row, column };
+			}
+		}
+	}
+
+	/**
+	 * Changing a copy, or a copy of a copy, changes neither the source nor the other copies.
+	 */
+	@Test
+	public void copiesChangeAlone() throws Exception
+	{
+		SplittableRandomServiceProvider seeds = new SplittableRandomServiceProvider(16);
+
+		for (int i = 0; i < BOARDS_NUM; i++)
+		{
+			IceCaveBoard source = TestBoards.generate(EDifficulty.values()[i % EDifficulty.values().length],
+					seeds.split());
+			String sourceTiles = TestBoards.describe(source);
+			String sourceSlides = describeSlides(source);
+			Random random = new Random(i);
+
+			IceCaveBoard first = (IceCaveBoard) source.clone();
+			IceCaveBoard second = new IceCaveBoard(source);
+			int[] cell = findEmptyCell(first, random);
+			first.setTileType(cell[0], cell[1], ETileType.BOULDER);
+
+			IceCaveBoard third = (IceCaveBoard) first.clone();
+			String firstTiles = TestBoards.describe(first);
+			String firstSlides = describeSlides(first);
+			int[] thirdCell = findEmptyCell(third, random);
+			third.setTileType(thirdCell[0], thirdCell[1], ETileType.BREAKABLE_BOULDER);
+
+			assertEquals(ETileType.BOULDER, third.getTileType(cell[0], cell[1]));
+			assertEquals(ETileType.BREAKABLE_BOULDER, third.getTileType(thirdCell[0], thirdCell[1]));
+			assertEquals(firstTiles, TestBoards.describe(first));
+			assertEquals(firstSlides, describeSlides(first));
+
+			for (IceCaveBoard board : new IceCaveBoard[] { source, second })
+			{
+				assertEquals(sourceTiles, TestBoards.describe(board));
+				assertEquals(sourceSlides, describeSlides(board));
+			}
+
+			// A source changed after it was copied does not change its copies.
+			source.setTileType(thirdCell[0], thirdCell[1], ETileType.WALL);
+
+			assertEquals(sourceTiles, TestBoards.describe(second));
+			assertEquals(sourceSlides, describeSlides(second));
+			assertEquals(firstTiles, TestBoards.describe(first));
+		}
+	}
+
+	/**
+	 * A stage reset after boulders were broken puts them back.
+	 */
+	@Test
+	public void resetRestoresBrokenBoulders() throws Exception
+	{
+		EDirection[] directions = EDirection.values();
+		int brokenNum = 0;
+
+		for (int seed = 0; seed < BOARDS_NUM; seed++)
+		{
+			IceCaveGame game = new IceCaveGame(TestBoards.BOULDER_NUM,
+					TestBoards.COLUMNS,
+					TestBoards.ROWS,
+					EDifficulty.values()[seed % EDifficulty.values().length],
+					new SplittableRandomServiceProvider(seed));
+			game.newStage(TestBoards.START, TestBoards.WALL_WIDTH);
+
+			String stageTiles = TestBoards.describe(game.getBoard());
+			String stageSlides = describeSlides(game.getBoard());
+			Random random = new Random(seed);
+			game.getPointToUpdate();
+
+			for (int i = 0; i < MOVES_NUM && !game.getIsStageEnded(); i++)
+			{
+				game.movePlayer(directions[random.nextInt(directions.length)]);
+				brokenNum += game.getPointToUpdate().length;
+			}
+
+			game.resetStage();
+
+			assertEquals(stageTiles, TestBoards.describe(game.getBoard()));
+			assertEquals(stageSlides, describeSlides(game.getBoard()));
+		}
+
+		assertTrue("No boulder was broken", brokenNum > 0);
+	}
+}
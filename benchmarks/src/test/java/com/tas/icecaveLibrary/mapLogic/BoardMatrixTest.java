@@ -0,0 +1,194 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.tiles.BoulderTile;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
+import com.tas.icecaveLibrary.mapLogic.tiles.EmptyTile;
+import com.tas.icecaveLibrary.mapLogic.tiles.ITile;
+import com.tas.icecaveLibrary.mapLogic.tiles.validators.BaseTileValidator;
+import com.tas.icecaveLibrary.mapLogic.tiles.validators.ITileValidator;
+import com.tas.icecaveLibrary.mapLogic.tiles.validators.TileValidatorFactory;
+import com.tas.icecaveLibrary.utils.board.BaseBoard;
+import com.tas.icecaveLibrary.utils.board.IBoardTile;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of the tile matrix of getBoard, written through to the board as in 1.0.
+ *
+ */
+@SuppressWarnings("deprecation")
+public class BoardMatrixTest
+{
+	/**
+	 * Generate a board.
+	 * @param seed - Seed of the board.
+	 * @return The board.
+	 */
+	private static IceCaveBoard generate(long seed)
+	{
+		return TestBoards.generate(EDifficulty.Easy, new SplittableRandomServiceProvider(seed));
+	}
+
+	/**
+	 * Find the tile that stops the empty tiles on the right of the start.
+	 * @param board - The board to look on.
+	 * @return Column of the first tile on the right of the start that is not empty.
+	 */
+	private static int findSlideEnd(IceCaveBoard board)
+	{
+		int row = board.getStartPoint().y;
+		int column = board.getStartPoint().x;
+
+		while (board.getTileType(row, column + 1) == ETileType.EMPTY)
+		{
+			column++;
+		}
+
+		return column + 1;
+	}
+
+	/**
+	 * A tile placed in the matrix changes the tile reads, the slides and the copies of the board.
+	 */
+	@Test
+	public void matrixWritesChangeTheBoard() throws Exception
+	{
+		int testedNum = 0;
+
+		for (int seed = 0; seed < 20; seed++)
+		{
+			IceCaveBoard board = generate(seed);
+			ITile[][] matrix = board.getBoard();
+			int row = board.getStartPoint().y;
+			int start = board.getStartPoint().y * board.getColumnNum() + board.getStartPoint().x;
+			int end = findSlideEnd(board);
+
+			// Skip the boards whose start cannot slide right.
+			if (end == board.getStartPoint().x + 1)
+			{
+				continue;
+			}
+
+			// A boulder in the way of the slide to the right.
+			BoulderTile boulder = new BoulderTile(end - 1, row);
+			matrix[row][end - 1] = boulder;
+
+			assertEquals("seed " + seed, row * board.getColumnNum() + end - 2, board.getSlideStop(start, EDirection.RIGHT));
+			assertEquals("seed " + seed, ETileType.BOULDER, board.getTileType(row, end - 1));
+			assertSame("seed " + seed, boulder, board.getTile(row, end - 1));
+			assertEquals("seed " + seed, ETileType.BOULDER, new IceCaveBoard(board).getTileType(row, end - 1));
+
+			// Taken away again.
+			matrix[row][end - 1] = new EmptyTile(end - 1, row);
+
+			assertEquals("seed " + seed, row * board.getColumnNum() + end - 1, board.getSlideStop(start, EDirection.RIGHT));
+			assertSame("seed " + seed, matrix, board.getBoard());
+			testedNum++;
+		}
+
+		assertTrue(testedNum > 0);
+	}
+
+	/**
+	 * Changes of the board show in the matrix handed out before them.
+	 */
+	@Test
+	public void boardChangesShowInTheMatrix()
+	{
+		IceCaveBoard board = generate(1);
+		ITile[][] matrix = board.getBoard();
+		int row = board.getStartPoint().y;
+		int column = board.getStartPoint().x + 1;
+
+		board.setTile(row, column, new BoulderTile(column, row));
+		assertEquals(ETileType.BOULDER, matrix[row][column].getType());
+
+		board.setTileType(row, column, ETileType.EMPTY);
+		assertEquals(ETileType.EMPTY, matrix[row][column].getType());
+	}
+
+	/**
+	 * A board written with tiles placed in its matrix reads back with them.
+	 */
+	@Test
+	public void matrixWritesAreSerialized() throws Exception
+	{
+		IceCaveBoard board = generate(2);
+		int row = board.getStartPoint().y;
+		int column = board.getStartPoint().x + 1;
+		board.getBoard()[row][column] = new BoulderTile(column, row);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(board);
+		out.close();
+		IceCaveBoard read = (IceCaveBoard) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+		assertEquals(ETileType.BOULDER, read.getTileType(row, column));
+		assertEquals(TestBoards.describe(new IceCaveBoard(board)), TestBoards.describe(read));
+	}
+
+	/**
+	 * Validators written against 1.0 get the matrix of the board, and the library validators still validate.
+	 */
+	@Test
+	public void matrixValidatorsStillValidate()
+	{
+		IceCaveBoard board = generate(3);
+		int row = board.getStartPoint().y;
+		int column = board.getStartPoint().x + 1;
+
+		ITileValidator legacy = new ITileValidator()
+		{
+			@Override
+			public boolean isValid(int xLocation,
+					int yLocation,
+					int xPlayerLocation,
+					int yPlayerLocation,
+					IBoardTile[][] board)
+			{
+				return board[yLocation][xLocation] instanceof EmptyTile;
+			}
+		};
+
+		BaseTileValidator legacyBase = new BaseTileValidator()
+		{
+			@Override
+			public boolean isValid(int xLocation,
+					int yLocation,
+					int xPlayerLocation,
+					int yPlayerLocation,
+					IBoardTile[][] board)
+			{
+				return board[yLocation][xLocation] instanceof EmptyTile;
+			}
+		};
+		boolean isEmpty = board.getTileType(row, column) == ETileType.EMPTY;
+
+		assertEquals(isEmpty, legacy.isValid(column, row, 0, 0, board.getBoard()));
+		assertEquals(isEmpty, legacyBase.isValid(column, row, 0, 0, (BaseBoard) board));
+
+		TileValidatorFactory factory = new TileValidatorFactory();
+		board.setTileType(row, column, ETileType.EMPTY);
+
+		assertTrue(factory.validate(BoulderTile.class, column, row, 0, 0, board));
+		assertFalse(factory.validate(BoulderTile.class, column, row, column, row, board));
+
+		board.getBoard()[row][column] = new BoulderTile(column, row);
+
+		assertFalse(factory.validate(BoulderTile.class, column, row, 0, 0, board));
+	}
+}
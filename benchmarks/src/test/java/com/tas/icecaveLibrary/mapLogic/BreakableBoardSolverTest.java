@@ -0,0 +1,411 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
+import com.tas.icecaveLibrary.utils.Point;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of the breakable boulders solver, against a search over whole boards.
+ *
+ */
+public class BreakableBoardSolverTest
+{
+	/**
+	 * Number of random small boards solved.
+	 */
+	private static final int RANDOM_BOARDS_NUM = 400;
+
+	/**
+	 * Number of seeded generated boards solved.
+	 */
+	private static final int GENERATED_BOARDS_NUM = 30;
+
+	/**
+	 * Number of random boards solved with the states in the hash set.
+	 */
+	private static final int LARGE_BOARDS_NUM = 10;
+
+	/**
+	 * Number of breakable boulders on the boards solved with the states in the hash set.
+	 */
+	private static final int LARGE_BREAKABLE_NUM = 16;
+
+	/**
+	 * Most states the solver keeps in the bit set, as in StateSet.
+	 */
+	private static final long MAX_DENSE_STATES = 1L << 23;
+
+	/**
+	 * Search of the fewest moves to the flag, over the whole board after each move.
+	 * Each move is played one tile at a time, by the rules of the game.
+	 */
+	private static class BoardSearch
+	{
+		/**
+		 * The tiles of the board, indexed by row and column, with all the breakable boulders in place.
+		 */
+		private final ETileType[][] mTiles;
+
+		/**
+		 * Create a new instance of the BoardSearch object.
+		 * @param board - The board to search.
+		 */
+		BoardSearch(IceCaveBoard board)
+		{
+			mTiles = new ETileType[board.getRowsNum()][board.getColumnNum()];
+
+			// Go through the tiles.
+			for (int row = 0; row < mTiles.length; row++)
+			{
+				for (int column = 0; column < mTiles[row].length; column++)
+				{
+					mTiles[row][column] = board.getTileType(row, column);
+				}
+			}
+		}
+
+		/**
+		 * Play a move on a board.
+		 * @param location - Location of the player, moved to where the move stops.
+		 * @param broken - Cells of the broken boulders, added the boulder the move breaks.
+		 * @param direction - Direction to move the player in.
+		 * @return true if the move counts, false if the player stays in place.
+		 */
+		boolean move(Point location, BitSet broken, EDirection direction)
+		{
+			int columnsNum = mTiles[0].length;
+			Point stop = new Point(location);
+
+			while (true)
+			{
+				Point next = new Point(stop);
+				next.offset(direction.getDirection().x, direction.getDirection().y);
+				ETileType type = mTiles[next.y][next.x];
+				int cell = next.y * columnsNum + next.x;
+
+				if (type == ETileType.FLAG)
+				{
+					location.x = next.x;
+					location.y = next.y;
+					return true;
+				}
+
+				if (type == ETileType.BREAKABLE_BOULDER && !broken.get(cell))
+				{
+					broken.set(cell);
+					location.x = stop.x;
+					location.y = stop.y;
+					return true;
+				}
+
+				if (type.isBlocking() && type != ETileType.BREAKABLE_BOULDER)
+				{
+					boolean isMoved = !stop.equals(location);
+					location.x = stop.x;
+					location.y = stop.y;
+					return isMoved;
+				}
+
+				stop = next;
+			}
+		}
+
+		/**
+		 * Check whether or not the player stands on the flag.
+		 * @param location - Location of the player.
+		 * @return true if the tile is the flag.
+		 */
+		boolean isOnFlag(Point location)
+		{
+			return mTiles[location.y][location.x] == ETileType.FLAG;
+		}
+
+		/**
+		 * Find the fewest moves from a point to the flag.
+		 * @param start - Starting point.
+		 * @return Number of moves, -1 if the flag cannot be reached.
+		 */
+		int solve(Point start)
+		{
+			int columnsNum = mTiles[0].length;
+			Map<List<Object>, Integer> moves = new HashMap<List<Object>, Integer>();
+			ArrayDeque<List<Object>> queue = new ArrayDeque<List<Object>>();
+			List<Object> first = Arrays.<Object> asList(start.y * columnsNum + start.x, new BitSet());
+			moves.put(first, 0);
+			queue.add(first);
+
+			while (!queue.isEmpty())
+			{
+				List<Object> state = queue.poll();
+				int stateMoves = moves.get(state);
+				int cell = (Integer) state.get(0);
+
+				for (EDirection direction : EDirection.values())
+				{
+					Point location = new Point(cell % columnsNum, cell / columnsNum);
+					BitSet broken = (BitSet) ((BitSet) state.get(1)).clone();
+
+					if (!move(location, broken, direction))
+					{
+						continue;
+					}
+
+					if (isOnFlag(location))
+					{
+						return stateMoves + 1;
+					}
+
+					List<Object> next = Arrays.<Object> asList(location.y * columnsNum + location.x, broken);
+					if (!moves.containsKey(next))
+					{
+						moves.put(next, stateMoves + 1);
+						queue.add(next);
+					}
+				}
+			}
+
+			return -1;
+		}
+
+		/**
+		 * Check that moves lead from a point to the flag, each of them counting.
+		 * @param start - Starting point.
+		 * @param directions - The moves to play.
+		 * @return true if the last move, and only it, reaches the flag.
+		 */
+		boolean reaches(Point start, EDirection[] directions)
+		{
+			Point location = new Point(start);
+			BitSet broken = new BitSet();
+
+			for (int i = 0; i < directions.length; i++)
+			{
+				if (!move(location, broken, directions[i]) || isOnFlag(location) != (i == directions.length - 1))
+				{
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Create a random board, walled, with boulders, breakable boulders and a flag.
+	 * @param random - Random values of the board.
+	 * @param rowsNum - Number of rows on the board.
+	 * @param columnsNum - Number of columns on the board.
+	 * @param breakableNum - Number of breakable boulders on the board.
+	 * @return The board, starting at its top left empty tile.
+	 */
+	private static IceCaveBoard createBoard(Random random, int rowsNum, int columnsNum, int breakableNum)
+	{
+		byte[] codes = new byte[rowsNum * columnsNum];
+		Arrays.fill(codes, ETileType.WALL.getCode());
+
+		// Empty inside the wall, with a boulder on one tile of six.
+		for (int row = 1; row < rowsNum - 1; row++)
+		{
+			for (int column = 1; column < columnsNum - 1; column++)
+			{
+				codes[row * columnsNum + column] =
+						((random.nextInt(6) == 0) ? ETileType.BOULDER : ETileType.EMPTY).getCode();
+			}
+		}
+
+		int start = columnsNum + 1;
+		codes[start] = ETileType.EMPTY.getCode();
+		int flag = placeOnEmpty(random, codes, rowsNum, columnsNum, start, ETileType.FLAG);
+
+		for (int i = 0; i < breakableNum; i++)
+		{
+			placeOnEmpty(random, codes, rowsNum, columnsNum, start, ETileType.BREAKABLE_BOULDER);
+		}
+
+		return new IceCaveBoard(rowsNum,
+				columnsNum,
+				codes,
+				new Point(1, 1),
+				new Point(flag % columnsNum, flag / columnsNum),
+				EDirection.RIGHT,
+				0);
+	}
+
+	/**
+	 * Place a tile on a random empty cell inside the wall, other than the start.
+	 * @param random - Random values of the placement.
+	 * @param codes - Tile type codes of the board.
+	 * @param rowsNum - Number of rows on the board.
+	 * @param columnsNum - Number of columns on the board.
+	 * @param start - Cell of the start.
+	 * @param type - Type of the tile to place.
+	 * @return The cell of the tile.
+	 */
+	private static int placeOnEmpty(Random random, byte[] codes, int rowsNum, int columnsNum, int start, ETileType type)
+	{
+		while (true)
+		{
+			int cell = (1 + random.nextInt(rowsNum - 2)) * columnsNum + 1 + random.nextInt(columnsNum - 2);
+
+			if (cell != start && codes[cell] == ETileType.EMPTY.getCode())
+			{
+				codes[cell] = type.getCode();
+				return cell;
+			}
+		}
+	}
+
+	/**
+	 * Check the solver against the search of a board: the number of moves,
+	 * the moves returned, and the search cut at the number of moves and one less.
+	 * @param board - The board to solve.
+	 * @param name - Name of the board, for the failure message.
+	 * @return The number of moves, -1 if the flag cannot be reached.
+	 */
+	private static int assertSolvesLikeTheSearch(IceCaveBoard board, String name)
+	{
+		BoardSearch search = new BoardSearch(board);
+		BreakableBoardSolver solver = new BreakableBoardSolver();
+		Point start = board.getStartPoint();
+		int expected = search.solve(start);
+
+		assertEquals(name, expected, solver.solve(board, start));
+
+		if (expected < 0)
+		{
+			assertNull(name, solver.getMoves());
+			return expected;
+		}
+
+		EDirection[] moves = solver.getMoves();
+		assertEquals(name, expected, moves.length);
+		assertTrue(name + " " + Arrays.toString(moves), search.reaches(start, moves));
+
+		// Giving up once more moves than allowed are needed.
+		assertEquals(name, expected, solver.solve(board, start, expected));
+		assertEquals(name, -1, solver.solve(board, start, expected - 1));
+		assertNull(name, solver.getMoves());
+
+		return expected;
+	}
+
+	/**
+	 * The solver finds the fewest moves of random small boards, and moves that reach the flag in that many.
+	 */
+	@Test
+	public void solvesRandomBoardsLikeTheSearch()
+	{
+		Random random = new Random(4);
+		int solvedNum = 0;
+
+		for (int i = 0; i < RANDOM_BOARDS_NUM; i++)
+		{
+			IceCaveBoard board = createBoard(random, 6 + random.nextInt(5), 6 + random.nextInt(5), random.nextInt(6));
+
+			if (assertSolvesLikeTheSearch(board, "board " + i) >= 0)
+			{
+				solvedNum++;
+			}
+		}
+
+		// Both the solvable and the unsolvable boards are checked.
+		assertTrue(solvedNum > RANDOM_BOARDS_NUM / 4 && solvedNum < RANDOM_BOARDS_NUM);
+	}
+
+	/**
+	 * The minimum moves of generated boards are exact.
+	 */
+	@Test
+	public void generatedBoardsHaveExactMinMoves()
+	{
+		SplittableRandomServiceProvider seeds = new SplittableRandomServiceProvider(4);
+
+		for (EGenerationMode generationMode : EGenerationMode.values())
+		{
+			for (int i = 0; i < GENERATED_BOARDS_NUM; i++)
+			{
+				IceCaveBoard board = new IceCaveBoard(10,
+						12,
+						TestBoards.START,
+						EDirection.RIGHT,
+						14,
+						TestBoards.WALL_WIDTH,
+						EDifficulty.Easy,
+						generationMode,
+						seeds.split());
+				String name = generationMode + " board " + i;
+
+				assertEquals(name, board.getMinMoves(), assertSolvesLikeTheSearch(board, name));
+			}
+		}
+	}
+
+	/**
+	 * Boards with more states than the bit set holds solve the same, with the states in the hash set.
+	 */
+	@Test
+	public void solvesBoardsPastTheBitSet()
+	{
+		Random random = new Random(16);
+		int solvedNum = 0;
+
+		assertTrue((24L * 24 << LARGE_BREAKABLE_NUM) > MAX_DENSE_STATES);
+
+		for (int i = 0; i < LARGE_BOARDS_NUM; i++)
+		{
+			IceCaveBoard board = createBoard(random, 24, 24, LARGE_BREAKABLE_NUM);
+
+			if (assertSolvesLikeTheSearch(board, "large board " + i) >= 0)
+			{
+				solvedNum++;
+			}
+		}
+
+		assertTrue(solvedNum > 0);
+	}
+
+	/**
+	 * The bit set and the hash set hold the same states.
+	 */
+	@Test
+	public void stateSetKeepsTheStatesAdded()
+	{
+		Random random = new Random(23);
+		StateSet states = new StateSet();
+
+		// A state space the bit set holds, then one past it, then the first again.
+		for (int[] space : new int[][] { { 200, 10 }, { 600, 20 }, { 200, 10 } })
+		{
+			int cellsNum = space[0];
+			int breakableNum = space[1];
+			Set<Long> expected = new HashSet<Long>();
+			states.reset(cellsNum, breakableNum);
+
+			for (int i = 0; i < 50000; i++)
+			{
+				int cell = random.nextInt(cellsNum);
+				int mask = random.nextInt(1 << breakableNum) & (random.nextBoolean() ? 0xFF : -1);
+
+				assertEquals(expected.add(((long) cell << 32) | mask), states.add(cell, mask));
+			}
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of hosting many sessions at once.
+ *
+ */
+public class GameSessionManagerTest
+{
+	/**
+	 * Max number of hosted sessions.
+	 */
+	private static final int MAX_SESSIONS = 5;
+
+	/**
+	 * Number of threads creating sessions at once.
+	 */
+	private static final int THREADS_NUM = 16;
+
+	/**
+	 * Pool that holds the boards taken from it, until released.
+	 */
+	private static class HoldingPool extends StagePool
+	{
+		/**
+		 * Counted down once a take is holding.
+		 */
+		final CountDownLatch mHolding = new CountDownLatch(1);
+
+		/**
+		 * Counted down to let the take return.
+		 */
+		final CountDownLatch mReleased = new CountDownLatch(1);
+
+		/**
+		 * Create a new instance of the HoldingPool object.
+		 */
+		HoldingPool()
+		{
+			super(null, 0, 1, new SplittableRandomServiceProvider(12));
+		}
+
+		@Override
+		public IceCaveBoard take(StageKey key)
+		{
+			mHolding.countDown();
+
+			try
+			{
+				mReleased.await();
+			} catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+
+			return TestBoards.generate(EDifficulty.Easy, new SplittableRandomServiceProvider(12));
+		}
+	}
+
+	/**
+	 * Create a session of a manager.
+	 * @param manager - The manager.
+	 * @param sessionId - Id of the session.
+	 */
+	private static void createSession(GameSessionManager manager, String sessionId)
+	{
+		manager.createSession(sessionId,
+				TestBoards.BOULDER_NUM,
+				TestBoards.COLUMNS,
+				TestBoards.ROWS,
+				EDifficulty.Easy,
+				new SplittableRandomServiceProvider(12));
+	}
+
+	/**
+	 * Sessions created at once on many threads stop at the max number of sessions.
+	 */
+	@Test
+	public void concurrentCreatesKeepTheMax() throws Exception
+	{
+		final GameSessionManager manager = new GameSessionManager(1, TimeUnit.HOURS, MAX_SESSIONS, null);
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS_NUM);
+
+		try
+		{
+			List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+
+			for (int i = 0; i < THREADS_NUM; i++)
+			{
+				final String sessionId = "session " + i;
+
+				futures.add(executor.submit(new Callable<Boolean>()
+				{
+					@Override
+					public Boolean call() throws Exception
+					{
+						start.await();
+
+						try
+						{
+							createSession(manager, sessionId);
+							return true;
+						} catch (IllegalStateException e)
+						{
+							return false;
+						}
+					}
+				}));
+			}
+
+			start.countDown();
+			List<String> created = new ArrayList<String>();
+
+			for (int i = 0; i < THREADS_NUM; i++)
+			{
+				if (futures.get(i).get())
+				{
+					created.add("session " + i);
+				}
+			}
+
+			assertEquals(MAX_SESSIONS, created.size());
+			assertEquals(MAX_SESSIONS, manager.getSessionsNum());
+
+			// A removed session makes room for one more.
+			assertTrue(manager.removeSession(created.get(0)));
+			createSession(manager, "late");
+
+			assertEquals(MAX_SESSIONS, manager.getSessionsNum());
+		} finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * A session in the middle of an action is not evicted, other idle sessions are.
+	 */
+	@Test
+	public void evictSkipsSessionInAction() throws Exception
+	{
+		HoldingPool pool = new HoldingPool();
+		final GameSessionManager manager = new GameSessionManager(0, TimeUnit.NANOSECONDS, MAX_SESSIONS, pool);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try
+		{
+			createSession(manager, "busy");
+			createSession(manager, "idle");
+
+			// The new stage holds the lock of its session while it takes the board.
+			Future<IIceCaveGameStatus> stage = executor.submit(new Callable<IIceCaveGameStatus>()
+			{
+				@Override
+				public IIceCaveGameStatus call() throws Exception
+				{
+					return manager.newStage("busy", TestBoards.START, TestBoards.WALL_WIDTH);
+				}
+			});
+
+			assertTrue(pool.mHolding.await(10, TimeUnit.SECONDS));
+			Thread.sleep(1);
+
+			assertEquals(1, manager.evictIdle());
+			assertEquals(1, manager.getSessionsNum());
+
+			pool.mReleased.countDown();
+			stage.get();
+			Thread.sleep(1);
+
+			assertEquals(1, manager.evictIdle());
+			assertEquals(0, manager.getSessionsNum());
+		} finally
+		{
+			pool.mReleased.countDown();
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of generating boards within a budget.
+ *
+ */
+public class GenerationBudgetTest
+{
+	/**
+	 * Number of seeded boards generated in each mode.
+	 */
+	private static final int BOARDS_NUM = 60;
+
+	/**
+	 * Number of seeded Hard boards generated in each mode.
+	 */
+	private static final int HARD_BOARDS_NUM = 10;
+
+	/**
+	 * Create the context of a seed.
+	 * @param seed - Seed of the random values.
+	 * @return The context.
+	 */
+	private static MapLogicContext createContext(long seed)
+	{
+		return createContext(seed, null);
+	}
+
+	/**
+	 * Create the context of a seed, keeping the statistics of its boards.
+	 * @param seed - Seed of the random values.
+	 * @param sink - Sink for the statistics, null to keep none.
+	 * @return The context.
+	 */
+	private static MapLogicContext createContext(long seed, IGenerationMetricsSink sink)
+	{
+		return new MapLogicContext(null,
+				MapLogicServiceProvider.getInstance().getTileValidatorFactory(),
+				new SplittableRandomServiceProvider(seed),
+				sink);
+	}
+
+	/**
+	 * Sink that keeps the statistics of the boards generated.
+	 */
+	private static class StatsSink implements IGenerationMetricsSink
+	{
+		/**
+		 * The statistics, in the order of the boards.
+		 */
+		private final List<GenerationStats> mStats = new ArrayList<GenerationStats>();
+
+		@Override
+		public void onBoardGenerated(GenerationStats stats)
+		{
+			mStats.add(stats);
+		}
+	}
+
+	/**
+	 * Generate a board of a difficulty within a budget.
+	 * @param seed - Seed of the board.
+	 * @param difficulty - The difficulty of the board.
+	 * @param generationMode - The way to generate the board.
+	 * @param budget - Bounds on generating the board.
+	 * @param sink - Sink for the statistics.
+	 * @return The board generated.
+	 */
+	private static IceCaveBoard generate(long seed,
+			EDifficulty difficulty,
+			EGenerationMode generationMode,
+			GenerationBudget budget,
+			IGenerationMetricsSink sink) throws BoardGenerationException
+	{
+		return IceCaveBoard.generate(TestBoards.ROWS,
+				TestBoards.COLUMNS,
+				TestBoards.START,
+				EDirection.RIGHT,
+				TestBoards.BOULDER_NUM,
+				TestBoards.WALL_WIDTH,
+				difficulty,
+				generationMode,
+				createContext(seed, sink),
+				budget);
+	}
+
+	/**
+	 * A budget the generation stays within does not change the boards of a seed.
+	 */
+	@Test
+	public void budgetKeepsTheBoardsOfASeed() throws Exception
+	{
+		GenerationBudget generous = new GenerationBudget(1000000, 1, TimeUnit.HOURS, new CancellationToken());
+
+		for (EGenerationMode generationMode : EGenerationMode.values())
+		{
+			for (int seed = 0; seed < BOARDS_NUM; seed++)
+			{
+				// Hard boards without a budget are bounded, they are checked on their own.
+				EDifficulty difficulty = (seed % 2 == 0) ? EDifficulty.Easy : EDifficulty.Medium;
+				String expected = TestBoards.describe(new IceCaveBoard(TestBoards.ROWS,
+						TestBoards.COLUMNS,
+						TestBoards.START,
+						EDirection.RIGHT,
+						TestBoards.BOULDER_NUM,
+						TestBoards.WALL_WIDTH,
+						difficulty,
+						generationMode,
+						createContext(seed)));
+
+				assertEquals(generationMode + " seed " + seed,
+						expected,
+						TestBoards.describe(generate(seed, difficulty, generationMode, GenerationBudget.UNLIMITED, null)));
+				assertEquals(generationMode + " seed " + seed,
+						expected,
+						TestBoards.describe(generate(seed, difficulty, generationMode, generous, null)));
+			}
+		}
+	}
+
+	/**
+	 * A Hard board without a budget is the board of the Hard layouts budget when one fits,
+	 * and a Medium board once the layouts ran out.
+	 */
+	@Test
+	public void hardFallsBackToMediumOnceItsLayoutsRanOut() throws Exception
+	{
+		GenerationBudget hardBudget = new GenerationBudget(IceCaveBoard.HARD_MAX_LAYOUTS, 0, TimeUnit.MILLISECONDS, null);
+
+		for (EGenerationMode generationMode : EGenerationMode.values())
+		{
+			for (int seed = 0; seed < HARD_BOARDS_NUM; seed++)
+			{
+				String board = generationMode + " seed " + seed;
+				IceCaveBoard unbounded = new IceCaveBoard(TestBoards.ROWS,
+						TestBoards.COLUMNS,
+						TestBoards.START,
+						EDirection.RIGHT,
+						TestBoards.BOULDER_NUM,
+						TestBoards.WALL_WIDTH,
+						EDifficulty.Hard,
+						generationMode,
+						createContext(seed));
+
+				try
+				{
+					IceCaveBoard bounded = generate(seed, EDifficulty.Hard, generationMode, hardBudget, null);
+					assertEquals(board, TestBoards.describe(bounded), TestBoards.describe(unbounded));
+				} catch (BoardGenerationException e)
+				{
+					assertEquals(board, EGenerationFailure.LAYOUTS_EXHAUSTED, e.getFailure());
+					assertTrue(board, unbounded.getMinMoves() >= EDifficulty.Medium.getMinMoves());
+					assertTrue(board, unbounded.getMinMoves() < EDifficulty.Medium.getMaxMoves());
+				}
+
+				assertEquals(board,
+						unbounded.getMinMoves(),
+						new BreakableBoardSolver().solve(unbounded, unbounded.getStartPoint()));
+			}
+		}
+	}
+
+	/**
+	 * A budget of one layout places one layout, in either mode.
+	 */
+	@Test
+	public void layoutsBudgetPlacesThatManyLayouts()
+	{
+		GenerationBudget budget = new GenerationBudget(1, 0, TimeUnit.MILLISECONDS, null);
+
+		for (EGenerationMode generationMode : EGenerationMode.values())
+		{
+			for (int seed = 0; seed < BOARDS_NUM; seed++)
+			{
+				StatsSink sink = new StatsSink();
+
+				try
+				{
+					generate(seed, EDifficulty.Hard, generationMode, budget, sink);
+				} catch (BoardGenerationException e)
+				{
+					assertEquals(EGenerationFailure.LAYOUTS_EXHAUSTED, e.getFailure());
+				}
+
+				assertEquals(generationMode + " seed " + seed, 1, sink.mStats.get(0).getLayoutsNum());
+			}
+		}
+	}
+
+	/**
+	 * A token cancelled before the call fails the generation before any layout is placed, in either mode.
+	 */
+	@Test
+	public void cancelledTokenStopsTheGeneration()
+	{
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+		GenerationBudget budget = new GenerationBudget(0, 0, TimeUnit.MILLISECONDS, token);
+
+		for (EGenerationMode generationMode : EGenerationMode.values())
+		{
+			StatsSink sink = new StatsSink();
+
+			try
+			{
+				generate(0, EDifficulty.Easy, generationMode, budget, sink);
+				fail(generationMode + " generated a board");
+			} catch (BoardGenerationException e)
+			{
+				assertEquals(EGenerationFailure.CANCELLED, e.getFailure());
+				assertNull(e.getNearMiss());
+			}
+
+			assertEquals(0, sink.mStats.get(0).getLayoutsNum());
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of generating boards with a metrics sink.
+ *
+ */
+public class GenerationMetricsTest
+{
+	/**
+	 * Number of seeded boards generated in each mode.
+	 */
+	private static final int BOARDS_NUM = 60;
+
+	/**
+	 * Generate a board.
+	 * @param seed - Seed of the board.
+	 * @param generationMode - The way to generate the board.
+	 * @param sink - Sink for the statistics, null to keep none.
+	 * @return The board generated.
+	 */
+	private static IceCaveBoard generate(long seed, EGenerationMode generationMode, IGenerationMetricsSink sink)
+	{
+		MapLogicContext context = new MapLogicContext(null,
+				MapLogicServiceProvider.getInstance().getTileValidatorFactory(),
+				new SplittableRandomServiceProvider(seed),
+				sink);
+
+		return new IceCaveBoard(TestBoards.ROWS,
+				TestBoards.COLUMNS,
+				TestBoards.START,
+				EDirection.RIGHT,
+				TestBoards.BOULDER_NUM,
+				TestBoards.WALL_WIDTH,
+				EDifficulty.values()[(int) (seed % EDifficulty.values().length)],
+				generationMode,
+				context);
+	}
+
+	/**
+	 * A sink does not change the boards of a seed, and hears of each board once.
+	 */
+	@Test
+	public void sinkKeepsTheBoardsOfASeed()
+	{
+		final List<GenerationStats> stats = new ArrayList<GenerationStats>();
+		IGenerationMetricsSink sink = new IGenerationMetricsSink()
+		{
+			@Override
+			public void onBoardGenerated(GenerationStats boardStats)
+			{
+				stats.add(boardStats);
+			}
+		};
+
+		for (EGenerationMode generationMode : EGenerationMode.values())
+		{
+			for (int seed = 0; seed < BOARDS_NUM; seed++)
+			{
+				stats.clear();
+				IceCaveBoard measured = generate(seed, generationMode, sink);
+
+				assertEquals(generationMode + " seed " + seed,
+						TestBoards.describe(generate(seed, generationMode, null)),
+						TestBoards.describe(measured));
+				assertEquals(1, stats.size());
+				assertEquals(EDifficulty.values()[seed % EDifficulty.values().length], stats.get(0).getDifficulty());
+				assertEquals(TestBoards.BOULDER_NUM, stats.get(0).getBoulderNum());
+				assertTrue(stats.get(0).getLayoutsNum() >= 1);
+			}
+		}
+	}
+
+	/**
+	 * The histograms count every board generated through them.
+	 */
+	@Test
+	public void histogramsCountTheBoards()
+	{
+		GenerationHistograms histograms = new GenerationHistograms();
+
+		for (int seed = 0; seed < BOARDS_NUM; seed++)
+		{
+			generate(seed, EGenerationMode.DISTANCE_FIELD, histograms);
+		}
+
+		assertEquals(BOARDS_NUM, histograms.getTotalNanos().getCount());
+		assertEquals(BOARDS_NUM, histograms.getLayouts().getCount());
+	}
+}
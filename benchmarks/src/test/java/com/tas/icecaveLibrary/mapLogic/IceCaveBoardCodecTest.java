@@ -0,0 +1,175 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.InputStreamReader;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.tiles.ITile;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of reading stage boards, in the binary format and as serialized objects.
+ *
+ */
+public class IceCaveBoardCodecTest
+{
+	/**
+	 * Number of boards of each difficulty to encode.
+	 */
+	private static final int BOARDS_NUM = 30;
+
+	/**
+	 * Encode a board.
+	 * @param board - The board to encode.
+	 * @return The encoded board.
+	 */
+	private static byte[] encode(IceCaveBoard board) throws Exception
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		IceCaveBoardCodec.write(board, out);
+		out.close();
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Start a stage from a stream, and describe its board.
+	 * @param bytes - The stream of the stage.
+	 * @return Description of the board of the stage.
+	 */
+	private static String readStage(byte[] bytes) throws Exception
+	{
+		IceCaveGame game = new IceCaveGame(TestBoards.BOULDER_NUM,
+				TestBoards.COLUMNS,
+				TestBoards.ROWS,
+				EDifficulty.Easy,
+				new SplittableRandomServiceProvider(0));
+		game.newStage(new ByteArrayInputStream(bytes));
+
+		return TestBoards.describe(game.getBoard());
+	}
+
+	/**
+	 * A board read back from its encoding is the board written.
+	 */
+	@Test
+	public void readsTheBoardWritten() throws Exception
+	{
+		SplittableRandomServiceProvider random = new SplittableRandomServiceProvider(8);
+
+		for (EDifficulty difficulty : EDifficulty.values())
+		{
+			for (int i = 0; i < BOARDS_NUM; i++)
+			{
+				IceCaveBoard board = TestBoards.generate(difficulty, random.split());
+				byte[] encoded = encode(board);
+
+				assertEquals(IceCaveBoardCodec.getEncodedSize(board), encoded.length);
+				assertEquals(TestBoards.describe(board),
+						TestBoards.describe(IceCaveBoardCodec.read(new DataInputStream(new ByteArrayInputStream(encoded)))));
+			}
+		}
+	}
+
+	/**
+	 * The header is followed by two tile codes in each byte.
+	 */
+	@Test
+	public void packsTwoTilesInAByte() throws Exception
+	{
+		IceCaveBoard board = new IceCaveBoard(15,
+				21,
+				TestBoards.START,
+				EDirection.RIGHT,
+				TestBoards.BOULDER_NUM,
+				TestBoards.WALL_WIDTH,
+				EDifficulty.Hard,
+				EGenerationMode.DISTANCE_FIELD,
+				new SplittableRandomServiceProvider(8));
+
+		assertEquals(IceCaveBoardCodec.HEADER_SIZE + (15 * 21 + 1) / 2, encode(board).length);
+	}
+
+	/**
+	 * A stage stream may hold an encoded board, or a serialized one.
+	 */
+	@Test
+	public void newStageReadsBothFormats() throws Exception
+	{
+		IceCaveBoard board = TestBoards.generate(EDifficulty.Medium, new SplittableRandomServiceProvider(9));
+		ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(serialized);
+		out.writeObject(board);
+		out.close();
+
+		assertEquals(TestBoards.describe(board), readStage(encode(board)));
+		assertEquals(TestBoards.describe(board), readStage(serialized.toByteArray()));
+	}
+
+	/**
+	 * Boards serialized by 1.0 load, with the tiles, start and minimum moves 1.0 reported for them.
+	 */
+	@Test
+	public void readsBoardsSerializedBy10() throws Exception
+	{
+		for (int i = 0; i < 3; i++)
+		{
+			IceCaveGame game = new IceCaveGame(25, 14, 14, EDifficulty.Easy, new SplittableRandomServiceProvider(0));
+			game.newStage(getClass().getResourceAsStream("/legacy/board" + i + ".ser"));
+			IceCaveBoard board = game.getBoard();
+
+			// The letters are the first letters of the tile classes, as 1.0 wrote them.
+			StringBuilder description = new StringBuilder();
+			ITile[][] tiles = board.getBoardSnapshot();
+			for (ITile[] row : tiles)
+			{
+				for (ITile tile : row)
+				{
+					description.append(tile.getClass().getSimpleName().charAt(0));
+				}
+
+				description.append('\n');
+			}
+
+			description.append("start=").append(board.getStartPoint().x).append(',').append(board.getStartPoint().y)
+					.append(" moves=").append(board.getMinMoves()).append('\n');
+
+			assertEquals(readResource("/legacy/board" + i + ".txt"), description.toString());
+		}
+	}
+
+	/**
+	 * Read a text resource.
+	 * @param name - Name of the resource.
+	 * @return The text, each line ended by a new line.
+	 */
+	private String readResource(String name) throws Exception
+	{
+		BufferedReader reader = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(name), "UTF-8"));
+		StringBuilder text = new StringBuilder();
+		try
+		{
+			String line;
+			while ((line = reader.readLine()) != null)
+			{
+				text.append(line).append('\n');
+			}
+		} finally
+		{
+			reader.close();
+		}
+
+		return text.toString();
+	}
+}
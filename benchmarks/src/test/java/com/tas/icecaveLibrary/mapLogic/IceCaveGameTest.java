@@ -0,0 +1,380 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of games played side by side, and of games read back from a stream.
+ *
+ */
+public class IceCaveGameTest
+{
+	/**
+	 * Number of games played at once.
+	 */
+	private static final int GAMES_NUM = 64;
+
+	/**
+	 * Number of threads playing the games.
+	 */
+	private static final int THREADS_NUM = 8;
+
+	/**
+	 * Number of stages played in each game.
+	 */
+	private static final int STAGES_NUM = 10;
+
+	/**
+	 * Number of seeded games whose moves are undone and redone.
+	 */
+	private static final int JOURNAL_GAMES_NUM = 12;
+
+	/**
+	 * Number of moves kept by a capped journal.
+	 */
+	private static final int JOURNAL_DEPTH = 5;
+
+	/**
+	 * Create a game.
+	 * @param seed - Seed of the boards of the game.
+	 * @return The game.
+	 */
+	private static IceCaveGame createGame(long seed)
+	{
+		return new IceCaveGame(TestBoards.BOULDER_NUM,
+				TestBoards.COLUMNS,
+				TestBoards.ROWS,
+				EDifficulty.values()[(int) (seed % EDifficulty.values().length)],
+				new SplittableRandomServiceProvider(seed));
+	}
+
+	/**
+	 * Play the current stage of a game along the solver's road.
+	 * @param game - The game to play.
+	 * @return true if the stage ended in the solver's number of moves.
+	 */
+	private static boolean playSolution(IceCaveGame game)
+	{
+		BreakableBoardSolver solver = new BreakableBoardSolver();
+		int movesNum = solver.solve(game.getBoard(), game.getBoard().getStartPoint());
+
+		for (EDirection direction : solver.getMoves())
+		{
+			game.movePlayer(direction);
+		}
+
+		return game.getIsStageEnded() && game.getCurrentStageTakenMoves() == movesNum;
+	}
+
+	/**
+	 * Describe the state of a game: its board, the player, and the counters.
+	 * @param game - The game to describe.
+	 * @return Description of the game.
+	 */
+	private static String describeState(IceCaveGame game)
+	{
+		return TestBoards.describe(game.getBoard()) +
+				" player " + game.getPlayerPoint() +
+				" moves " + game.getCurrentStageTakenMoves() +
+				" overall " + game.getOverallMoves() +
+				" ended " + game.getIsStageEnded();
+	}
+
+	/**
+	 * Find the solver's road on the current stage of a game.
+	 * @param game - The game to solve.
+	 * @return The moves of the road.
+	 */
+	private static EDirection[] solve(IceCaveGame game)
+	{
+		BreakableBoardSolver solver = new BreakableBoardSolver();
+		solver.solve(game.getBoard(), game.getBoard().getStartPoint());
+
+		return solver.getMoves();
+	}
+
+	/**
+	 * Play moves on a game, describing the game after each move.
+	 * @param game - The game to play.
+	 * @param moves - The moves to play.
+	 * @return The states of the game, before the first move and after each move.
+	 */
+	private static List<String> playStates(IceCaveGame game, EDirection[] moves)
+	{
+		List<String> states = new ArrayList<String>();
+		states.add(describeState(game));
+
+		for (EDirection direction : moves)
+		{
+			game.movePlayer(direction);
+			states.add(describeState(game));
+		}
+
+		return states;
+	}
+
+	/**
+	 * Write a game to a stream and read it back.
+	 * @param game - The game to copy.
+	 * @return The game read.
+	 */
+	private static IceCaveGame copy(IceCaveGame game) throws Exception
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(game);
+		out.close();
+
+		return (IceCaveGame) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+	}
+
+	/**
+	 * Each game gets its own collisions, so games played at once all end their stages.
+	 */
+	@Test
+	public void concurrentGamesEndTheirStages() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS_NUM);
+		try
+		{
+			List<Future<Integer>> games = new ArrayList<Future<Integer>>();
+			for (int i = 0; i < GAMES_NUM; i++)
+			{
+				final long seed = i;
+				games.add(executor.submit(new Callable<Integer>()
+				{
+					@Override
+					public Integer call() throws Exception
+					{
+						IceCaveGame game = createGame(seed);
+						int endedNum = 0;
+
+						for (int stage = 0; stage < STAGES_NUM; stage++)
+						{
+							game.newStage(TestBoards.START, TestBoards.WALL_WIDTH);
+							if (playSolution(game))
+							{
+								endedNum++;
+							}
+						}
+
+						return endedNum;
+					}
+				}));
+			}
+
+			for (Future<Integer> game : games)
+			{
+				assertEquals(STAGES_NUM, game.get().intValue());
+			}
+		} finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * A game read back moves, undoes and calls its listeners.
+	 */
+	@Test
+	public void gameReadBackKeepsPlaying() throws Exception
+	{
+		IceCaveGame game = createGame(3);
+		game.newStage(TestBoards.START, TestBoards.WALL_WIDTH);
+		IceCaveGame copy = copy(game);
+
+		assertEquals(TestBoards.describe(game.getBoard()), TestBoards.describe(copy.getBoard()));
+		assertTrue(playSolution(copy));
+		assertUndoAndListeners(copy);
+	}
+
+	/**
+	 * A game saved by 1.0 loads, and keeps playing.
+	 */
+	@Test
+	public void readsGameSavedBy10() throws Exception
+	{
+		ObjectInputStream in = new ObjectInputStream(getClass().getResourceAsStream("/legacy/game.ser"));
+		IceCaveGame game = (IceCaveGame) in.readObject();
+		in.close();
+
+		for (EDirection direction : EDirection.values())
+		{
+			game.movePlayer(direction);
+		}
+
+		assertUndoAndListeners(game);
+	}
+
+	/**
+	 * Moves undone are redone to the states they left, and a new move drops the moves left to redo.
+	 */
+	@Test
+	public void redoReturnsToTheStatesUndone() throws Exception
+	{
+		for (int seed = 0; seed < JOURNAL_GAMES_NUM; seed++)
+		{
+			IceCaveGame game = createGame(seed);
+			game.newStage(TestBoards.START, TestBoards.WALL_WIDTH);
+			EDirection[] moves = solve(game);
+			List<String> states = playStates(game, moves);
+			int lastMove = states.size() - 1;
+
+			for (int i = lastMove - 1; i >= 0; i--)
+			{
+				assertTrue("seed " + seed, game.undo());
+				assertEquals("seed " + seed + " undo to " + i, states.get(i), describeState(game));
+			}
+
+			assertFalse(game.undo());
+
+			for (int i = 1; i <= lastMove; i++)
+			{
+				assertTrue("seed " + seed, game.redo());
+				assertEquals("seed " + seed + " redo to " + i, states.get(i), describeState(game));
+			}
+
+			assertFalse(game.redo());
+
+			// Moving again after an undo leaves nothing to redo.
+			assertTrue(game.undo());
+			assertTrue(game.canRedo());
+			game.movePlayer(moves[lastMove - 1]);
+
+			assertFalse("seed " + seed, game.canRedo());
+			assertEquals("seed " + seed, states.get(lastMove), describeState(game));
+		}
+	}
+
+	/**
+	 * A capped journal keeps only the latest moves to undo.
+	 */
+	@Test
+	public void journalDropsTheOldestMoves() throws Exception
+	{
+		for (int seed = 0; seed < JOURNAL_GAMES_NUM; seed++)
+		{
+			IceCaveGame game = createGame(seed);
+			game.setJournalDepth(JOURNAL_DEPTH);
+			game.newStage(TestBoards.START, TestBoards.WALL_WIDTH);
+			List<String> states = playStates(game, solve(game));
+			int lastMove = states.size() - 1;
+			int undoneNum = Math.min(JOURNAL_DEPTH, lastMove);
+
+			for (int i = 1; i <= undoneNum; i++)
+			{
+				assertTrue("seed " + seed, game.undo());
+				assertEquals("seed " + seed + " undo " + i, states.get(lastMove - i), describeState(game));
+			}
+
+			assertFalse("seed " + seed, game.canUndo());
+			assertFalse("seed " + seed, game.undo());
+
+			for (int i = 0; i < undoneNum; i++)
+			{
+				assertTrue("seed " + seed, game.redo());
+			}
+
+			assertEquals("seed " + seed, states.get(lastMove), describeState(game));
+		}
+	}
+
+	/**
+	 * A batch with a move out of the direction ordinals is refused before any of its moves is applied.
+	 */
+	@Test
+	public void badOrdinalAppliesNoMove() throws Exception
+	{
+		IceCaveGame game = createGame(0);
+		game.newStage(TestBoards.START, TestBoards.WALL_WIDTH);
+		String before = describeState(game);
+
+		for (byte ordinal : new byte[] { -1, (byte) EDirection.values().length })
+		{
+			try
+			{
+				game.applyMoves(new byte[] { (byte) EDirection.RIGHT.ordinal(), (byte) EDirection.DOWN.ordinal(), ordinal });
+				fail("ordinal " + ordinal + " was applied");
+			} catch (IllegalArgumentException e)
+			{
+				assertEquals(before, describeState(game));
+				assertFalse(game.canUndo());
+			}
+		}
+	}
+
+	/**
+	 * A batch stops at the move that ends the stage, and reports its index.
+	 */
+	@Test
+	public void batchStopsAtTheEndOfTheStage() throws Exception
+	{
+		for (int seed = 0; seed < JOURNAL_GAMES_NUM; seed++)
+		{
+			IceCaveGame game = createGame(seed);
+			game.newStage(TestBoards.START, TestBoards.WALL_WIDTH);
+			EDirection[] moves = solve(game);
+
+			// All the moves but the last do not reach the flag.
+			MoveBatchResult result = game.applyMoves(Arrays.copyOf(moves, moves.length - 1));
+
+			assertEquals("seed " + seed, MoveBatchResult.NOT_ENDED, result.getStageEndedIndex());
+			assertEquals("seed " + seed, moves.length - 1, result.getAppliedNum());
+			assertFalse("seed " + seed, result.getIsStageEnded());
+
+			// The last move, then moves past the flag that are not applied.
+			byte[] rest = new byte[] { (byte) moves[moves.length - 1].ordinal(),
+					(byte) EDirection.UP.ordinal(),
+					(byte) EDirection.LEFT.ordinal() };
+			result = game.applyMoves(rest);
+
+			assertEquals("seed " + seed, 0, result.getStageEndedIndex());
+			assertEquals("seed " + seed, 1, result.getAppliedNum());
+			assertEquals("seed " + seed, 1, result.getCountedNum());
+			assertTrue("seed " + seed, result.getIsStageEnded());
+			assertEquals("seed " + seed, game.getBoard().getFlagLocation(), result.getPlayerPoint());
+			assertEquals("seed " + seed, moves.length, game.getCurrentStageTakenMoves());
+		}
+	}
+
+	/**
+	 * Check that a game undoes its last move and tells its listeners.
+	 * @param game - A game with a move to undo.
+	 */
+	private static void assertUndoAndListeners(IceCaveGame game)
+	{
+		final AtomicInteger changesNum = new AtomicInteger();
+		game.addBoardChangeListener(new IBoardChangeListener()
+		{
+			@Override
+			public void onBoardChanged(BoardChanges changes)
+			{
+				changesNum.addAndGet(changes.getSize());
+			}
+		});
+
+		assertTrue(game.undo());
+		assertTrue(changesNum.get() > 0);
+	}
+}
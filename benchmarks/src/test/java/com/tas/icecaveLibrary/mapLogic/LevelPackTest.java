@@ -0,0 +1,148 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of writing level packs, and of starting stages from them.
+ *
+ */
+public class LevelPackTest
+{
+	/**
+	 * Number of stages in the pack.
+	 */
+	private static final int STAGES_NUM = 300;
+
+	/**
+	 * The boards written to the pack.
+	 */
+	private static List<IceCaveBoard> sBoards;
+
+	/**
+	 * The pack file.
+	 */
+	private static File sPackFile;
+
+	/**
+	 * Generate the boards, and write them to a pack.
+	 */
+	@BeforeClass
+	public static void writePack() throws Exception
+	{
+		SplittableRandomServiceProvider random = new SplittableRandomServiceProvider(9);
+		sBoards = new ArrayList<IceCaveBoard>();
+		for (int i = 0; i < STAGES_NUM; i++)
+		{
+			sBoards.add(TestBoards.generate(EDifficulty.values()[i % EDifficulty.values().length], random.split()));
+		}
+
+		sPackFile = File.createTempFile("stages", ".pack");
+		LevelPack.write(sPackFile, sBoards);
+	}
+
+	/**
+	 * Delete the pack file.
+	 */
+	@AfterClass
+	public static void deletePack()
+	{
+		sPackFile.delete();
+	}
+
+	/**
+	 * The file holds the header, an int offset per stage and the encoded boards, nothing else.
+	 */
+	@Test
+	public void fileHoldsTheIndexAndTheEncodedBoards()
+	{
+		long size = 12 + 4L * STAGES_NUM;
+		for (IceCaveBoard board : sBoards)
+		{
+			size += IceCaveBoardCodec.getEncodedSize(board);
+		}
+
+		assertEquals(size, sPackFile.length());
+	}
+
+	/**
+	 * Each stage of the pack is the board written for it, in any order.
+	 */
+	@Test
+	public void stagesAreTheBoardsWritten() throws Exception
+	{
+		LevelPack pack = LevelPack.open(sPackFile);
+
+		assertEquals(STAGES_NUM, pack.getStagesNum());
+		for (int i = STAGES_NUM - 1; i >= 0; i--)
+		{
+			assertEquals(TestBoards.describe(sBoards.get(i)), TestBoards.describe(pack.getStage(i)));
+		}
+	}
+
+	/**
+	 * Changing a board taken from the pack does not change the stage.
+	 */
+	@Test
+	public void stageBoardsAreIndependent() throws Exception
+	{
+		LevelPack pack = LevelPack.open(sPackFile);
+		IceCaveBoard board = pack.getStage(0);
+		board.setTileType(1, 1, ETileType.BOULDER);
+
+		assertEquals(TestBoards.describe(sBoards.get(0)), TestBoards.describe(pack.getStage(0)));
+	}
+
+	/**
+	 * A game starts the stages of a pack.
+	 */
+	@Test
+	public void gameStartsPackStages() throws Exception
+	{
+		LevelPack pack = LevelPack.open(sPackFile);
+		IceCaveGame game = new IceCaveGame(TestBoards.BOULDER_NUM,
+				TestBoards.COLUMNS,
+				TestBoards.ROWS,
+				EDifficulty.Hard,
+				new SplittableRandomServiceProvider(0));
+
+		for (int i = 0; i < STAGES_NUM; i += 37)
+		{
+			game.newStage(pack, i);
+			assertEquals(TestBoards.describe(sBoards.get(i)), TestBoards.describe(game.getBoard()));
+		}
+	}
+
+	/**
+	 * Stages out of the pack are rejected.
+	 */
+	@Test
+	public void rejectsStagesOutOfThePack() throws Exception
+	{
+		LevelPack pack = LevelPack.open(sPackFile);
+
+		for (int index : new int[] { -1, STAGES_NUM })
+		{
+			try
+			{
+				pack.getStage(index);
+				fail("Stage " + index + " was read");
+			} catch (IndexOutOfBoundsException e)
+			{
+				// Expected.
+			}
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
+import com.tas.icecaveLibrary.utils.Point;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of the player moves, against a player that walks one tile at a time.
+ *
+ */
+public class MovePlayerTest
+{
+	/**
+	 * Number of seeded games walked.
+	 */
+	private static final int GAMES_NUM = 300;
+
+	/**
+	 * Most random moves made in a game.
+	 */
+	private static final int MOVES_NUM = 200;
+
+	/**
+	 * A player that walks one tile at a time, the way the moves were made before the slide stops.
+	 */
+	private static class StepPlayer
+	{
+		/**
+		 * The tiles of the board, indexed by row and column.
+		 */
+		private final ETileType[][] mTiles;
+
+		/**
+		 * Minimal number of moves of the stage.
+		 */
+		private final int mMinMoves;
+
+		/**
+		 * Location of the player.
+		 */
+		private Point mLocation;
+
+		/**
+		 * The last direction moved, null if none.
+		 */
+		private EDirection mLastDirection;
+
+		/**
+		 * Number of moves taken in the stage.
+		 */
+		private int mStageMoves;
+
+		/**
+		 * Number of moves taken over the minimum.
+		 */
+		private int mOverallMoves;
+
+		/**
+		 * Whether or not the player reached the flag.
+		 */
+		private boolean mIsStageEnded;
+
+		/**
+		 * Create a new instance of the StepPlayer object.
+		 * @param board - The board to walk on.
+		 * @param start - The starting location of the player.
+		 * @param overallMoves - Number of moves taken over the minimum before the stage.
+		 */
+		StepPlayer(IceCaveBoard board, Point start, int overallMoves)
+		{
+			mTiles = new ETileType[board.getRowsNum()][board.getColumnNum()];
+			mMinMoves = board.getMinMoves();
+			mLocation = new Point(start);
+			mOverallMoves = overallMoves;
+
+			// Go through the tiles.
+			for (int row = 0; row < mTiles.length; row++)
+			{
+				for (int column = 0; column < mTiles[row].length; column++)
+				{
+					mTiles[row][column] = board.getTileType(row, column);
+				}
+			}
+		}
+
+		/**
+		 * Move the player, one tile at a time, up to the tile that stops it.
+		 * @param direction - Direction to move the player in.
+		 * @return The location of the boulder broken by the move, null if none.
+		 */
+		Point move(EDirection direction)
+		{
+			if (direction.equals(mLastDirection))
+			{
+				return null;
+			}
+
+			mLastDirection = direction;
+			Point stop = new Point(mLocation);
+
+			while (true)
+			{
+				Point next = new Point(stop);
+				next.offset(direction.getDirection().x, direction.getDirection().y);
+				ETileType type = mTiles[next.y][next.x];
+
+				if (type == ETileType.FLAG)
+				{
+					mIsStageEnded = true;
+					mLocation = next;
+					countMove();
+
+					return null;
+				}
+
+				if (type == ETileType.BREAKABLE_BOULDER)
+				{
+					mTiles[next.y][next.x] = ETileType.EMPTY;
+					mLastDirection = null;
+					mLocation = stop;
+					countMove();
+
+					return next;
+				}
+
+				if (type.isBlocking())
+				{
+					// A move that does not leave the tile does not count.
+					if (!stop.equals(mLocation))
+					{
+						mLocation = stop;
+						countMove();
+					}
+
+					return null;
+				}
+
+				stop = next;
+			}
+		}
+
+		/**
+		 * Count a move, and count it overall if it is over the minimum.
+		 */
+		private void countMove()
+		{
+			mStageMoves++;
+
+			if (mStageMoves > mMinMoves)
+			{
+				mOverallMoves++;
+			}
+		}
+	}
+
+	/**
+	 * Moves made on the slide stops end where a walk of one tile at a time ends,
+	 * with the same counters and the same broken boulders, up to a move made after the flag.
+	 */
+	@Test
+	public void movesMatchAStepWalk() throws Exception
+	{
+		EDirection[] directions = EDirection.values();
+
+		for (int seed = 0; seed < GAMES_NUM; seed++)
+		{
+			IceCaveGame game = new IceCaveGame(TestBoards.BOULDER_NUM,
+					TestBoards.COLUMNS,
+					TestBoards.ROWS,
+					EDifficulty.values()[seed % EDifficulty.values().length],
+					new SplittableRandomServiceProvider(seed));
+			game.newStage(TestBoards.START, TestBoards.WALL_WIDTH);
+			game.getPointToUpdate();
+
+			StepPlayer player = new StepPlayer(game.getBoard(), game.getPlayerPoint(), game.getOverallMoves());
+			Random random = new Random(seed);
+
+			for (int i = 0; i < MOVES_NUM; i++)
+			{
+				boolean wasStageEnded = game.getIsStageEnded();
+				EDirection direction = directions[random.nextInt(directions.length)];
+				String step = "seed " + seed + " move " + i + " " + direction;
+
+				game.movePlayer(direction);
+				Point broken = player.move(direction);
+
+				assertEquals(step, player.mLocation, game.getPlayerPoint());
+				assertEquals(step, player.mStageMoves, game.getCurrentStageTakenMoves());
+				assertEquals(step, player.mOverallMoves, game.getOverallMoves());
+				assertEquals(step, player.mIsStageEnded, game.getIsStageEnded());
+				assertArrayEquals(step,
+						(broken == null) ? new Point[0] : new Point[] { broken },
+						game.getPointToUpdate());
+
+				if (broken != null)
+				{
+					assertEquals(step, ETileType.EMPTY, game.getBoard().getTileType(broken.y, broken.x));
+				}
+
+				// One move is made from the flag, it does not reach the flag again.
+				if (wasStageEnded)
+				{
+					break;
+				}
+			}
+		}
+	}
+}
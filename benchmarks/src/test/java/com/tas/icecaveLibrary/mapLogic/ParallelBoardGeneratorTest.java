@@ -0,0 +1,108 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests that the boards of a seed do not depend on the threads generating them.
+ *
+ */
+public class ParallelBoardGeneratorTest
+{
+	/**
+	 * Seed of the generators.
+	 */
+	private static final long SEED = 7;
+
+	/**
+	 * Number of generators raced.
+	 */
+	private static final int WORKERS_NUM = 4;
+
+	/**
+	 * The board of each generator, generated one by one on the calling thread.
+	 * @param difficulty - The difficulty of the boards.
+	 * @return Descriptions of the boards, by generator.
+	 */
+	private static List<String> generateInOrder(EDifficulty difficulty)
+	{
+		SplittableRandomServiceProvider random = new SplittableRandomServiceProvider(SEED);
+		List<String> boards = new ArrayList<String>();
+
+		for (int i = 0; i < WORKERS_NUM; i++)
+		{
+			boards.add(TestBoards.describe(TestBoards.generate(difficulty, random.split())));
+		}
+
+		return boards;
+	}
+
+	/**
+	 * Generate a board on an executor.
+	 * @param threadsNum - Number of threads of the executor.
+	 * @param difficulty - The difficulty of the board.
+	 * @return Description of the board.
+	 */
+	private static String generateOn(int threadsNum, EDifficulty difficulty) throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(threadsNum);
+		try
+		{
+			ParallelBoardGenerator generator = new ParallelBoardGenerator(executor,
+					WORKERS_NUM,
+					EGenerationMode.DISTANCE_FIELD,
+					new SplittableRandomServiceProvider(SEED));
+
+			return TestBoards.describe(generator.generate(TestBoards.ROWS,
+					TestBoards.COLUMNS,
+					TestBoards.START,
+					EDirection.RIGHT,
+					TestBoards.BOULDER_NUM,
+					TestBoards.WALL_WIDTH,
+					difficulty));
+		} finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * A single thread runs the generators in order, so the first one wins.
+	 */
+	@Test
+	public void singleThreadReturnsTheFirstGeneratorBoard() throws Exception
+	{
+		for (EDifficulty difficulty : EDifficulty.values())
+		{
+			assertEquals(generateInOrder(difficulty).get(0), generateOn(1, difficulty));
+		}
+	}
+
+	/**
+	 * Any generator may win on more threads, and its board is the one of its stream of the seed.
+	 */
+	@Test
+	public void anyThreadCountReturnsABoardOfTheSeed() throws Exception
+	{
+		for (EDifficulty difficulty : EDifficulty.values())
+		{
+			List<String> boards = generateInOrder(difficulty);
+
+			for (int threadsNum : new int[] { 2, 4, 8 })
+			{
+				assertTrue(boards.contains(generateOn(threadsNum, difficulty)));
+			}
+		}
+	}
+}
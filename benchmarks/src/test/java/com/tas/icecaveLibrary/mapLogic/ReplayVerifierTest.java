@@ -0,0 +1,347 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.ReplayVerifier.Claim;
+import com.tas.icecaveLibrary.mapLogic.ReplayVerifier.Report;
+import com.tas.icecaveLibrary.mapLogic.ReplayVerifier.Verdict;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
+import com.tas.icecaveLibrary.utils.Point;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of verifying claimed results by replaying their moves.
+ *
+ */
+public class ReplayVerifierTest
+{
+	/**
+	 * Number of seeded boards to claim results on.
+	 */
+	private static final int BOARDS_NUM = 30;
+
+	/**
+	 * Number of threads replaying the claims.
+	 */
+	private static final int THREADS_NUM = 4;
+
+	/**
+	 * Number of random moves of a made up claim.
+	 */
+	private static final int RANDOM_MOVES_NUM = 20;
+
+	/**
+	 * Board solved by moving right, then down.
+	 */
+	private static final String[] SLIDE_ROWS = {
+			"######",
+			"#S...#",
+			"#....#",
+			"#...F#",
+			"######" };
+
+	/**
+	 * Board solved by breaking the boulder on the right, then moving right again.
+	 */
+	private static final String[] BREAK_ROWS = {
+			"######",
+			"#S.xF#",
+			"######" };
+
+	/**
+	 * Create a board from its rows: '#' is a wall, 'o' a boulder, 'x' a breakable boulder,
+	 * 'F' the flag, 'S' the start and '.' an empty tile.
+	 * @param minMoves - Minimum moves to solve the board in.
+	 * @param rows - The rows of the board.
+	 * @return The board.
+	 */
+	private static IceCaveBoard createBoard(int minMoves, String... rows)
+	{
+		int columnsNum = rows[0].length();
+		byte[] codes = new byte[rows.length * columnsNum];
+		Point start = null;
+		Point flag = null;
+
+		// Go through the tiles.
+		for (int row = 0; row < rows.length; row++)
+		{
+			for (int column = 0; column < columnsNum; column++)
+			{
+				ETileType type;
+
+				switch (rows[row].charAt(column))
+				{
+				case '#':
+					type = ETileType.WALL;
+					break;
+				case 'o':
+					type = ETileType.BOULDER;
+					break;
+				case 'x':
+					type = ETileType.BREAKABLE_BOULDER;
+					break;
+				case 'F':
+					type = ETileType.FLAG;
+					flag = new Point(column, row);
+					break;
+				case 'S':
+					type = ETileType.EMPTY;
+					start = new Point(column, row);
+					break;
+				default:
+					type = ETileType.EMPTY;
+					break;
+				}
+
+				codes[row * columnsNum + column] = type.getCode();
+			}
+		}
+
+		return new IceCaveBoard(rows.length, columnsNum, codes, start, flag, EDirection.RIGHT, minMoves);
+	}
+
+	/**
+	 * Get the ordinals of directions.
+	 * @param directions - The directions.
+	 * @return The ordinals, in the order of the directions.
+	 */
+	private static byte[] toOrdinals(EDirection... directions)
+	{
+		byte[] ordinals = new byte[directions.length];
+
+		for (int i = 0; i < directions.length; i++)
+		{
+			ordinals[i] = (byte) directions[i].ordinal();
+		}
+
+		return ordinals;
+	}
+
+	/**
+	 * Claim the fewest moves of a board.
+	 * @param board - The board to claim on.
+	 * @return The claim of the moves the solver found.
+	 */
+	private static Claim claimSolution(IceCaveBoard board)
+	{
+		BreakableBoardSolver solver = new BreakableBoardSolver();
+		int minMoves = solver.solve(board, board.getStartPoint());
+
+		return new Claim(board, toOrdinals(solver.getMoves()), minMoves);
+	}
+
+	/**
+	 * Check that two verdicts are the same.
+	 * @param claim - Name of the claim, for the failure message.
+	 * @param expected - The verdict to compare with.
+	 * @param actual - The verdict compared.
+	 */
+	private static void assertSameVerdict(String claim, Verdict expected, Verdict actual)
+	{
+		assertEquals(claim, expected.getCountedMoves(), actual.getCountedMoves());
+		assertEquals(claim, expected.getMinMoves(), actual.getMinMoves());
+		assertEquals(claim, expected.getFlagIndex(), actual.getFlagIndex());
+		assertEquals(claim, expected.isValid(), actual.isValid());
+	}
+
+	/**
+	 * The fewest moves of a board, claimed in their number, hold.
+	 */
+	@Test
+	public void solutionClaimHolds()
+	{
+		Verdict verdict = ReplayVerifier.verify(new Claim(createBoard(2, SLIDE_ROWS),
+				toOrdinals(EDirection.RIGHT, EDirection.DOWN),
+				2));
+
+		assertTrue(verdict.isValid());
+		assertTrue(verdict.getIsFlagReached());
+		assertEquals(1, verdict.getFlagIndex());
+		assertEquals(2, verdict.getCountedMoves());
+		assertEquals(2, verdict.getMinMoves());
+
+		SplittableRandomServiceProvider random = new SplittableRandomServiceProvider(19);
+
+		for (int i = 0; i < BOARDS_NUM; i++)
+		{
+			IceCaveBoard board = TestBoards.generate(EDifficulty.values()[i % EDifficulty.values().length],
+					random.split());
+			Claim claim = claimSolution(board);
+			verdict = ReplayVerifier.verify(claim);
+
+			assertTrue("board " + i, verdict.isValid());
+			assertEquals("board " + i, board.getMinMoves(), verdict.getCountedMoves());
+			assertEquals("board " + i, claim.getMoves().length - 1, verdict.getFlagIndex());
+		}
+	}
+
+	/**
+	 * A move after the flag fails the claim, and is not counted.
+	 */
+	@Test
+	public void moveAfterTheFlagFails()
+	{
+		Verdict verdict = ReplayVerifier.verify(new Claim(createBoard(2, SLIDE_ROWS),
+				toOrdinals(EDirection.RIGHT, EDirection.DOWN, EDirection.UP),
+				2));
+
+		assertFalse(verdict.isValid());
+		assertEquals(1, verdict.getFlagIndex());
+		assertEquals(2, verdict.getCountedMoves());
+	}
+
+	/**
+	 * Fewer moves than the minimum of the stage fail the claim, whether claimed or counted.
+	 */
+	@Test
+	public void claimBelowTheMinimumFails()
+	{
+		byte[] moves = toOrdinals(EDirection.RIGHT, EDirection.DOWN);
+
+		// Claiming less than the replay counts.
+		Verdict verdict = ReplayVerifier.verify(new Claim(createBoard(2, SLIDE_ROWS), moves, 1));
+
+		assertFalse(verdict.isValid());
+		assertEquals(2, verdict.getCountedMoves());
+
+		// Reaching the flag in less than the stage records as its minimum.
+		verdict = ReplayVerifier.verify(new Claim(createBoard(3, SLIDE_ROWS), moves, 2));
+
+		assertFalse(verdict.isValid());
+		assertTrue(verdict.getIsFlagReached());
+		assertEquals(2, verdict.getCountedMoves());
+		assertEquals(3, verdict.getMinMoves());
+	}
+
+	/**
+	 * Repeating the last direction does nothing, unless the last move broke a boulder.
+	 */
+	@Test
+	public void repeatedDirectionIsNotCounted()
+	{
+		Verdict verdict = ReplayVerifier.verify(new Claim(createBoard(2, SLIDE_ROWS),
+				toOrdinals(EDirection.RIGHT, EDirection.RIGHT, EDirection.RIGHT, EDirection.DOWN),
+				2));
+
+		assertTrue(verdict.isValid());
+		assertEquals(3, verdict.getFlagIndex());
+		assertEquals(2, verdict.getCountedMoves());
+
+		// The move that breaks the boulder counts without moving, the next one slides to the flag.
+		verdict = ReplayVerifier.verify(new Claim(createBoard(2, BREAK_ROWS),
+				toOrdinals(EDirection.RIGHT, EDirection.RIGHT),
+				2));
+
+		assertTrue(verdict.isValid());
+		assertEquals(1, verdict.getFlagIndex());
+		assertEquals(2, verdict.getCountedMoves());
+	}
+
+	/**
+	 * A direction ordinal out of range fails the claim, and stops the replay.
+	 */
+	@Test
+	public void badOrdinalFails()
+	{
+		for (byte ordinal : new byte[] { -1, (byte) EDirection.values().length })
+		{
+			Verdict verdict = ReplayVerifier.verify(new Claim(createBoard(2, SLIDE_ROWS),
+					new byte[] { (byte) EDirection.RIGHT.ordinal(), ordinal, (byte) EDirection.DOWN.ordinal() },
+					1));
+
+			assertFalse("ordinal " + ordinal, verdict.isValid());
+			assertFalse("ordinal " + ordinal, verdict.getIsFlagReached());
+			assertEquals("ordinal " + ordinal, 1, verdict.getCountedMoves());
+		}
+	}
+
+	/**
+	 * Verifying no claims reports no verdicts.
+	 */
+	@Test
+	public void verifiesNoClaims() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS_NUM);
+
+		try
+		{
+			Report report = new ReplayVerifier(executor, THREADS_NUM).verifyAll(Collections.<Claim> emptyList());
+
+			assertEquals(0, report.getVerdicts().length);
+			assertEquals(0, report.getValidNum());
+		} finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * The verdicts of claims split over an executor are the verdicts of the calling thread, in the order of the claims.
+	 */
+	@Test
+	public void verifyAllMatchesVerify() throws Exception
+	{
+		SplittableRandomServiceProvider seeds = new SplittableRandomServiceProvider(91);
+		Random random = new Random(91);
+		List<Claim> claims = new ArrayList<Claim>();
+
+		for (int i = 0; i < BOARDS_NUM; i++)
+		{
+			IceCaveBoard board = TestBoards.generate(EDifficulty.values()[i % EDifficulty.values().length],
+					seeds.split());
+			Claim solution = claimSolution(board);
+			byte[] moves = new byte[RANDOM_MOVES_NUM];
+
+			// Mostly in range, some out of it.
+			for (int move = 0; move < moves.length; move++)
+			{
+				moves[move] = (byte) (random.nextInt(EDirection.values().length + 1));
+			}
+
+			claims.add(solution);
+			claims.add(new Claim(board, solution.getMoves(), solution.getClaimedMoves() + 1));
+			claims.add(new Claim(board, moves, random.nextInt(RANDOM_MOVES_NUM)));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS_NUM);
+
+		try
+		{
+			// More workers than threads, and a last chunk shorter than the others.
+			Report report = new ReplayVerifier(executor, THREADS_NUM + 3).verifyAll(claims);
+			int validNum = 0;
+
+			assertEquals(claims.size(), report.getVerdicts().length);
+
+			for (int i = 0; i < claims.size(); i++)
+			{
+				Verdict expected = ReplayVerifier.verify(claims.get(i));
+				assertSameVerdict("claim " + i, expected, report.getVerdicts()[i]);
+
+				if (expected.isValid())
+				{
+					validNum++;
+				}
+			}
+
+			assertEquals(validNum, report.getValidNum());
+			assertTrue(validNum >= BOARDS_NUM);
+		} finally
+		{
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of the slide engines against each other.
+ *
+ */
+public class SlideEngineTest
+{
+	/**
+	 * Number of random tile grids compared.
+	 */
+	private static final int GRIDS_NUM = 300;
+
+	/**
+	 * Most rows and columns of a random grid, past two words of bits.
+	 */
+	private static final int MAX_SIZE = 140;
+
+	/**
+	 * Number of rounds of changed tiles on each grid.
+	 */
+	private static final int ROUNDS_NUM = 3;
+
+	/**
+	 * Number of tiles changed in each round.
+	 */
+	private static final int CHANGES_NUM = 10;
+
+	/**
+	 * Number of seeded boards solved on both engines.
+	 */
+	private static final int BOARDS_NUM = 60;
+
+	/**
+	 * Compare the stops of two engines, from every cell of a grid in every direction.
+	 * @param expected - The engine to compare with.
+	 * @param actual - The engine compared.
+	 * @param cellsNum - Number of cells on the grid.
+	 * @param grid - Name of the grid, for the failure message.
+	 */
+	private static void assertSameStops(ISlideEngine expected, ISlideEngine actual, int cellsNum, String grid)
+	{
+		// Go through the cells.
+		for (int cell = 0; cell < cellsNum; cell++)
+		{
+			for (EDirection direction : EDirection.values())
+			{
+				int stop = expected.getStop(cell, direction);
+
+				// Name the slide only when it differs, there are millions of them.
+				if (actual.getStop(cell, direction) != stop)
+				{
+					assertEquals(grid + " cell " + cell + " " + direction, stop, actual.getStop(cell, direction));
+				}
+			}
+		}
+	}
+
+	/**
+	 * The bit sets and the table stop every slide on the same cell,
+	 * on random grids of one to three words a line, and after tiles change under them.
+	 */
+	@Test
+	public void bitsAndTableStopOnTheSameCells()
+	{
+		Random random = new Random(1);
+		ETileType[] types = ETileType.values();
+
+		for (int i = 0; i < GRIDS_NUM; i++)
+		{
+			int rowsNum = 1 + random.nextInt(MAX_SIZE);
+			int columnsNum = 1 + random.nextInt(MAX_SIZE);
+			byte[] codes = new byte[rowsNum * columnsNum];
+
+			// Mostly empty tiles, so the slides are long.
+			for (int cell = 0; cell < codes.length; cell++)
+			{
+				codes[cell] = ((random.nextInt(10) < 6) ? ETileType.EMPTY : types[random.nextInt(types.length)]).getCode();
+			}
+
+			SlideBits bits = new SlideBits(codes, rowsNum, columnsNum);
+			SlideTable updated = new SlideTable(codes, rowsNum, columnsNum);
+
+			for (int round = 0; round < ROUNDS_NUM; round++)
+			{
+				String grid = "grid " + i + " (" + rowsNum + "x" + columnsNum + ") round " + round;
+				assertSameStops(new SlideTable(codes, rowsNum, columnsNum), bits, codes.length, grid);
+				assertSameStops(bits, updated, codes.length, grid);
+
+				for (int change = 0; change < CHANGES_NUM; change++)
+				{
+					int cell = random.nextInt(codes.length);
+					codes[cell] = types[random.nextInt(types.length)].getCode();
+					bits.update(cell / columnsNum, cell % columnsNum);
+					updated.update(cell / columnsNum, cell % columnsNum);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A board solves the same on either engine.
+	 */
+	@Test
+	public void boardsSolveTheSameOnBothEngines() throws Exception
+	{
+		SplittableRandomServiceProvider seeds = new SplittableRandomServiceProvider(25);
+
+		for (int i = 0; i < BOARDS_NUM; i++)
+		{
+			IceCaveBoard bitsBoard = TestBoards.generate(EDifficulty.values()[i % EDifficulty.values().length],
+					seeds.split());
+			IceCaveBoard tableBoard = (IceCaveBoard) bitsBoard.clone();
+			bitsBoard.setSlideEngine(ESlideEngine.BITS);
+			tableBoard.setSlideEngine(ESlideEngine.TABLE);
+
+			BreakableBoardSolver bitsSolver = new BreakableBoardSolver();
+			BreakableBoardSolver tableSolver = new BreakableBoardSolver();
+
+			assertEquals("board " + i,
+					tableSolver.solve(tableBoard, tableBoard.getStartPoint()),
+					bitsSolver.solve(bitsBoard, bitsBoard.getStartPoint()));
+			assertArrayEquals("board " + i, tableSolver.getMoves(), bitsSolver.getMoves());
+			assertEquals("board " + i,
+					tableBoard.findShortestRoad(tableBoard.getStartPoint(), tableBoard.getFlagLocation()).getLevel(),
+					bitsBoard.findShortestRoad(bitsBoard.getStartPoint(), bitsBoard.getFlagLocation()).getLevel());
+		}
+	}
+}
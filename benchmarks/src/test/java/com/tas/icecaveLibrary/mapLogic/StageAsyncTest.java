@@ -0,0 +1,155 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of stage boards generated in the background.
+ *
+ */
+public class StageAsyncTest
+{
+	/**
+	 * Number of seeded games.
+	 */
+	private static final int GAMES_NUM = 40;
+
+	/**
+	 * Number of threads generating the boards.
+	 */
+	private static final int THREADS_NUM = 4;
+
+	/**
+	 * Executor that runs the generation on the calling thread.
+	 */
+	private static final Executor DIRECT = new Executor()
+	{
+		@Override
+		public void execute(Runnable command)
+		{
+			command.run();
+		}
+	};
+
+	/**
+	 * Create a game.
+	 * @param seed - Seed of the boards of the game.
+	 * @return The game.
+	 */
+	private static IceCaveGame createGame(long seed)
+	{
+		return new IceCaveGame(TestBoards.BOULDER_NUM,
+				TestBoards.COLUMNS,
+				TestBoards.ROWS,
+				EDifficulty.values()[(int) (seed % EDifficulty.values().length)],
+				new SplittableRandomServiceProvider(seed));
+	}
+
+	/**
+	 * A board generated in the background is the board generated on the calling thread
+	 * from the stream split off the game, on any executor, and the listener hears of it once it is done.
+	 */
+	@Test
+	public void backgroundBoardIsTheBoardOfTheSplitStream() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS_NUM);
+		final AtomicInteger doneCalls = new AtomicInteger();
+		final CountDownLatch called = new CountDownLatch(GAMES_NUM);
+		IStageReadyListener listener = new IStageReadyListener()
+		{
+			@Override
+			public void onStageReady(Future<IceCaveBoard> stage)
+			{
+				if (stage.isDone())
+				{
+					doneCalls.incrementAndGet();
+				}
+
+				called.countDown();
+			}
+		};
+
+		try
+		{
+			for (int seed = 0; seed < GAMES_NUM; seed++)
+			{
+				EDifficulty difficulty = EDifficulty.values()[seed % EDifficulty.values().length];
+				String expected = TestBoards.describe(TestBoards.generate(difficulty,
+						new SplittableRandomServiceProvider(seed).split()));
+
+				IceCaveGame game = createGame(seed);
+				StageFuture pooled = game.newStageAsync(TestBoards.START, TestBoards.WALL_WIDTH, executor, listener);
+				StageFuture direct = createGame(seed).newStageAsync(TestBoards.START,
+						TestBoards.WALL_WIDTH,
+						DIRECT,
+						null);
+
+				assertTrue(direct.isDone());
+				assertEquals("seed " + seed, expected, TestBoards.describe(direct.get()));
+				assertEquals("seed " + seed, expected, TestBoards.describe(pooled.get()));
+
+				// The board starts the stage of the game that asked for it.
+				game.newStage(pooled);
+
+				assertEquals(expected, TestBoards.describe(game.getBoard()));
+				assertEquals(TestBoards.START, game.getPlayerPoint());
+				assertEquals(0, game.getCurrentStageTakenMoves());
+				assertFalse(game.getIsStageEnded());
+			}
+
+			assertTrue(called.await(10, TimeUnit.SECONDS));
+			assertEquals(GAMES_NUM, doneCalls.get());
+		} finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * The current stage is played while the next board is generated, and is not changed by it.
+	 */
+	@Test
+	public void currentStageIsKeptWhileGenerating() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS_NUM);
+
+		try
+		{
+			for (int seed = 0; seed < GAMES_NUM; seed++)
+			{
+				IceCaveGame game = createGame(seed);
+				game.newStage(TestBoards.START, TestBoards.WALL_WIDTH);
+
+				StageFuture next = game.newStageAsync(TestBoards.START, TestBoards.WALL_WIDTH, executor, null);
+				game.movePlayer(EDirection.DOWN);
+				String current = TestBoards.describe(game.getBoard());
+				next.get();
+
+				assertEquals("seed " + seed, current, TestBoards.describe(game.getBoard()));
+
+				game.newStage(next);
+
+				assertEquals(TestBoards.describe(next.get()), TestBoards.describe(game.getBoard()));
+				assertEquals(0, game.getCurrentStageTakenMoves());
+			}
+		} finally
+		{
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.Test;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.StagePool.StageKey;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Tests of taking boards from the pool, and of refilling it.
+ *
+ */
+public class StagePoolTest
+{
+	/**
+	 * Number of ready boards at which a refill starts.
+	 */
+	private static final int LOW_WATERMARK = 1;
+
+	/**
+	 * Number of ready boards at which a refill stops.
+	 */
+	private static final int HIGH_WATERMARK = 4;
+
+	/**
+	 * Number of threads taking boards.
+	 */
+	private static final int TAKERS_NUM = 4;
+
+	/**
+	 * Number of boards each thread takes.
+	 */
+	private static final int TAKES_NUM = 10;
+
+	/**
+	 * Most time to wait for the refills, in milliseconds.
+	 */
+	private static final long WAIT_MILLIS = 60000;
+
+	/**
+	 * Key of the boards taken.
+	 */
+	private static final StageKey KEY = new StageKey(EDifficulty.Easy,
+			TestBoards.ROWS,
+			TestBoards.COLUMNS,
+			TestBoards.BOULDER_NUM,
+			TestBoards.WALL_WIDTH,
+			TestBoards.START,
+			EDirection.RIGHT);
+
+	/**
+	 * Wait for an executor to complete a number of tasks.
+	 * @param executor - The executor.
+	 * @param tasksNum - Number of tasks to complete.
+	 */
+	private static void awaitTasks(ThreadPoolExecutor executor, long tasksNum) throws InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+		while (executor.getCompletedTaskCount() < tasksNum)
+		{
+			assertTrue("refill took too long", System.currentTimeMillis() < deadline);
+			Thread.sleep(5);
+		}
+	}
+
+	/**
+	 * A refill fills the pool up to the high watermark, and a take down to the low watermark starts another.
+	 */
+	@Test
+	public void refillReachesTheHighWatermark() throws Exception
+	{
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+
+		try
+		{
+			StagePool pool = new StagePool(executor, LOW_WATERMARK, HIGH_WATERMARK, new SplittableRandomServiceProvider(10));
+			pool.prefill(KEY);
+			awaitTasks(executor, 1);
+
+			assertEquals(HIGH_WATERMARK, pool.getReadyNum(KEY));
+
+			// Above the low watermark no refill starts.
+			for (int i = 0; i < HIGH_WATERMARK - LOW_WATERMARK - 1; i++)
+			{
+				assertNotNull(pool.take(KEY));
+			}
+
+			assertEquals(1, executor.getTaskCount());
+
+			assertNotNull(pool.take(KEY));
+			awaitTasks(executor, 2);
+
+			assertEquals(HIGH_WATERMARK, pool.getReadyNum(KEY));
+			assertEquals(HIGH_WATERMARK - LOW_WATERMARK, pool.getHits());
+			assertEquals(0, pool.getMisses());
+		} finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Every take is a hit or a miss, when many threads take at once.
+	 */
+	@Test
+	public void takesAreHitsOrMisses() throws Exception
+	{
+		ExecutorService refills = Executors.newFixedThreadPool(2);
+		ExecutorService takers = Executors.newFixedThreadPool(TAKERS_NUM);
+
+		try
+		{
+			final StagePool pool = new StagePool(refills, LOW_WATERMARK, HIGH_WATERMARK, new SplittableRandomServiceProvider(10));
+			List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+
+			for (int i = 0; i < TAKERS_NUM; i++)
+			{
+				futures.add(takers.submit(new Callable<Integer>()
+				{
+					@Override
+					public Integer call() throws Exception
+					{
+						int boardsNum = 0;
+
+						for (int take = 0; take < TAKES_NUM; take++)
+						{
+							if (pool.take(KEY) != null)
+							{
+								boardsNum++;
+							}
+						}
+
+						return boardsNum;
+					}
+				}));
+			}
+
+			for (Future<Integer> future : futures)
+			{
+				assertEquals(TAKES_NUM, (int) future.get());
+			}
+
+			assertEquals(TAKERS_NUM * TAKES_NUM, pool.getHits() + pool.getMisses());
+		} finally
+		{
+			takers.shutdownNow();
+			refills.shutdownNow();
+		}
+	}
+
+	/**
+	 * A pool whose executor rejects the refills generates the boards on take.
+	 */
+	@Test
+	public void rejectedRefillGeneratesOnTake()
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(1);
+		executor.shutdown();
+		StagePool pool = new StagePool(executor, LOW_WATERMARK, HIGH_WATERMARK, new SplittableRandomServiceProvider(10));
+
+		pool.prefill(KEY);
+
+		// The refill is tried again on each take, and rejected each time.
+		for (int i = 1; i <= 3; i++)
+		{
+			IceCaveBoard board = pool.take(KEY);
+
+			assertNotNull(board);
+			assertTrue(board.getMinMoves() >= EDifficulty.Easy.getMinMoves());
+			assertEquals(0, pool.getReadyNum(KEY));
+			assertEquals(0, pool.getHits());
+			assertEquals(i, pool.getMisses());
+		}
+	}
+}
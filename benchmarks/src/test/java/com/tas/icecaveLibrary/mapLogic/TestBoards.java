@@ -0,0 +1,91 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.utils.Point;
+import com.tas.icecaveLibrary.utils.random.IRandomServices;
+
+/**
+ * The boards the tests run on, and a way to compare them.
+ *
+ */
+final class TestBoards
+{
+	/**
+	 * Number of rows on the boards.
+	 */
+	static final int ROWS = 15;
+
+	/**
+	 * Number of columns on the boards.
+	 */
+	static final int COLUMNS = 20;
+
+	/**
+	 * Number of boulders on the boards.
+	 */
+	static final int BOULDER_NUM = 30;
+
+	/**
+	 * The width of the wall on the boards.
+	 */
+	static final int WALL_WIDTH = 1;
+
+	/**
+	 * The starting location of the player.
+	 */
+	static final Point START = new Point(1, 1);
+
+	/**
+	 * Create a new instance of the TestBoards object.
+	 */
+	private TestBoards()
+	{
+	}
+
+	/**
+	 * Generate a board by distance.
+	 * @param difficulty - The difficulty of the board.
+	 * @param random - Random values of the generation.
+	 * @return The board generated.
+	 */
+	static IceCaveBoard generate(EDifficulty difficulty, IRandomServices random)
+	{
+		return new IceCaveBoard(ROWS,
+				COLUMNS,
+				START,
+				EDirection.RIGHT,
+				BOULDER_NUM,
+				WALL_WIDTH,
+				difficulty,
+				EGenerationMode.DISTANCE_FIELD,
+				random);
+	}
+
+	/**
+	 * Describe a board, boards with the same description play the same.
+	 * @param board - The board to describe.
+	 * @return The tiles, the start, the flag and the minimum moves of the board.
+	 */
+	static String describe(IceCaveBoard board)
+	{
+		StringBuilder description = new StringBuilder();
+
+		// Go through the tiles.
+		for (int row = 0; row < board.getRowsNum(); row++)
+		{
+			for (int column = 0; column < board.getColumnNum(); column++)
+			{
+				description.append(board.getTileType(row, column).ordinal());
+			}
+
+			description.append('\n');
+		}
+
+		return description.append("start=").append(board.getStartPoint())
+				.append(" flag=").append(board.getFlagLocation())
+				.append(" move=").append(board.getStartingMove())
+				.append(" moves=").append(board.getMinMoves())
+				.toString();
+	}
+}
@@ -0,0 +1,132 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.util.Arrays;
+
+import com.tas.icecaveLibrary.utils.Point;
+
+/**
+ * The changes of an action on a game, handed to the board change listeners.
+ * Each change is a kind and a cell (row * columns + column) in parallel arrays,
+ * so recording a change allocates nothing once the arrays have grown.
+ *
+ */
+public final class BoardChanges
+{
+	/**
+	 * Initial number of changes.
+	 */
+	private static final int INITIAL_CAPACITY = 8;
+
+	/**
+	 * Kind ordinal of each change.
+	 */
+	private byte[] mKinds = new byte[INITIAL_CAPACITY];
+
+	/**
+	 * Cell of each change.
+	 */
+	private int[] mCells = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Number of changes.
+	 */
+	private int mSize;
+
+	/**
+	 * Number of columns on the board, for turning cells to points.
+	 */
+	private int mColumnsNum;
+
+	/**
+	 * Get the number of changes.
+	 * @return Number of changes.
+	 */
+	public int getSize()
+	{
+		return mSize;
+	}
+
+	/**
+	 * Get the kind of a change.
+	 * @param index - Index of the change.
+	 * @return The kind of the change.
+	 */
+	public EBoardChange getKind(int index)
+	{
+		return EBoardChange.fromOrdinal(mKinds[checkIndex(index)]);
+	}
+
+	/**
+	 * Get the cell of a change.
+	 * @param index - Index of the change.
+	 * @return The cell of the change (row * columns + column).
+	 */
+	public int getCell(int index)
+	{
+		return mCells[checkIndex(index)];
+	}
+
+	/**
+	 * Get the point of a change.
+	 * @param index - Index of the change.
+	 * @return A new point of the cell of the change.
+	 */
+	public Point getPoint(int index)
+	{
+		int cell = getCell(index);
+
+		return new Point(cell % mColumnsNum, cell / mColumnsNum);
+	}
+
+	/**
+	 * Get the number of columns on the board the cells are on.
+	 * @return Number of columns.
+	 */
+	public int getColumnsNum()
+	{
+		return mColumnsNum;
+	}
+
+	/**
+	 * Record a change.
+	 * @param kind - Kind of the change.
+	 * @param cell - Cell of the change.
+	 * @param columnsNum - Number of columns on the board.
+	 */
+	void add(EBoardChange kind, int cell, int columnsNum)
+	{
+		if (mSize == mKinds.length)
+		{
+			mKinds = Arrays.copyOf(mKinds, mSize * 2);
+			mCells = Arrays.copyOf(mCells, mSize * 2);
+		}
+
+		mKinds[mSize] = (byte) kind.ordinal();
+		mCells[mSize] = cell;
+		mColumnsNum = columnsNum;
+		mSize++;
+	}
+
+	/**
+	 * Clear the changes.
+	 */
+	void clear()
+	{
+		mSize = 0;
+	}
+
+	/**
+	 * Check the index of a change.
+	 * @param index - Index of the change.
+	 * @return The index.
+	 */
+	private int checkIndex(int index)
+	{
+		if (index < 0 || index >= mSize)
+		{
+			throw new IndexOutOfBoundsException("Change " + index + " of " + mSize);
+		}
+
+		return index;
+	}
+}
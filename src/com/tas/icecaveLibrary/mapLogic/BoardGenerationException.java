@@ -0,0 +1,52 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+/**
+ * Thrown when generating a board gives up before a board fits.
+ * Holds the best board found on the way, a board solvable in less moves than the difficulty asks for.
+ *
+ */
+@SuppressWarnings("serial")
+public class BoardGenerationException extends Exception
+{
+	/**
+	 * The reason generating gave up.
+	 */
+	private final EGenerationFailure mFailure;
+
+	/**
+	 * The best board found, null if none was found.
+	 */
+	private final transient IceCaveBoard mNearMiss;
+
+	/**
+	 * Create a new instance of the BoardGenerationException object.
+	 * @param failure - The reason generating gave up.
+	 * @param nearMiss - The best board found, null if none was found.
+	 */
+	public BoardGenerationException(EGenerationFailure failure, IceCaveBoard nearMiss)
+	{
+		super("Board generation gave up: " + failure);
+
+		mFailure = failure;
+		mNearMiss = nearMiss;
+	}
+
+	/**
+	 * Get the reason generating gave up.
+	 * @return The reason.
+	 */
+	public EGenerationFailure getFailure()
+	{
+		return mFailure;
+	}
+
+	/**
+	 * Get the best board found before giving up.
+	 * It is solvable, in less moves than the difficulty asks for.
+	 * @return The board, null if no solvable board was found.
+	 */
+	public IceCaveBoard getNearMiss()
+	{
+		return mNearMiss;
+	}
+}
@@ -0,0 +1,310 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.util.Arrays;
+
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.utils.Point;
+
+/**
+ * BFS solver for the shortest way between two points on a board.
+ * The search runs on preallocated arrays indexed by cell (row * columns + column)
+ * which are reused between searches, and map nodes are built only when the path is requested.
+ *
+ */
+public class BoardSolver
+{
+	/**
+	 * Marks a missing cell.
+	 */
+	private static final int NO_CELL = -1;
+
+	/**
+	 * The directions to expand a cell in.
+	 */
+	private static final EDirection[] DIRECTIONS = EDirection.values();
+
+	/**
+	 * The board of the last search.
+	 */
+	private IceCaveBoard mBoard;
+
+	/**
+	 * Queue of the cells to expand.
+	 */
+	private int[] mQueue;
+
+	/**
+	 * The cell each cell was reached from.
+	 */
+	private int[] mParents;
+
+	/**
+	 * Number of moves to reach each cell.
+	 */
+	private int[] mDistances;
+
+	/**
+	 * Search stamp of each visited cell.
+	 */
+	private int[] mVisited;
+
+	/**
+	 * Stamp of the current search, cells with another stamp are not visited.
+	 */
+	private int mStamp;
+
+	/**
+	 * Starting cell of the last search.
+	 */
+	private int mStart;
+
+	/**
+	 * Cell reached by the last search, NO_CELL if not reached.
+	 */
+	private int mEnd;
+
+	/**
+	 * Number of cells expanded by the last search.
+	 */
+	private int mNodesExpanded;
+
+	/**
+	 * Create a new instance of the BoardSolver object.
+	 */
+	public BoardSolver()
+	{
+		allocate(0);
+	}
+
+	/**
+	 * Find the minimal number of moves between two points on a board.
+	 *
+	 * @param board - Board to search.
+	 * @param start - Starting point.
+	 * @param end - Finish point.
+	 * @return Number of moves of the shortest way, -1 if no way is found.
+	 */
+	public int solve(IceCaveBoard board, Point start, Point end)
+	{
+		int columnsNum = board.getColumnNum();
+
+		return solve(board, start.y * columnsNum + start.x, end.y * columnsNum + end.x);
+	}
+
+	/**
+	 * Find the minimal number of moves between two cells on a board.
+	 *
+	 * @param board - Board to search.
+	 * @param start - Starting cell.
+	 * @param end - Finish cell.
+	 * @return Number of moves of the shortest way, -1 if no way is found.
+	 */
+	int solve(IceCaveBoard board, int start, int end)
+	{
+		prepare(board);
+
+		mStart = start;
+		mEnd = NO_CELL;
+
+		// The root is not marked, so a way back to it can be found.
+		int head = 0;
+		int tail = 0;
+		mQueue[tail++] = start;
+		mDistances[start] = 0;
+
+		// While the queue is not empty.
+		while (head < tail)
+		{
+			int cell = mQueue[head++];
+			int distance = mDistances[cell];
+
+			mNodesExpanded++;
+
+			// Go through the directions.
+			for (EDirection direction : DIRECTIONS)
+			{
+				int stop = board.getSlideStop(cell, direction);
+
+				if (mVisited[stop] != mStamp)
+				{
+					mVisited[stop] = mStamp;
+					mParents[stop] = cell;
+					mDistances[stop] = distance + 1;
+
+					if (stop == end)
+					{
+						mEnd = stop;
+						return mDistances[stop];
+					}
+
+					mQueue[tail++] = stop;
+				}
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Find the minimal number of moves to pass over every cell of a board,
+	 * stopping on it or sliding through it.
+	 * This is the number of moves to reach a flag placed on the cell,
+	 * as the flag stops any slide passing over it.
+	 *
+	 * @param board - Board to search, without a flag.
+	 * @param start - Starting cell.
+	 * @param distances - Filled with the number of moves per cell, -1 for cells never passed.
+	 */
+	void fillPassDistances(IceCaveBoard board, int start, int[] distances)
+	{
+		prepare(board);
+
+		mStart = start;
+		mEnd = NO_CELL;
+		Arrays.fill(distances, -1);
+
+		int head = 0;
+		int tail = 0;
+		mQueue[tail++] = start;
+		mDistances[start] = 0;
+		mVisited[start] = mStamp;
+
+		// While the queue is not empty.
+		while (head < tail)
+		{
+			int cell = mQueue[head++];
+			int distance = mDistances[cell];
+
+			mNodesExpanded++;
+
+			// Go through the directions.
+			for (EDirection direction : DIRECTIONS)
+			{
+				int stop = board.getSlideStop(cell, direction);
+
+				// Mark the cells on the way, the first mark is the shortest.
+				for (int wayCell = cell; wayCell != stop; )
+				{
+					wayCell = board.getNextCell(wayCell, direction);
+
+					if (distances[wayCell] < 0)
+					{
+						distances[wayCell] = distance + 1;
+					}
+				}
+
+				if (mVisited[stop] != mStamp)
+				{
+					mVisited[stop] = mStamp;
+					mDistances[stop] = distance + 1;
+					mQueue[tail++] = stop;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the shortest way found by the last search.
+	 *
+	 * @return The node of the finish point, linked to its parents up to the start, null if no way was found.
+	 */
+	public MapNode getPath()
+	{
+		int[] cells = getPathCells();
+
+		if (cells == null)
+		{
+			return null;
+		}
+
+		int columnsNum = mBoard.getColumnNum();
+
+		// Create the root node
+		MapNode node = new MapNode(null, mBoard.getTile(mStart / columnsNum, mStart % columnsNum));
+		node.clear();
+		node.addRoot();
+
+		for (int i = 1; i < cells.length; i++)
+		{
+			node = node.push(mBoard.getTile(cells[i] / columnsNum, cells[i] % columnsNum));
+		}
+
+		return node;
+	}
+
+	/**
+	 * Get the cells of the shortest way found by the last search.
+	 *
+	 * @return The cells of the way, from the start to the finish, null if no way was found.
+	 */
+	int[] getPathCells()
+	{
+		if (mEnd == NO_CELL)
+		{
+			return null;
+		}
+
+		int[] cells = new int[mDistances[mEnd] + 1];
+		int cell = mEnd;
+
+		// Walk the parents back to the start.
+		for (int i = cells.length - 1; i > 0; i--)
+		{
+			cells[i] = cell;
+			cell = mParents[cell];
+		}
+		cells[0] = mStart;
+
+		return cells;
+	}
+
+	/**
+	 * Get the number of cells expanded by the last search.
+	 *
+	 * @return Number of cells expanded.
+	 */
+	public int getNodesExpanded()
+	{
+		return mNodesExpanded;
+	}
+
+	/**
+	 * Prepare the arrays for a new search.
+	 *
+	 * @param board - Board to search.
+	 */
+	private void prepare(IceCaveBoard board)
+	{
+		int cellsNum = board.getRowsNum() * board.getColumnNum();
+
+		if (mVisited.length < cellsNum)
+		{
+			allocate(cellsNum);
+		}
+
+		mBoard = board;
+		mNodesExpanded = 0;
+		mStamp++;
+
+		// Stamps wrapped around, forget all the old ones.
+		if (mStamp == 0)
+		{
+			allocate(mVisited.length);
+			mStamp++;
+		}
+	}
+
+	/**
+	 * Allocate the search arrays.
+	 *
+	 * @param cellsNum - Number of cells to allocate for.
+	 */
+	private void allocate(int cellsNum)
+	{
+		// The starting cell can be queued twice.
+		mQueue = new int[cellsNum + 1];
+		mParents = new int[cellsNum];
+		mDistances = new int[cellsNum];
+		mVisited = new int[cellsNum];
+	}
+}
@@ -0,0 +1,367 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.util.Arrays;
+
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
+import com.tas.icecaveLibrary.utils.Point;
+
+/**
+ * BFS solver for the exact minimal number of moves to reach the flag,
+ * following the game rules for breakable boulders:
+ * hitting a breakable boulder takes a move, stops the player and removes the boulder.
+ * A search state is a cell and the mask of the breakable boulders already broken.
+ *
+ */
+public class BreakableBoardSolver
+{
+	/**
+	 * Max number of breakable boulders on a solved board.
+	 */
+	public static final int MAX_BREAKABLE_BOULDERS = 30;
+
+	/**
+	 * Marks a cell without a breakable boulder.
+	 */
+	private static final int NO_BOULDER = -1;
+
+	/**
+	 * Initial capacity of the states queue.
+	 */
+	private static final int INITIAL_CAPACITY = 1 << 10;
+
+	/**
+	 * The directions to expand a state in.
+	 */
+	private static final EDirection[] DIRECTIONS = EDirection.values();
+
+	/**
+	 * The board of the current search.
+	 */
+	private IceCaveBoard mBoard;
+
+	/**
+	 * Index of the breakable boulder of each cell, NO_BOULDER if none.
+	 */
+	private int[] mBreakableIndex = new int[0];
+
+	/**
+	 * Cells of the queued states.
+	 */
+	private int[] mCells = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Broken boulders masks of the queued states.
+	 */
+	private int[] mMasks = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Queue index of the state each state was reached from.
+	 */
+	private int[] mParents = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Direction ordinal of the move each state was reached with.
+	 */
+	private byte[] mDirections = new byte[INITIAL_CAPACITY];
+
+	/**
+	 * The visited states.
+	 */
+	private StateSet mVisited = new StateSet();
+
+	/**
+	 * Queue index of the state the flag was reached from, -1 if not reached.
+	 */
+	private int mGoalParent;
+
+	/**
+	 * Cell of the flag, once reached.
+	 */
+	private int mFlag;
+
+	/**
+	 * Direction ordinal of the move that reached the flag.
+	 */
+	private int mGoalDirection;
+
+	/**
+	 * Number of moves of the last solution, -1 if none.
+	 */
+	private int mMoves;
+
+	/**
+	 * Number of states expanded by the last search.
+	 */
+	private int mStatesExpanded;
+
+	/**
+	 * Find the minimal number of moves from a point to the flag.
+	 *
+	 * @param board - Board to search.
+	 * @param start - Starting point.
+	 * @return Minimal number of moves, -1 if the flag cannot be reached.
+	 */
+	public int solve(IceCaveBoard board, Point start)
+	{
+		return solve(board, start, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Find the minimal number of moves from a point to the flag,
+	 * giving up once more moves than allowed are needed.
+	 *
+	 * @param board - Board to search.
+	 * @param startPoint - Starting point.
+	 * @param maxMoves - Max number of moves to search for.
+	 * @return Minimal number of moves, -1 if the flag cannot be reached in maxMoves.
+	 */
+	public int solve(IceCaveBoard board, Point startPoint, int maxMoves)
+	{
+		prepare(board);
+
+		mGoalParent = -1;
+		mMoves = -1;
+
+		int start = startPoint.y * board.getColumnNum() + startPoint.x;
+		int head = 0;
+		int tail = 0;
+		int levelEnd = 1;
+		int moves = 0;
+
+		mVisited.add(start, 0);
+		mCells[tail] = start;
+		mMasks[tail] = 0;
+		mParents[tail] = -1;
+		tail++;
+
+		while (head < tail)
+		{
+			// Moving to the next level.
+			if (head == levelEnd)
+			{
+				levelEnd = tail;
+				moves++;
+			}
+
+			// Every state left needs more moves than allowed.
+			if (moves >= maxMoves)
+			{
+				break;
+			}
+
+			int cell = mCells[head];
+			int mask = mMasks[head];
+
+			mStatesExpanded++;
+
+			for (EDirection direction : DIRECTIONS)
+			{
+				int stop = slide(cell, direction, mask);
+
+				// Reached the flag.
+				if (board.getTileType(stop) == ETileType.FLAG)
+				{
+					mGoalParent = head;
+					mFlag = stop;
+					mGoalDirection = direction.ordinal();
+					mMoves = moves + 1;
+
+					return mMoves;
+				}
+
+				int nextMask = mask;
+				int boulder = getBreakableIndex(stop, direction);
+
+				// Hitting a breakable boulder is a move, even without sliding.
+				if (boulder != NO_BOULDER && (mask & (1 << boulder)) == 0)
+				{
+					nextMask = mask | (1 << boulder);
+				}
+				else if (stop == cell)
+				{
+					continue;
+				}
+
+				if (mVisited.add(stop, nextMask))
+				{
+					ensureCapacity(tail + 1);
+					mCells[tail] = stop;
+					mMasks[tail] = nextMask;
+					mParents[tail] = head;
+					mDirections[tail] = (byte) direction.ordinal();
+					tail++;
+				}
+			}
+
+			head++;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Get the moves of the last solution.
+	 *
+	 * @return The moves to make to reach the flag, null if no solution was found.
+	 */
+	public EDirection[] getMoves()
+	{
+		if (mGoalParent < 0)
+		{
+			return null;
+		}
+
+		EDirection[] moves = new EDirection[mMoves];
+		moves[mMoves - 1] = DIRECTIONS[mGoalDirection];
+
+		int state = mGoalParent;
+		for (int i = mMoves - 2; i >= 0; i--)
+		{
+			moves[i] = DIRECTIONS[mDirections[state]];
+			state = mParents[state];
+		}
+
+		return moves;
+	}
+
+	/**
+	 * Get the cells where the moves of the last solution stop.
+	 *
+	 * @return The stop cell of each move, the last is the flag, null if no solution was found.
+	 */
+	int[] getStops()
+	{
+		if (mGoalParent < 0)
+		{
+			return null;
+		}
+
+		int[] stops = new int[mMoves];
+		stops[mMoves - 1] = mFlag;
+
+		int state = mGoalParent;
+		for (int i = mMoves - 2; i >= 0; i--)
+		{
+			stops[i] = mCells[state];
+			state = mParents[state];
+		}
+
+		return stops;
+	}
+
+	/**
+	 * Get the number of states expanded by the last search.
+	 *
+	 * @return Number of states expanded.
+	 */
+	public int getStatesExpanded()
+	{
+		return mStatesExpanded;
+	}
+
+	/**
+	 * Slide on the board, passing through the broken boulders.
+	 *
+	 * @param cell - Cell to start the slide from.
+	 * @param direction - Direction of the slide.
+	 * @param mask - Mask of the broken boulders.
+	 * @return The cell where the slide stops.
+	 */
+	private int slide(int cell, EDirection direction, int mask)
+	{
+		int stop = mBoard.getSlideStop(cell, direction);
+		int boulder = getBreakableIndex(stop, direction);
+
+		// Continue the slide from every broken boulder on the way.
+		while (mBoard.getTileType(stop) != ETileType.FLAG &&
+				boulder != NO_BOULDER &&
+				(mask & (1 << boulder)) != 0)
+		{
+			stop = mBoard.getSlideStop(mBoard.getNextCell(stop, direction), direction);
+			boulder = getBreakableIndex(stop, direction);
+		}
+
+		return stop;
+	}
+
+	/**
+	 * Get the breakable boulder next to a cell.
+	 *
+	 * @param cell - Cell to look from.
+	 * @param direction - Direction to look in.
+	 * @return Index of the breakable boulder, NO_BOULDER if there is none.
+	 */
+	private int getBreakableIndex(int cell, EDirection direction)
+	{
+		int next = mBoard.getNextCell(cell, direction);
+
+		return next < 0 ? NO_BOULDER : mBreakableIndex[next];
+	}
+
+	/**
+	 * Prepare for a new search, indexing the breakable boulders of the board.
+	 *
+	 * @param board - Board to search.
+	 */
+	private void prepare(IceCaveBoard board)
+	{
+		int cellsNum = board.getRowsNum() * board.getColumnNum();
+
+		if (mBreakableIndex.length < cellsNum)
+		{
+			mBreakableIndex = new int[cellsNum];
+		}
+
+		Arrays.fill(mBreakableIndex, NO_BOULDER);
+
+		int breakableNum = 0;
+		for (int cell = 0; cell < cellsNum; cell++)
+		{
+			if (board.getTileType(cell) == ETileType.BREAKABLE_BOULDER)
+			{
+				if (breakableNum == MAX_BREAKABLE_BOULDERS)
+				{
+					throw new IllegalArgumentException("Board has more than " + MAX_BREAKABLE_BOULDERS +
+							" breakable boulders");
+				}
+
+				mBreakableIndex[cell] = breakableNum++;
+			}
+		}
+
+		mBoard = board;
+		mStatesExpanded = 0;
+		mVisited.reset(cellsNum, breakableNum);
+	}
+
+	/**
+	 * Make sure the queue can hold a number of states.
+	 *
+	 * @param capacity - Number of states to hold.
+	 */
+	private void ensureCapacity(int capacity)
+	{
+		if (capacity <= mCells.length)
+		{
+			return;
+		}
+
+		int newCapacity = Math.max(capacity, mCells.length * 2);
+
+		int[] cells = new int[newCapacity];
+		int[] masks = new int[newCapacity];
+		int[] parents = new int[newCapacity];
+		byte[] directions = new byte[newCapacity];
+
+		System.arraycopy(mCells, 0, cells, 0, mCells.length);
+		System.arraycopy(mMasks, 0, masks, 0, mMasks.length);
+		System.arraycopy(mParents, 0, parents, 0, mParents.length);
+		System.arraycopy(mDirections, 0, directions, 0, mDirections.length);
+
+		mCells = cells;
+		mMasks = masks;
+		mParents = parents;
+		mDirections = directions;
+	}
+}
@@ -0,0 +1,31 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+/**
+ * Token to cancel work running on another thread, such as generating a board.
+ * The work checks the token between its steps, and gives up once the token is cancelled.
+ *
+ */
+public class CancellationToken
+{
+	/**
+	 * Indicates whether or not the token was cancelled.
+	 */
+	private volatile boolean mIsCancelled;
+
+	/**
+	 * Cancel the work checking the token.
+	 */
+	public void cancel()
+	{
+		mIsCancelled = true;
+	}
+
+	/**
+	 * Get indication to whether or not the token was cancelled.
+	 * @return true if the token was cancelled.
+	 */
+	public boolean isCancelled()
+	{
+		return mIsCancelled;
+	}
+}
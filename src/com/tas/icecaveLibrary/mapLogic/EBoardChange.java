@@ -0,0 +1,44 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+/**
+ * Enum representing the kind of a change on the board of a game.
+ *
+ */
+public enum EBoardChange
+{
+	/**
+	 * A stage board was built or reset, the cell is the player location.
+	 */
+	STAGE_STARTED,
+	/**
+	 * The player moved, the cell is the new player location.
+	 */
+	PLAYER_MOVED,
+	/**
+	 * A boulder was broken, the cell is the location of the boulder.
+	 */
+	TILE_BROKEN,
+	/**
+	 * A broken boulder was put back by undo, the cell is the location of the boulder.
+	 */
+	TILE_RESTORED,
+	/**
+	 * The player reached the flag, the cell is the location of the flag.
+	 */
+	STAGE_ENDED;
+
+	/**
+	 * All the kinds, indexed by ordinal.
+	 */
+	private static final EBoardChange[] CHANGES = values();
+
+	/**
+	 * Get the kind of an ordinal.
+	 * @param ordinal - Ordinal of the kind.
+	 * @return The kind of the ordinal.
+	 */
+	static EBoardChange fromOrdinal(int ordinal)
+	{
+		return CHANGES[ordinal];
+	}
+}
@@ -0,0 +1,21 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+/**
+ * Enum representing the reason generating a board gave up.
+ *
+ */
+public enum EGenerationFailure
+{
+	/**
+	 * All the layouts of the budget were placed, and none fit.
+	 */
+	LAYOUTS_EXHAUSTED,
+	/**
+	 * The deadline of the budget passed.
+	 */
+	DEADLINE_PASSED,
+	/**
+	 * The cancellation token of the budget was cancelled.
+	 */
+	CANCELLED
+}
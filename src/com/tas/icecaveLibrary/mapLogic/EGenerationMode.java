@@ -0,0 +1,18 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+/**
+ * Enum representing the way a board is generated.
+ *
+ */
+public enum EGenerationMode
+{
+	/**
+	 * Place a random flag, and place the whole board again if the difficulty is missed.
+	 */
+	REJECTION_SAMPLING,
+	/**
+	 * Search the moves to every cell once per boulder layout,
+	 * and place the flag on cells whose distance fits the difficulty.
+	 */
+	DISTANCE_FIELD;
+}
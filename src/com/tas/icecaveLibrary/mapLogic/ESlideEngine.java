@@ -0,0 +1,20 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+/**
+ * Enum representing the way the stops of slides on a board are found.
+ *
+ */
+public enum ESlideEngine
+{
+	/**
+	 * Keep the stop of every cell and direction, computed on first use.
+	 * Fits small boards whose slides are asked for many times, like a stage played or replayed at length.
+	 */
+	TABLE,
+	/**
+	 * Keep the cells that stop slides as bit sets per row and column, and scan them on each slide.
+	 * Cheap to build and to update, fits boards solved once, like the boards tried while generating.
+	 * This is the engine of a board unless another one is set.
+	 */
+	BITS;
+}
@@ -0,0 +1,529 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.utils.Point;
+import com.tas.icecaveLibrary.utils.random.IRandomServices;
+
+/**
+ * Hosts many games, keyed by session id.
+ * Each session has its own lock, so actions on different sessions run in parallel,
+ * and actions on one session run one at a time, in the order they arrived.
+ * Sessions idle for longer than the idle timeout are removed by evictIdle.
+ * The games of the sessions are only reached through the manager, under the lock of their session.
+ *
+ */
+public class GameSessionManager
+{
+	/**
+	 * Default max number of moves that can be undone in a session.
+	 */
+	public static final int DEFAULT_JOURNAL_DEPTH = 256;
+
+	/**
+	 * A hosted game.
+	 *
+	 */
+	private static final class GameSession
+	{
+		/**
+		 * The game of the session.
+		 */
+		final IceCaveGame mGame;
+
+		/**
+		 * Lock to run the actions of the session one at a time, fair to keep their order.
+		 */
+		final ReentrantLock mLock = new ReentrantLock(true);
+
+		/**
+		 * Time of the last action, in System.nanoTime units.
+		 */
+		volatile long mLastAccess;
+
+		/**
+		 * Create a new instance of the GameSession object.
+		 *
+		 * @param game - The game of the session.
+		 */
+		GameSession(IceCaveGame game)
+		{
+			mGame = game;
+			mLastAccess = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Status of a game, taken after an action.
+	 *
+	 */
+	private static final class GameStatus implements IIceCaveGameStatus
+	{
+		/**
+		 * The player point.
+		 */
+		private final Point mPlayerPoint;
+
+		/**
+		 * Indicates whether or not the stage has ended.
+		 */
+		private final boolean mIsStageEnded;
+
+		/**
+		 * The points to update on the board.
+		 */
+		private final Point[] mPointsToUpdate;
+
+		/**
+		 * Create a new instance of the GameStatus object.
+		 *
+		 * @param game - Game to take the status of, its points to update are cleared.
+		 */
+		GameStatus(IceCaveGame game)
+		{
+			mPlayerPoint = new Point(game.getPlayerPoint());
+			mIsStageEnded = game.getIsStageEnded();
+			mPointsToUpdate = game.getPointToUpdate();
+		}
+
+		@Override
+		public Point getPlayerPoint()
+		{
+			return mPlayerPoint;
+		}
+
+		@Override
+		public boolean getIsStageEnded()
+		{
+			return mIsStageEnded;
+		}
+
+		@Override
+		public Point[] getPointToUpdate()
+		{
+			return mPointsToUpdate;
+		}
+	}
+
+	/**
+	 * The hosted sessions.
+	 */
+	private final ConcurrentHashMap<String, GameSession> mSessions = new ConcurrentHashMap<String, GameSession>();
+
+	/**
+	 * Number of hosted sessions, and of sessions being created.
+	 */
+	private final AtomicInteger mSessionsNum = new AtomicInteger();
+
+	/**
+	 * Time a session may stay idle, in System.nanoTime units.
+	 */
+	private final long mIdleTimeout;
+
+	/**
+	 * Max number of hosted sessions.
+	 */
+	private final int mMaxSessions;
+
+	/**
+	 * Pool to take generated boards from, null to generate each board on a new stage.
+	 */
+	private final StagePool mStagePool;
+
+	/**
+	 * Indicates whether or not the boards of new sessions keep no tile objects.
+	 */
+	private volatile boolean mFlyweightTiles;
+
+	/**
+	 * Max number of moves that can be undone in new sessions.
+	 */
+	private volatile int mJournalDepth = DEFAULT_JOURNAL_DEPTH;
+
+	/**
+	 * Create a new instance of the GameSessionManager object.
+	 *
+	 * @param idleTimeout - Time a session may stay idle.
+	 * @param timeUnit - Unit of the idle timeout.
+	 * @param maxSessions - Max number of hosted sessions.
+	 * @param stagePool - Pool to take generated boards from, null to generate each board on a new stage.
+	 */
+	public GameSessionManager(long idleTimeout, TimeUnit timeUnit, int maxSessions, StagePool stagePool)
+	{
+		mIdleTimeout = timeUnit.toNanos(idleTimeout);
+		mMaxSessions = maxSessions;
+		mStagePool = stagePool;
+	}
+
+	/**
+	 * Create a session.
+	 *
+	 * @param sessionId - Id of the session.
+	 * @param boulderNum - Number of boulders to place on board.
+	 * @param boardSizeX - Board width (in tiles).
+	 * @param boardSizeY - Board height (in tiles).
+	 * @param difficulty - Game difficulty.
+	 * @param random - Random values for generating the boards of the session.
+	 * @throws IllegalStateException If the session exists, or there are too many sessions.
+	 */
+	public void createSession(String sessionId,
+			int boulderNum,
+			int boardSizeX,
+			int boardSizeY,
+			EDifficulty difficulty,
+			IRandomServices random)
+	{
+		// Do not build a game for a session that exists.
+		if (mSessions.containsKey(sessionId))
+		{
+			throw new IllegalStateException("Session " + sessionId + " exists");
+		}
+
+		reserveSession();
+
+		boolean isCreated = false;
+		try
+		{
+			IceCaveGame game = new IceCaveGame(boulderNum, boardSizeX, boardSizeY, difficulty, random);
+			game.setStagePool(mStagePool);
+			game.setFlyweightTiles(mFlyweightTiles);
+			game.setJournalDepth(mJournalDepth);
+
+			if (mSessions.putIfAbsent(sessionId, new GameSession(game)) != null)
+			{
+				throw new IllegalStateException("Session " + sessionId + " exists");
+			}
+
+			isCreated = true;
+		} finally
+		{
+			// Release the place of a session that was not created.
+			if (!isCreated)
+			{
+				mSessionsNum.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Start a new stage in a session.
+	 *
+	 * @param sessionId - Id of the session.
+	 * @param playerStart - The starting position of the player.
+	 * @param wallWidth - Width of the walls in tiles.
+	 * @return Status of the game on the new stage.
+	 * @throws CloneNotSupportedException
+	 * @throws IllegalArgumentException If there is no such session.
+	 */
+	public IIceCaveGameStatus newStage(String sessionId, Point playerStart, int wallWidth)
+			throws CloneNotSupportedException
+	{
+		GameSession session = getSession(sessionId);
+
+		session.mLock.lock();
+		try
+		{
+			session.mGame.newStage(playerStart, wallWidth);
+
+			return new GameStatus(session.mGame);
+		} finally
+		{
+			session.mLastAccess = System.nanoTime();
+			session.mLock.unlock();
+		}
+	}
+
+	/**
+	 * Move the player of a session.
+	 *
+	 * @param sessionId - Id of the session.
+	 * @param direction - Direction to move the player in.
+	 * @return Status of the game after the move.
+	 * @throws IllegalArgumentException If there is no such session.
+	 */
+	public IIceCaveGameStatus movePlayer(String sessionId, EDirection direction)
+	{
+		GameSession session = getSession(sessionId);
+
+		session.mLock.lock();
+		try
+		{
+			session.mGame.movePlayer(direction);
+
+			return new GameStatus(session.mGame);
+		} finally
+		{
+			session.mLastAccess = System.nanoTime();
+			session.mLock.unlock();
+		}
+	}
+
+	/**
+	 * Start a stage of a level pack in a session.
+	 *
+	 * @param sessionId - Id of the session.
+	 * @param levelPack - The level pack to take the stage from.
+	 * @param stageIndex - Index of the stage in the pack.
+	 * @return Status of the game on the new stage.
+	 * @throws IOException If the stage cannot be read from the pack.
+	 * @throws CloneNotSupportedException
+	 * @throws IllegalArgumentException If there is no such session.
+	 */
+	public IIceCaveGameStatus newStage(String sessionId, LevelPack levelPack, int stageIndex)
+			throws IOException, CloneNotSupportedException
+	{
+		GameSession session = getSession(sessionId);
+
+		session.mLock.lock();
+		try
+		{
+			session.mGame.newStage(levelPack, stageIndex);
+
+			return new GameStatus(session.mGame);
+		} finally
+		{
+			session.mLastAccess = System.nanoTime();
+			session.mLock.unlock();
+		}
+	}
+
+	/**
+	 * Move the player of a session, for each move of a batch.
+	 * The batch stops at the end of the stage, the moves after it are not applied.
+	 *
+	 * @param sessionId - Id of the session.
+	 * @param moves - Directions to move the player in.
+	 * @return Status of the game after the batch.
+	 * @throws IllegalArgumentException If there is no such session.
+	 */
+	public MoveBatchResult applyMoves(String sessionId, EDirection[] moves)
+	{
+		GameSession session = getSession(sessionId);
+
+		session.mLock.lock();
+		try
+		{
+			return session.mGame.applyMoves(moves);
+		} finally
+		{
+			session.mLastAccess = System.nanoTime();
+			session.mLock.unlock();
+		}
+	}
+
+	/**
+	 * Move the player of a session, for each move of a batch.
+	 * The batch stops at the end of the stage, the moves after it are not applied.
+	 *
+	 * @param sessionId - Id of the session.
+	 * @param moves - Ordinals of the directions to move the player in.
+	 * @return Status of the game after the batch.
+	 * @throws IllegalArgumentException If there is no such session,
+	 *             or a move is not a direction ordinal, nothing is applied then.
+	 */
+	public MoveBatchResult applyMoves(String sessionId, byte[] moves)
+	{
+		GameSession session = getSession(sessionId);
+
+		session.mLock.lock();
+		try
+		{
+			return session.mGame.applyMoves(moves);
+		} finally
+		{
+			session.mLastAccess = System.nanoTime();
+			session.mLock.unlock();
+		}
+	}
+
+	/**
+	 * Undo the last move of the stage of a session.
+	 *
+	 * @param sessionId - Id of the session.
+	 * @return Status of the game, unchanged if there is no move to undo.
+	 * @throws IllegalArgumentException If there is no such session.
+	 */
+	public IIceCaveGameStatus undo(String sessionId)
+	{
+		GameSession session = getSession(sessionId);
+
+		session.mLock.lock();
+		try
+		{
+			session.mGame.undo();
+
+			return new GameStatus(session.mGame);
+		} finally
+		{
+			session.mLastAccess = System.nanoTime();
+			session.mLock.unlock();
+		}
+	}
+
+	/**
+	 * Redo the last undone move of the stage of a session.
+	 *
+	 * @param sessionId - Id of the session.
+	 * @return Status of the game, unchanged if there is no move to redo.
+	 * @throws IllegalArgumentException If there is no such session.
+	 */
+	public IIceCaveGameStatus redo(String sessionId)
+	{
+		GameSession session = getSession(sessionId);
+
+		session.mLock.lock();
+		try
+		{
+			session.mGame.redo();
+
+			return new GameStatus(session.mGame);
+		} finally
+		{
+			session.mLastAccess = System.nanoTime();
+			session.mLock.unlock();
+		}
+	}
+
+	/**
+	 * Set whether or not the boards of sessions created from now on keep no tile objects.
+	 * This saves the memory of the tiles, each tile read from such a board is created for the read.
+	 *
+	 * @param flyweightTiles - true to keep only the tile codes of the boards.
+	 */
+	public void setFlyweightTiles(boolean flyweightTiles)
+	{
+		mFlyweightTiles = flyweightTiles;
+	}
+
+	/**
+	 * Set the max number of moves that can be undone in sessions created from now on.
+	 * Hosted sessions always have a limit, so their journals cannot grow without bound.
+	 *
+	 * @param journalDepth - Max number of moves to keep, at least 1.
+	 * @throws IllegalArgumentException If the depth is less than 1.
+	 */
+	public void setJournalDepth(int journalDepth)
+	{
+		if (journalDepth < 1)
+		{
+			throw new IllegalArgumentException("Journal depth " + journalDepth + " is less than 1");
+		}
+
+		mJournalDepth = journalDepth;
+	}
+
+	/**
+	 * Remove a session.
+	 *
+	 * @param sessionId - Id of the session.
+	 * @return true if the session was removed.
+	 */
+	public boolean removeSession(String sessionId)
+	{
+		if (mSessions.remove(sessionId) == null)
+		{
+			return false;
+		}
+
+		mSessionsNum.decrementAndGet();
+
+		return true;
+	}
+
+	/**
+	 * Remove the sessions idle for longer than the idle timeout.
+	 * Meant to be called periodically, for example by a ScheduledExecutorService.
+	 *
+	 * @return Number of sessions removed.
+	 */
+	public int evictIdle()
+	{
+		long now = System.nanoTime();
+		int evicted = 0;
+
+		// Go through the sessions.
+		Iterator<Map.Entry<String, GameSession>> iterator = mSessions.entrySet().iterator();
+		while (iterator.hasNext())
+		{
+			Map.Entry<String, GameSession> entry = iterator.next();
+			GameSession session = entry.getValue();
+
+			// Sessions in the middle of an action are not idle.
+			if (now - session.mLastAccess > mIdleTimeout && session.mLock.tryLock())
+			{
+				try
+				{
+					// The session may have been removed meanwhile, count it only once.
+					if (now - session.mLastAccess > mIdleTimeout &&
+							mSessions.remove(entry.getKey(), session))
+					{
+						mSessionsNum.decrementAndGet();
+						evicted++;
+					}
+				} finally
+				{
+					session.mLock.unlock();
+				}
+			}
+		}
+
+		return evicted;
+	}
+
+	/**
+	 * Get the number of hosted sessions.
+	 *
+	 * @return Number of sessions.
+	 */
+	public int getSessionsNum()
+	{
+		return mSessions.size();
+	}
+
+	/**
+	 * Take the place of a session, if there are fewer than the max number of sessions.
+	 *
+	 * @throws IllegalStateException If there are too many sessions.
+	 */
+	private void reserveSession()
+	{
+		int sessionsNum;
+
+		do
+		{
+			sessionsNum = mSessionsNum.get();
+
+			if (sessionsNum >= mMaxSessions)
+			{
+				throw new IllegalStateException("Too many sessions");
+			}
+		} while (!mSessionsNum.compareAndSet(sessionsNum, sessionsNum + 1));
+	}
+
+	/**
+	 * Get a session.
+	 *
+	 * @param sessionId - Id of the session.
+	 * @return The session.
+	 * @throws IllegalArgumentException If there is no such session.
+	 */
+	private GameSession getSession(String sessionId)
+	{
+		GameSession session = mSessions.get(sessionId);
+
+		if (session == null)
+		{
+			throw new IllegalArgumentException("No session " + sessionId);
+		}
+
+		return session;
+	}
+}
@@ -0,0 +1,86 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds on generating a board: a number of layouts, a timeout and a cancellation token.
+ * Generating gives up once any of the bounds is reached.
+ *
+ */
+public final class GenerationBudget
+{
+	/**
+	 * Budget with no bounds, generating runs until a board fits.
+	 */
+	public static final GenerationBudget UNLIMITED = new GenerationBudget(0, 0, TimeUnit.NANOSECONDS, null);
+
+	/**
+	 * Max number of boulder layouts to place, 0 for no bound.
+	 */
+	private final int mMaxLayouts;
+
+	/**
+	 * Time generating may take, in nanoseconds, 0 for no bound.
+	 */
+	private final long mTimeoutNanos;
+
+	/**
+	 * Token to cancel generating with, null for none.
+	 */
+	private final CancellationToken mCancellationToken;
+
+	/**
+	 * Create a new instance of the GenerationBudget object.
+	 * @param maxLayouts - Max number of boulder layouts to place, 0 for no bound.
+	 * @param timeout - Time generating may take, 0 for no bound.
+	 * @param timeUnit - Unit of the timeout.
+	 * @param cancellationToken - Token to cancel generating with, null for none.
+	 */
+	public GenerationBudget(int maxLayouts, long timeout, TimeUnit timeUnit, CancellationToken cancellationToken)
+	{
+		if (maxLayouts < 0 || timeout < 0)
+		{
+			throw new IllegalArgumentException("Budget bounds must not be negative");
+		}
+
+		mMaxLayouts = maxLayouts;
+		mTimeoutNanos = timeUnit.toNanos(timeout);
+		mCancellationToken = cancellationToken;
+	}
+
+	/**
+	 * Get the max number of boulder layouts to place.
+	 * @return Max number of layouts, 0 for no bound.
+	 */
+	public int getMaxLayouts()
+	{
+		return mMaxLayouts;
+	}
+
+	/**
+	 * Get the time generating may take.
+	 * @return Time in nanoseconds, 0 for no bound.
+	 */
+	public long getTimeoutNanos()
+	{
+		return mTimeoutNanos;
+	}
+
+	/**
+	 * Get the token to cancel generating with.
+	 * @return The token, null for none.
+	 */
+	public CancellationToken getCancellationToken()
+	{
+		return mCancellationToken;
+	}
+
+	/**
+	 * Get indication to whether or not the budget has no bounds.
+	 * @return true if the budget has no bounds.
+	 */
+	public boolean isUnlimited()
+	{
+		return mMaxLayouts == 0 && mTimeoutNanos == 0 && mCancellationToken == null;
+	}
+}
@@ -0,0 +1,276 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Metrics sink that keeps a histogram of each generation statistic.
+ * Safe to share between generating threads.
+ *
+ */
+public class GenerationHistograms implements IGenerationMetricsSink
+{
+	/**
+	 * Histogram of values, in buckets of powers of two.
+	 * Bucket 0 counts the values below 1, and bucket i counts the values in [2^(i-1), 2^i).
+	 *
+	 */
+	public static final class Histogram
+	{
+		/**
+		 * Number of buckets, enough for any long value.
+		 */
+		public static final int BUCKETS_NUM = 65;
+
+		/**
+		 * Count of each bucket.
+		 */
+		private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKETS_NUM);
+
+		/**
+		 * Number of values.
+		 */
+		private final AtomicLong mCount = new AtomicLong();
+
+		/**
+		 * Sum of the values.
+		 */
+		private final AtomicLong mSum = new AtomicLong();
+
+		/**
+		 * Largest value.
+		 */
+		private final AtomicLong mMax = new AtomicLong();
+
+		/**
+		 * Record a value.
+		 * @param value - Value to record.
+		 */
+		void record(long value)
+		{
+			mBuckets.incrementAndGet(getBucket(value));
+			mCount.incrementAndGet();
+			mSum.addAndGet(value);
+
+			long max = mMax.get();
+			while (value > max && !mMax.compareAndSet(max, value))
+			{
+				max = mMax.get();
+			}
+		}
+
+		/**
+		 * Get the number of values.
+		 * @return Number of values.
+		 */
+		public long getCount()
+		{
+			return mCount.get();
+		}
+
+		/**
+		 * Get the mean of the values.
+		 * @return The mean, 0 if there are no values.
+		 */
+		public double getMean()
+		{
+			long count = mCount.get();
+
+			return (count == 0) ? 0 : (double) mSum.get() / count;
+		}
+
+		/**
+		 * Get the largest value.
+		 * @return The largest value.
+		 */
+		public long getMax()
+		{
+			return mMax.get();
+		}
+
+		/**
+		 * Get the count of a bucket.
+		 * @param bucket - Index of the bucket.
+		 * @return Count of the bucket.
+		 */
+		public long getBucketCount(int bucket)
+		{
+			return mBuckets.get(bucket);
+		}
+
+		/**
+		 * Get the upper bound of the bucket a percentile of the values falls in.
+		 * @param percentile - Percentile, between 0 and 100.
+		 * @return Upper bound of the bucket (exclusive), 0 if there are no values.
+		 */
+		public long getPercentileBound(double percentile)
+		{
+			long count = mCount.get();
+			long rank = (long) Math.ceil(count * percentile / 100);
+			long seen = 0;
+
+			// Go through the buckets, up to the one holding the rank.
+			for (int bucket = 0; bucket < BUCKETS_NUM && count > 0; bucket++)
+			{
+				seen += mBuckets.get(bucket);
+
+				if (seen >= rank && seen > 0)
+				{
+					return (bucket >= 63) ? Long.MAX_VALUE : 1L << bucket;
+				}
+			}
+
+			return 0;
+		}
+
+		/**
+		 * Get the bucket of a value.
+		 * @param value - The value.
+		 * @return Index of the bucket.
+		 */
+		private static int getBucket(long value)
+		{
+			return (value < 1) ? 0 : 64 - Long.numberOfLeadingZeros(value);
+		}
+	}
+
+	/**
+	 * Histogram of the boulder layouts placed per board.
+	 */
+	private final Histogram mLayouts = new Histogram();
+
+	/**
+	 * Histogram of the boulder placement exhaustions per board.
+	 */
+	private final Histogram mBoulderExhaustions = new Histogram();
+
+	/**
+	 * Histogram of the cells expanded per board.
+	 */
+	private final Histogram mNodesExpanded = new Histogram();
+
+	/**
+	 * Histogram of the breakable boulder states expanded per board.
+	 */
+	private final Histogram mStatesExpanded = new Histogram();
+
+	/**
+	 * Histogram of the shortest road length of the boards.
+	 */
+	private final Histogram mRoadLength = new Histogram();
+
+	/**
+	 * Histogram of the layout placing time per board, in nanoseconds.
+	 */
+	private final Histogram mLayoutNanos = new Histogram();
+
+	/**
+	 * Histogram of the distance finding time per board, in nanoseconds.
+	 */
+	private final Histogram mDistanceNanos = new Histogram();
+
+	/**
+	 * Histogram of the validation time per board, in nanoseconds.
+	 */
+	private final Histogram mValidationNanos = new Histogram();
+
+	/**
+	 * Histogram of the generation time per board, in nanoseconds.
+	 */
+	private final Histogram mTotalNanos = new Histogram();
+
+	@Override
+	public void onBoardGenerated(GenerationStats stats)
+	{
+		mLayouts.record(stats.getLayoutsNum());
+		mBoulderExhaustions.record(stats.getBoulderExhaustionsNum());
+		mNodesExpanded.record(stats.getNodesExpanded());
+		mStatesExpanded.record(stats.getStatesExpanded());
+		mRoadLength.record(stats.getRoadLength());
+		mLayoutNanos.record(stats.getLayoutNanos());
+		mDistanceNanos.record(stats.getDistanceNanos());
+		mValidationNanos.record(stats.getValidationNanos());
+		mTotalNanos.record(stats.getTotalNanos());
+	}
+
+	/**
+	 * Get the histogram of the boulder layouts placed per board.
+	 * @return The histogram.
+	 */
+	public Histogram getLayouts()
+	{
+		return mLayouts;
+	}
+
+	/**
+	 * Get the histogram of the boulder placement exhaustions per board.
+	 * @return The histogram.
+	 */
+	public Histogram getBoulderExhaustions()
+	{
+		return mBoulderExhaustions;
+	}
+
+	/**
+	 * Get the histogram of the cells expanded per board.
+	 * @return The histogram.
+	 */
+	public Histogram getNodesExpanded()
+	{
+		return mNodesExpanded;
+	}
+
+	/**
+	 * Get the histogram of the breakable boulder states expanded per board.
+	 * @return The histogram.
+	 */
+	public Histogram getStatesExpanded()
+	{
+		return mStatesExpanded;
+	}
+
+	/**
+	 * Get the histogram of the shortest road length of the boards.
+	 * @return The histogram.
+	 */
+	public Histogram getRoadLength()
+	{
+		return mRoadLength;
+	}
+
+	/**
+	 * Get the histogram of the layout placing time per board.
+	 * @return The histogram, in nanoseconds.
+	 */
+	public Histogram getLayoutNanos()
+	{
+		return mLayoutNanos;
+	}
+
+	/**
+	 * Get the histogram of the distance finding time per board.
+	 * @return The histogram, in nanoseconds.
+	 */
+	public Histogram getDistanceNanos()
+	{
+		return mDistanceNanos;
+	}
+
+	/**
+	 * Get the histogram of the validation time per board.
+	 * @return The histogram, in nanoseconds.
+	 */
+	public Histogram getValidationNanos()
+	{
+		return mValidationNanos;
+	}
+
+	/**
+	 * Get the histogram of the generation time per board.
+	 * @return The histogram, in nanoseconds.
+	 */
+	public Histogram getTotalNanos()
+	{
+		return mTotalNanos;
+	}
+}
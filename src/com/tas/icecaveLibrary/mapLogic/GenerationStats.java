@@ -0,0 +1,177 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+
+/**
+ * Statistics of generating one board.
+ *
+ */
+public final class GenerationStats
+{
+	/**
+	 * The difficulty of the board.
+	 */
+	private final EDifficulty mDifficulty;
+
+	/**
+	 * Number of boulders asked for.
+	 */
+	private final int mBoulderNum;
+
+	/**
+	 * Number of boulder layouts placed, the first one and its retries.
+	 */
+	int mLayoutsNum;
+
+	/**
+	 * Number of boulder placements that gave up after failing in a row.
+	 */
+	int mBoulderExhaustionsNum;
+
+	/**
+	 * Number of cells expanded by the searches without breaking boulders.
+	 */
+	long mNodesExpanded;
+
+	/**
+	 * Number of states expanded by the searches with breakable boulders.
+	 */
+	long mStatesExpanded;
+
+	/**
+	 * Number of moves of the shortest road of the board, without breaking boulders.
+	 */
+	int mRoadLength;
+
+	/**
+	 * Time spent placing layouts, in nanoseconds.
+	 */
+	long mLayoutNanos;
+
+	/**
+	 * Time spent finding the distances of cells, in nanoseconds.
+	 */
+	long mDistanceNanos;
+
+	/**
+	 * Time spent validating flag locations, in nanoseconds.
+	 */
+	long mValidationNanos;
+
+	/**
+	 * Time spent generating the board, in nanoseconds.
+	 */
+	long mTotalNanos;
+
+	/**
+	 * Create a new instance of the GenerationStats object.
+	 * @param difficulty - The difficulty of the board.
+	 * @param boulderNum - Number of boulders asked for.
+	 */
+	GenerationStats(EDifficulty difficulty, int boulderNum)
+	{
+		mDifficulty = difficulty;
+		mBoulderNum = boulderNum;
+	}
+
+	/**
+	 * Get the difficulty of the board.
+	 * @return The difficulty.
+	 */
+	public EDifficulty getDifficulty()
+	{
+		return mDifficulty;
+	}
+
+	/**
+	 * Get the number of boulders asked for.
+	 * @return Number of boulders.
+	 */
+	public int getBoulderNum()
+	{
+		return mBoulderNum;
+	}
+
+	/**
+	 * Get the number of boulder layouts placed, the first one and its retries.
+	 * @return Number of layouts.
+	 */
+	public int getLayoutsNum()
+	{
+		return mLayoutsNum;
+	}
+
+	/**
+	 * Get the number of boulder placements that gave up after failing in a row,
+	 * leaving the layout with less boulders than asked for.
+	 * @return Number of exhaustions.
+	 */
+	public int getBoulderExhaustionsNum()
+	{
+		return mBoulderExhaustionsNum;
+	}
+
+	/**
+	 * Get the number of cells expanded by the searches without breaking boulders.
+	 * @return Number of cells.
+	 */
+	public long getNodesExpanded()
+	{
+		return mNodesExpanded;
+	}
+
+	/**
+	 * Get the number of states expanded by the searches with breakable boulders.
+	 * @return Number of states.
+	 */
+	public long getStatesExpanded()
+	{
+		return mStatesExpanded;
+	}
+
+	/**
+	 * Get the number of moves of the shortest road of the board, without breaking boulders.
+	 * This is the level of the last node of the road found by findShortestRoad.
+	 * @return Number of moves.
+	 */
+	public int getRoadLength()
+	{
+		return mRoadLength;
+	}
+
+	/**
+	 * Get the time spent placing layouts.
+	 * @return Time in nanoseconds.
+	 */
+	public long getLayoutNanos()
+	{
+		return mLayoutNanos;
+	}
+
+	/**
+	 * Get the time spent finding the distances of cells.
+	 * @return Time in nanoseconds.
+	 */
+	public long getDistanceNanos()
+	{
+		return mDistanceNanos;
+	}
+
+	/**
+	 * Get the time spent validating flag locations.
+	 * @return Time in nanoseconds.
+	 */
+	public long getValidationNanos()
+	{
+		return mValidationNanos;
+	}
+
+	/**
+	 * Get the time spent generating the board.
+	 * @return Time in nanoseconds.
+	 */
+	public long getTotalNanos()
+	{
+		return mTotalNanos;
+	}
+}
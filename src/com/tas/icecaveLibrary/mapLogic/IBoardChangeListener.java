@@ -0,0 +1,16 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+/**
+ * Listener to the changes on the board of a game.
+ *
+ */
+public interface IBoardChangeListener
+{
+	/**
+	 * Called with the changes of an action on the game, such as a move or a batch of moves.
+	 * The changes are reused by the game, so they are valid only during the call,
+	 * and the game must not be acted on during the call.
+	 * @param changes - The changes of the action, in the order they happened.
+	 */
+	void onBoardChanged(BoardChanges changes);
+}
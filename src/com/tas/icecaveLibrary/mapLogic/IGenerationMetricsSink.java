@@ -0,0 +1,15 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+/**
+ * Sink for the statistics of generating boards.
+ * Set on the map logic context of a session, generating keeps no statistics when it is not set.
+ *
+ */
+public interface IGenerationMetricsSink
+{
+	/**
+	 * Called once a board is generated, on the generating thread.
+	 * @param stats - Statistics of generating the board.
+	 */
+	void onBoardGenerated(GenerationStats stats);
+}
@@ -0,0 +1,25 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import com.tas.icecaveLibrary.general.EDirection;
+
+/**
+ * Finds where slides on a board stop.
+ *
+ */
+interface ISlideEngine
+{
+	/**
+	 * Get the cell where a slide stops.
+	 * @param cell - Cell to start the slide from.
+	 * @param direction - Direction of the slide.
+	 * @return The cell where the slide stops.
+	 */
+	int getStop(int cell, EDirection direction);
+
+	/**
+	 * Update the engine for a tile that changed.
+	 * @param row - Row of the changed tile.
+	 * @param column - Column of the changed tile.
+	 */
+	void update(int row, int column);
+}
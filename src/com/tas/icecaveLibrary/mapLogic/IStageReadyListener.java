@@ -0,0 +1,19 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.util.concurrent.Future;
+
+/**
+ * Listener to a stage board generated in the background.
+ *
+ */
+public interface IStageReadyListener
+{
+	/**
+	 * Called once generating the board is done, on the generating thread.
+	 * The board is ready, or the generating failed or was cancelled,
+	 * so get on the future does not block.
+	 * Meant to hand the future over to the thread playing the game, not to apply it here.
+	 * @param stage - Future of the generated board.
+	 */
+	void onStageReady(Future<IceCaveBoard> stage);
+}
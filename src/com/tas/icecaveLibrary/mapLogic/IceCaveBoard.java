@@ -5,28 +5,156 @@ import com.tas.icecaveLibrary.general.EDirection;
 import com.tas.icecaveLibrary.general.GeneralServiceProvider;
 import com.tas.icecaveLibrary.mapLogic.tiles.BoulderTile;
 import com.tas.icecaveLibrary.mapLogic.tiles.BreakableBoulderTile;
-import com.tas.icecaveLibrary.mapLogic.tiles.EmptyTile;
-import com.tas.icecaveLibrary.mapLogic.tiles.FlagTile;
-import com.tas.icecaveLibrary.mapLogic.tiles.IBlockingTile;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
 import com.tas.icecaveLibrary.mapLogic.tiles.ITile;
-import com.tas.icecaveLibrary.mapLogic.tiles.WallTile;
 import com.tas.icecaveLibrary.mapLogic.tiles.validators.TileValidatorFactory;
 import com.tas.icecaveLibrary.utils.Point;
 import com.tas.icecaveLibrary.utils.board.BaseBoard;
 import com.tas.icecaveLibrary.utils.board.IBoardTile;
+import com.tas.icecaveLibrary.utils.random.IRandomServices;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
 
-@SuppressWarnings("serial")
 public class IceCaveBoard extends BaseBoard implements Serializable
 {
 	/**
-	 * The actual board.
+	 * Version of the serialized board, kept from 1.0 so saved boards still load.
+	 */
+	private static final long serialVersionUID = 6285173153162614282L;
+
+	/**
+	 * Initial number of cells in the overlay.
+	 */
+	private static final int INITIAL_OVERLAY_CAPACITY = 4;
+
+	/**
+	 * Number of layouts a Hard board without a budget of its own places before it is generated for Medium.
+	 * Exact move counts of 28 and more are rare on small boards, so Hard alone might never end.
+	 */
+	static final int HARD_MAX_LAYOUTS = 1000;
+
+	/**
+	 * The actual board, tile type codes indexed by (row * columns + column).
+	 */
+	private byte[] mCodes;
+
+	/**
+	 * The tiles of a board saved by 1.0, indexed by row and column.
+	 * Only set while reading such a board, null otherwise.
 	 */
 	private ITile[][] mBoard;
 
+	/**
+	 * Indicates whether or not mCodes is shared with copies of the board.
+	 * A shared mCodes never changes, and changes of the board are kept in the overlay.
+	 */
+	private boolean mShared;
+
+	/**
+	 * Cells changed from the shared mCodes.
+	 */
+	private int[] mOverlayCells;
+
+	/**
+	 * Tile type codes of the changed cells.
+	 */
+	private byte[] mOverlayCodes;
+
+	/**
+	 * Number of changed cells.
+	 */
+	private int mOverlaySize;
+
+	/**
+	 * Number of rows on the board.
+	 */
+	private int mRowsNum;
+
+	/**
+	 * Number of columns on the board.
+	 */
+	private int mColumnsNum;
+
+	/**
+	 * Tiles handed out by getTile, created only when requested.
+	 */
+	private transient ITile[] mTiles;
+
+	/**
+	 * The tile matrix handed out by getBoard, null until it is requested.
+	 * Tiles placed in it by the caller are read back into the codes before the board reads them.
+	 */
+	private transient ITile[][] mBoardView;
+
+	/**
+	 * Indicates whether or not the board keeps no tile objects.
+	 * The type of each cell is its tile code, shared by all the tiles of the kind,
+	 * and getTile creates a tile at the looked up cell on each request.
+	 */
+	private boolean mFlyweightTiles;
+
+	/**
+	 * Where slides on the board stop, built on demand.
+	 */
+	private transient ISlideEngine mSlideEngine;
+
+	/**
+	 * The way slide stops are found, null for the bit sets.
+	 */
+	private transient ESlideEngine mSlideEngineType;
+
+	/**
+	 * Solver for the shortest roads on the board.
+	 */
+	private transient BoardSolver mSolver;
+
+	/**
+	 * Solver for the moves to the flag with the breakable boulders.
+	 */
+	private transient BreakableBoardSolver mBreakableSolver;
+
+	/**
+	 * Random values for generating the board.
+	 */
+	private transient IRandomServices mRandom;
+
+	/**
+	 * Validates the tiles placed while generating the board.
+	 */
+	private transient TileValidatorFactory mTileValidatorFactory;
+
+	/**
+	 * Statistics of the generation in progress, null when no statistics are kept.
+	 */
+	private transient GenerationStats mStats;
+
+	/**
+	 * Budget of the generation in progress.
+	 */
+	private transient GenerationBudget mBudget;
+
+	/**
+	 * Time the generation in progress must end by, in System.nanoTime units.
+	 */
+	private transient long mDeadline;
+
+	/**
+	 * The reason the generation gave up, null if a board fit.
+	 */
+	private transient EGenerationFailure mFailure;
+
+	/**
+	 * The best board found by a generation with a budget, solvable in less moves than the difficulty asks for.
+	 */
+	private transient IceCaveBoard mNearMiss;
+
 	/**
 	 * Boulders the player have hit.
 	 */
@@ -76,6 +204,52 @@ public class IceCaveBoard extends BaseBoard implements Serializable
 		return new IceCaveBoard(this);
 	};
 
+	/**
+	 * Write the board, with the tiles placed in the matrix of getBoard.
+	 * @param out - Stream to write the board to.
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException
+	{
+		if (mBoardView != null)
+		{
+			readBoardView();
+		}
+
+		out.defaultWriteObject();
+	}
+
+	/**
+	 * Read the board, and convert the tiles of a board saved by 1.0 to tile type codes.
+	 * @param in - Stream to read the board from.
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+
+		if (mBoard == null)
+		{
+			return;
+		}
+
+		mRowsNum = mBoard.length;
+		mColumnsNum = mBoard[0].length;
+		mCodes = new byte[mRowsNum * mColumnsNum];
+
+		// Go through the tiles.
+		for (int row = 0; row < mRowsNum; row++)
+		{
+			for (int column = 0; column < mColumnsNum; column++)
+			{
+				mCodes[row * mColumnsNum + column] = mBoard[row][column].getType().getCode();
+			}
+		}
+
+		mBoard = null;
+	}
+
 	/**
 	 * Get the point of the flag.
 	 * 
@@ -97,13 +271,9 @@ public class IceCaveBoard extends BaseBoard implements Serializable
 	private void createEmptyBoard(int colsNumber, int rowsNumber)
 	{
 		// Initializing walls
-		for (int i = 0; i < colsNumber; i++)
-		{
-			for (int j = 0; j < rowsNumber; j++)
-			{
-				mBoard[i][j] = new WallTile(j, i);
-			}
-		}
+		Arrays.fill(mCodes, ETileType.WALL.getCode());
+		mTiles = null;
+		mSlideEngine = null;
 	}
 
 	/**
@@ -135,13 +305,13 @@ public class IceCaveBoard extends BaseBoard implements Serializable
 	 */
 	private void fillWithEmptyTles(int colsNumber, int rowsNumber, int wallWidth)
 	{
-		for (int i = wallWidth; i < colsNumber - wallWidth; i++)
+		for (int i = wallWidth; i < rowsNumber - wallWidth; i++)
 		{
-			for (int j = wallWidth; j < rowsNumber - wallWidth; j++)
-			{
-				// Initializing board.
-				mBoard[i][j] = new EmptyTile(j, i);
-			}
+			// Initializing board.
+			Arrays.fill(mCodes,
+					i * mColumnsNum + wallWidth,
+					i * mColumnsNum + colsNumber - wallWidth,
+					ETileType.EMPTY.getCode());
 		}
 	}
 
@@ -163,20 +333,130 @@ public class IceCaveBoard extends BaseBoard implements Serializable
 	 */
 	private Point placeTiles(int colsNumber, int rowsNumber, int wallWidth, Point playerLoc, int boulderNum)
 	{
+		long layoutStart = startTiming();
+
 		// Creating the board
 		initializeBoard(colsNumber, rowsNumber, wallWidth);
+		mBoulders.clear();
+		mBreakableBoulder.clear();
 
 		// Creating exit point
 		Point flagLocation = createExit(colsNumber, rowsNumber, playerLoc);
 
-		setTile(flagLocation, new FlagTile(flagLocation));
+		setTileType(flagLocation.y, flagLocation.x, ETileType.FLAG);
 
 		// Place the boulders on the board.
 		placeBoulders(colsNumber, rowsNumber, playerLoc, boulderNum);
 
+		if (mStats != null)
+		{
+			mStats.mLayoutsNum++;
+			mStats.mLayoutNanos += System.nanoTime() - layoutStart;
+		}
+
 		return flagLocation;
 	}
 
+	/**
+	 * Place the boulders on the board, and the flag on a cell whose distance fits the difficulty.
+	 * 
+	 * @param colsNumber
+	 *            - Board row length in tiles.
+	 * @param rowsNumber
+	 *            - Board column length in tiles.
+	 * @param wallWidth
+	 *            - Width of the wall in tiles.
+	 * @param playerLoc
+	 *            - Player location.
+	 * @param boulderNum
+	 *            - Number of boulders to place.
+	 * @param startingMove
+	 *            - The starting move of the player.
+	 * @param difficulty
+	 *            - The difficulty the board should fill.
+	 * 
+	 * @return The location of the flag on the board, null if no cell of the boulder layout fits.
+	 */
+	private Point placeTilesByDistance(int colsNumber,
+			int rowsNumber,
+			int wallWidth,
+			Point playerLoc,
+			int boulderNum,
+			EDirection startingMove,
+			EDifficulty difficulty)
+	{
+		long layoutStart = startTiming();
+
+		// Creating the board
+		initializeBoard(colsNumber, rowsNumber, wallWidth);
+		mBoulders.clear();
+		mBreakableBoulder.clear();
+
+		// Place the boulders on the board.
+		placeBoulders(colsNumber, rowsNumber, playerLoc, boulderNum);
+
+		long distanceStart = startTiming();
+
+		// Get the distance of every cell, a single search for the whole layout.
+		int start = playerLoc.y * mColumnsNum + playerLoc.x;
+		int[] distances = new int[mCodes.length];
+		getSolver().fillPassDistances(this, start, distances);
+
+		if (mStats != null)
+		{
+			mStats.mLayoutsNum++;
+			mStats.mLayoutNanos += distanceStart - layoutStart;
+			mStats.mDistanceNanos += System.nanoTime() - distanceStart;
+			mStats.mNodesExpanded += getSolver().getNodesExpanded();
+		}
+
+		// Collect the cells that fit the difficulty.
+		int[] candidates = new int[mCodes.length];
+		int candidatesNum = 0;
+		for (int cell = 0; cell < mCodes.length; cell++)
+		{
+			if (cell != start &&
+					getTileType(cell) == ETileType.EMPTY &&
+					distances[cell] >= difficulty.getMinMoves() &&
+					distances[cell] <= difficulty.getMaxMoves())
+			{
+				candidates[candidatesNum++] = cell;
+			}
+		}
+
+		// Try the cells in random order.
+		while (candidatesNum > 0)
+		{
+			if (isOverBudget(0))
+			{
+				return null;
+			}
+
+			int index = mRandom.getRandomInt(candidatesNum);
+			int flagCell = candidates[index];
+			candidates[index] = candidates[--candidatesNum];
+
+			Point flagLocation = new Point(flagCell % mColumnsNum, flagCell / mColumnsNum);
+			setTileType(flagLocation.y, flagLocation.x, ETileType.FLAG);
+
+			if (validate(startingMove, playerLoc, flagLocation, difficulty))
+			{
+				return flagLocation;
+			}
+
+			// Put the layout back the way it was.
+			setTileType(flagLocation.y, flagLocation.x, ETileType.EMPTY);
+			for (ITile breakable : mBreakableBoulder)
+			{
+				setTileType(breakable.getLocation().y, breakable.getLocation().x, ETileType.BOULDER);
+				mBoulders.add(new BoulderTile(breakable.getLocation()));
+			}
+			mBreakableBoulder.clear();
+		}
+
+		return null;
+	}
+
 	/**
 	 * Find a location on the board to place the flag in.
 	 * 
@@ -191,16 +471,13 @@ public class IceCaveBoard extends BaseBoard implements Serializable
 	 */
 	private Point createExit(int colsNumber, int rowsNumber, Point playerLoc)
 	{
-		// Get a random number
-		Random rand = GeneralServiceProvider.getInstance().getRandom();
-
-		int flagXposition = rand.nextInt(rowsNumber - 2) + 1;
-		int flagYposition = rand.nextInt(colsNumber - 2) + 1;
+		int flagXposition = mRandom.getRandomInt(colsNumber - 2) + 1;
+		int flagYposition = mRandom.getRandomInt(rowsNumber - 2) + 1;
 
 		while (playerLoc.equals(flagXposition, flagYposition))
 		{
-			flagXposition = rand.nextInt(rowsNumber - 2) + 1;
-			flagYposition = rand.nextInt(colsNumber - 2) + 1;
+			flagXposition = mRandom.getRandomInt(colsNumber - 2) + 1;
+			flagYposition = mRandom.getRandomInt(rowsNumber - 2) + 1;
 		}
 
 		return new Point(flagXposition, flagYposition);
@@ -220,12 +497,10 @@ public class IceCaveBoard extends BaseBoard implements Serializable
 	 */
 	private void placeBoulders(int colsNumber, int rowsNumber, Point playerLoc, int boulderNum)
 	{
-		Random rand = GeneralServiceProvider.getInstance().getRandom();
-
 		int boulderColRand, boulderRowRand, boulderCounter = 0;
 
 		// Place boulders.
-		// TODO: Might be an infinite loop.
+		// Bounded by the retry counter.
 		int retryCounter = 0;
 
 		// Check if we placed all boulders,
@@ -233,20 +508,16 @@ public class IceCaveBoard extends BaseBoard implements Serializable
 		while (retryCounter < 10 && boulderCounter < boulderNum)
 		{
 			// Making random points
-			boulderRowRand = rand.nextInt(rowsNumber - 2) + 1;
-			boulderColRand = rand.nextInt(colsNumber - 2) + 1;
-
-			// Validate the position.
-			TileValidatorFactory tileValidatorFactory =
-					MapLogicServiceProvider.getInstance().getTileValidatorFactory();
+			boulderRowRand = mRandom.getRandomInt(colsNumber - 2) + 1;
+			boulderColRand = mRandom.getRandomInt(rowsNumber - 2) + 1;
 
 			// If the location is not valid.
-			if (!tileValidatorFactory.validate(BoulderTile.class,
+			if (!mTileValidatorFactory.validate(BoulderTile.class,
 					boulderRowRand,
 					boulderColRand,
 					playerLoc.x,
 					playerLoc.y,
-					mBoard))
+					this))
 			{
 				retryCounter++;
 				continue;
@@ -261,30 +532,13 @@ public class IceCaveBoard extends BaseBoard implements Serializable
 			// Increase counter after creating a boulder
 			boulderCounter++;
 		}
-	}
 
-	/**
-	 * Create a new instance of the ice cave board.
-	 * 
-	 * @param board
-	 *            - Board to hold as IceCaveBoard.
-	 * @param startPoint
-	 *            - The starting location of the player.
-	 * @param startingMove
-	 *            - The starting move of the player.
-	 * @param moves
-	 *            - Minimum moves to solve the stage in.
-	 */
-	// public IceCaveBoard(ITile[][] board,
-	// Point startPoint,
-	// EDirection startingMove,
-	// int moves)
-	// {
-	// mStartingMove = startingMove;
-	// mBoard = board.clone();
-	// mPlayerStart = new Point(startPoint);
-	// mMoves = moves;
-	// }
+		// Gave up before placing all the boulders.
+		if (mStats != null && boulderCounter < boulderNum)
+		{
+			mStats.mBoulderExhaustionsNum++;
+		}
+	}
 
 	/**
 	 * Create a new instance of the IceCaveBoard.
@@ -292,29 +546,75 @@ public class IceCaveBoard extends BaseBoard implements Serializable
 	 * @param other
 	 *            - Other board to create about.
 	 */
-	@SuppressWarnings("unchecked")
 	protected IceCaveBoard(IceCaveBoard other)
 	{
-		mBoard = new ITile[other.getRowsNum()][other.getColumnNum()];
+		other.share();
 
-		for (int i = 0; i < other.getRowsNum(); i++)
+		// Share the tiles and the slides over them, only the overlay is copied.
+		mRowsNum = other.mRowsNum;
+		mColumnsNum = other.mColumnsNum;
+		mCodes = other.mCodes;
+		mSlideEngine = other.mSlideEngine;
+		mSlideEngineType = other.mSlideEngineType;
+		mShared = true;
+
+		if (other.mOverlaySize > 0)
 		{
-			for (int j = 0; j < other.getColumnNum(); j++)
-			{
-				mBoard[i][j] = other.mBoard[i][j];
-			}
+			mOverlayCells = Arrays.copyOf(other.mOverlayCells, other.mOverlaySize);
+			mOverlayCodes = Arrays.copyOf(other.mOverlayCodes, other.mOverlaySize);
+			mOverlaySize = other.mOverlaySize;
 		}
 
+		// The boulder lists change only while generating.
 		mMoves = other.getMinMoves();
-		mBoulders = (ArrayList<ITile>) other.mBoulders.clone();
-		mBreakableBoulder = (ArrayList<ITile>) other.mBreakableBoulder.clone();
+		mBoulders = other.mBoulders;
+		mBreakableBoulder = other.mBreakableBoulder;
 		mFlagPoint = new Point(other.getFlagLocation());
 		mPlayerStart = new Point(other.getStartPoint());
 		mStartingMove = other.getStartingMove();
+		mFlyweightTiles = other.mFlyweightTiles;
 	}
 
 	/**
-	 * Create a new instance of the ice cave board.
+	 * Create a new instance of the IceCaveBoard from decoded stage values.
+	 *
+	 * @param rows
+	 *            - Number of rows on the board.
+	 * @param columns
+	 *            - Number of columns on the board.
+	 * @param tileCodes
+	 *            - Tile type codes indexed by (row * columns + column), kept by the board.
+	 * @param startPoint
+	 *            - The starting location of the player.
+	 * @param flagPoint
+	 *            - The location of the flag.
+	 * @param startingMove
+	 *            - The starting move of the player.
+	 * @param moves
+	 *            - Minimum moves to solve the stage in.
+	 */
+	IceCaveBoard(int rows,
+			int columns,
+			byte[] tileCodes,
+			Point startPoint,
+			Point flagPoint,
+			EDirection startingMove,
+			int moves)
+	{
+		mRowsNum = rows;
+		mColumnsNum = columns;
+		mCodes = tileCodes;
+		mPlayerStart = startPoint;
+		mFlagPoint = flagPoint;
+		mStartingMove = startingMove;
+		mMoves = moves;
+		mBoulders = new ArrayList<ITile>();
+		mBreakableBoulder = new ArrayList<ITile>();
+	}
+
+	/**
+	 * Create a new instance of the ice cave board, generated by rejection sampling.
+	 * Pass EGenerationMode.DISTANCE_FIELD to the other constructors to generate by distance.
 	 * 
 	 * @param rows
 	 *            - Number of rows on the board.
@@ -339,192 +639,1142 @@ public class IceCaveBoard extends BaseBoard implements Serializable
 			int wallWidth,
 			EDifficulty difficulty)
 	{
-		mBoard = new ITile[rows][colums];
-		mStartingMove = startingMove;
-		mPlayerStart = new Point(startPoint);
-		mBoulders = new ArrayList<ITile>();
-		mBreakableBoulder = new ArrayList<ITile>();
-
-		// Place tiles in the board.
-		Point flagPoint = placeTiles(colums, rows, wallWidth, startPoint, boulderNum);
-
-		while (!validate(startingMove, startPoint, flagPoint, difficulty) || mBreakableBoulder.size() == 0)
-		{
-
-			// Re-initializing map
-			flagPoint = placeTiles(colums, rows, wallWidth, startPoint, boulderNum);
-			// printBoard(mTiles);
-		}
-
-		mFlagPoint = flagPoint;
-
-		// Put the breakable tiles back.
-		for (ITile breakable : mBreakableBoulder)
-		{
-			// Put it on the board.
-			mBoard[breakable.getLocation().y][breakable.getLocation().x] = breakable;
-		}
+		this(rows,
+				colums,
+				startPoint,
+				startingMove,
+				boulderNum,
+				wallWidth,
+				difficulty,
+				EGenerationMode.REJECTION_SAMPLING);
 	}
 
 	/**
-	 * Get the number of additional moves to make because of breakable boulders.
+	 * Create a new instance of the ice cave board.
 	 * 
-	 * @param node
-	 *            - Node to get its level on the board.
-	 * @return The number of steps to add.
+	 * @param rows
+	 *            - Number of rows on the board.
+	 * @param columns
+	 *            - Number of columns on the board.
+	 * @param startPoint
+	 *            - The starting location of the player.
+	 * @param startingMove
+	 *            - The starting move of the player.
+	 * @param boulderNum
+	 *            - Number of boulders on the board.
+	 * @param wallWidth
+	 *            - The width of the wall on the board.
+	 * @param difficulty
+	 *            - The difficulty the board should fill.
+	 * @param generationMode
+	 *            - The way to generate the board.
 	 */
-	public int getLevel(MapNode node, ArrayList<ITile> boulders)
+	public IceCaveBoard(int rows,
+			int colums,
+			Point startPoint,
+			EDirection startingMove,
+			int boulderNum,
+			int wallWidth,
+			EDifficulty difficulty,
+			EGenerationMode generationMode)
 	{
-		final int NUMERIC_ERROR = 999;
-
-		int nLevelCounter = 0;
-		int stepsToAdd = 0;
-		for (MapNode curNode = (MapNode) node.getParent(); curNode != null && nLevelCounter < NUMERIC_ERROR; curNode =
-				(MapNode) curNode.getParent())
-		{
-			nLevelCounter++;
-			if (boulders.contains(curNode.getValue()))
-			{
-				@SuppressWarnings("unchecked")
-				ArrayList<ITile> tempBoulders = (ArrayList<ITile>) boulders.clone();
-
-				// Find the shortest way to get
-				// around the boulder and hit the same place again.
-				MapNode wayToBoulder =
-						findShortestRoad(curNode.getValue().getLocation(), curNode.getValue().getLocation());
-
-				if (wayToBoulder == null)
-				{
-					continue;
-				}
-
-				tempBoulders.remove(curNode.getValue());
-
-				stepsToAdd += wayToBoulder.getLevel();
-				stepsToAdd += getLevel(wayToBoulder, tempBoulders);
-
-				// Remove the boulder.
-				setTile(curNode.getValue().getLocation(), new EmptyTile(curNode.getValue().getLocation()));
-				mBreakableBoulder.add(new BreakableBoulderTile(curNode.getValue().getLocation()));
-			}
-		}
-
-		if (nLevelCounter == NUMERIC_ERROR)
-		{
-			stepsToAdd = 0;
-		}
-
-		return stepsToAdd;
+		this(rows,
+				colums,
+				startPoint,
+				startingMove,
+				boulderNum,
+				wallWidth,
+				difficulty,
+				generationMode,
+				new SplittableRandomServiceProvider(GeneralServiceProvider.getInstance().getRandom().nextLong()));
+	}
+
+	/**
+	 * Create a new instance of the ice cave board.
+	 * 
+	 * @param rows
+	 *            - Number of rows on the board.
+	 * @param columns
+	 *            - Number of columns on the board.
+	 * @param startPoint
+	 *            - The starting location of the player.
+	 * @param startingMove
+	 *            - The starting move of the player.
+	 * @param boulderNum
+	 *            - Number of boulders on the board.
+	 * @param wallWidth
+	 *            - The width of the wall on the board.
+	 * @param difficulty
+	 *            - The difficulty the board should fill.
+	 * @param generationMode
+	 *            - The way to generate the board.
+	 * @param randomServices
+	 *            - Random values for generating the board.
+	 * @throws CancellationException
+	 *             If the generating thread is interrupted.
+	 */
+	public IceCaveBoard(int rows,
+			int colums,
+			Point startPoint,
+			EDirection startingMove,
+			int boulderNum,
+			int wallWidth,
+			EDifficulty difficulty,
+			EGenerationMode generationMode,
+			IRandomServices randomServices)
+	{
+		this(rows,
+				colums,
+				startPoint,
+				startingMove,
+				boulderNum,
+				wallWidth,
+				difficulty,
+				generationMode,
+				new MapLogicContext(null,
+						MapLogicServiceProvider.getInstance().getTileValidatorFactory(),
+						randomServices));
+	}
+
+	/**
+	 * Create a new instance of the ice cave board.
+	 * A Hard board that does not fit within HARD_MAX_LAYOUTS layouts is generated for Medium.
+	 * Use generate with a budget to fail instead.
+	 * 
+	 * @param rows
+	 *            - Number of rows on the board.
+	 * @param columns
+	 *            - Number of columns on the board.
+	 * @param startPoint
+	 *            - The starting location of the player.
+	 * @param startingMove
+	 *            - The starting move of the player.
+	 * @param boulderNum
+	 *            - Number of boulders on the board.
+	 * @param wallWidth
+	 *            - The width of the wall on the board.
+	 * @param difficulty
+	 *            - The difficulty the board should fill.
+	 * @param generationMode
+	 *            - The way to generate the board.
+	 * @param context
+	 *            - Context of the session to take the validators and the random values from.
+	 * @throws CancellationException
+	 *             If the generating thread is interrupted.
+	 */
+	public IceCaveBoard(int rows,
+			int colums,
+			Point startPoint,
+			EDirection startingMove,
+			int boulderNum,
+			int wallWidth,
+			EDifficulty difficulty,
+			EGenerationMode generationMode,
+			MapLogicContext context)
+	{
+		this(rows,
+				colums,
+				startPoint,
+				startingMove,
+				boulderNum,
+				wallWidth,
+				difficulty,
+				generationMode,
+				context,
+				(difficulty == EDifficulty.Hard) ?
+						new GenerationBudget(HARD_MAX_LAYOUTS, 0, TimeUnit.NANOSECONDS, null) :
+						GenerationBudget.UNLIMITED,
+				difficulty == EDifficulty.Hard);
+	}
+
+	/**
+	 * Generate a board within a budget.
+	 * 
+	 * @param rows
+	 *            - Number of rows on the board.
+	 * @param columns
+	 *            - Number of columns on the board.
+	 * @param startPoint
+	 *            - The starting location of the player.
+	 * @param startingMove
+	 *            - The starting move of the player.
+	 * @param boulderNum
+	 *            - Number of boulders on the board.
+	 * @param wallWidth
+	 *            - The width of the wall on the board.
+	 * @param difficulty
+	 *            - The difficulty the board should fill.
+	 * @param generationMode
+	 *            - The way to generate the board.
+	 * @param context
+	 *            - Context of the session to take the validators and the random values from.
+	 * @param budget
+	 *            - Bounds on generating the board.
+	 * @return The board generated.
+	 * @throws BoardGenerationException
+	 *             If the budget ran out before a board fit, holding the best board found.
+	 * @throws CancellationException
+	 *             If the generating thread is interrupted.
+	 */
+	public static IceCaveBoard generate(int rows,
+			int columns,
+			Point startPoint,
+			EDirection startingMove,
+			int boulderNum,
+			int wallWidth,
+			EDifficulty difficulty,
+			EGenerationMode generationMode,
+			MapLogicContext context,
+			GenerationBudget budget) throws BoardGenerationException
+	{
+		IceCaveBoard board = new IceCaveBoard(rows,
+				columns,
+				startPoint,
+				startingMove,
+				boulderNum,
+				wallWidth,
+				difficulty,
+				generationMode,
+				context,
+				budget,
+				false);
+
+		if (board.mFailure != null)
+		{
+			throw new BoardGenerationException(board.mFailure, board.mNearMiss);
+		}
+
+		return board;
+	}
+
+	/**
+	 * Create a new instance of the IceCaveBoard, generating it within a budget.
+	 * If the budget runs out, the reason is kept in mFailure and the board is not valid,
+	 * unless the board falls back to Medium.
+	 * 
+	 * @param rows
+	 *            - Number of rows on the board.
+	 * @param columns
+	 *            - Number of columns on the board.
+	 * @param startPoint
+	 *            - The starting location of the player.
+	 * @param startingMove
+	 *            - The starting move of the player.
+	 * @param boulderNum
+	 *            - Number of boulders on the board.
+	 * @param wallWidth
+	 *            - The width of the wall on the board.
+	 * @param difficulty
+	 *            - The difficulty the board should fill.
+	 * @param generationMode
+	 *            - The way to generate the board.
+	 * @param context
+	 *            - Context of the session to take the validators and the random values from.
+	 * @param budget
+	 *            - Bounds on generating the board.
+	 * @param fallsBackToMedium
+	 *            - true to generate the board for Medium, with no bounds, once the budget ran out.
+	 */
+	private IceCaveBoard(int rows,
+			int colums,
+			Point startPoint,
+			EDirection startingMove,
+			int boulderNum,
+			int wallWidth,
+			EDifficulty difficulty,
+			EGenerationMode generationMode,
+			MapLogicContext context,
+			GenerationBudget budget,
+			boolean fallsBackToMedium)
+	{
+		mRandom = context.getRandom();
+		mTileValidatorFactory = context.getTileValidatorFactory();
+		mRowsNum = rows;
+		mColumnsNum = colums;
+		mCodes = new byte[rows * colums];
+		mStartingMove = startingMove;
+		mPlayerStart = new Point(startPoint);
+		mBoulders = new ArrayList<ITile>();
+		mBreakableBoulder = new ArrayList<ITile>();
+
+		IGenerationMetricsSink metricsSink = context.getGenerationMetricsSink();
+		if (metricsSink != null)
+		{
+			mStats = new GenerationStats(difficulty, boulderNum);
+		}
+
+		long generationStart = startTiming();
+
+		if (!budget.isUnlimited())
+		{
+			mBudget = budget;
+			mDeadline = System.nanoTime() + budget.getTimeoutNanos();
+		}
+
+		Point flagPoint = placeLayouts(colums,
+				rows,
+				wallWidth,
+				startPoint,
+				boulderNum,
+				startingMove,
+				difficulty,
+				generationMode);
+
+		// No layout fit, generate for the difficulty below, with no bounds.
+		if (mFailure != null && fallsBackToMedium)
+		{
+			mFailure = null;
+			mNearMiss = null;
+			mBudget = null;
+			flagPoint = placeLayouts(colums,
+					rows,
+					wallWidth,
+					startPoint,
+					boulderNum,
+					startingMove,
+					EDifficulty.Medium,
+					generationMode);
+		}
+
+		mFlagPoint = flagPoint;
+		mBudget = null;
+
+		if (mStats != null)
+		{
+			mStats.mTotalNanos = System.nanoTime() - generationStart;
+			metricsSink.onBoardGenerated(mStats);
+			mStats = null;
+		}
+	}
+
+	/**
+	 * Place boulder layouts until one fits the difficulty, or the budget runs out.
+	 * 
+	 * @param colsNumber
+	 *            - Board row length in tiles.
+	 * @param rowsNumber
+	 *            - Board column length in tiles.
+	 * @param wallWidth
+	 *            - Width of the wall in tiles.
+	 * @param playerLoc
+	 *            - Player location.
+	 * @param boulderNum
+	 *            - Number of boulders to place.
+	 * @param startingMove
+	 *            - The starting move of the player.
+	 * @param difficulty
+	 *            - The difficulty the board should fill.
+	 * @param generationMode
+	 *            - The way to generate the board.
+	 * @return The location of the flag on the board, not valid if the budget ran out.
+	 */
+	private Point placeLayouts(int colsNumber,
+			int rowsNumber,
+			int wallWidth,
+			Point playerLoc,
+			int boulderNum,
+			EDirection startingMove,
+			EDifficulty difficulty,
+			EGenerationMode generationMode)
+	{
+		Point flagPoint = null;
+		int layoutsNum = 0;
+
+		if (generationMode == EGenerationMode.DISTANCE_FIELD)
+		{
+			// Place boulder layouts until one has a cell that fits.
+			do
+			{
+				checkInterrupted();
+
+				if (isOverBudget(++layoutsNum))
+				{
+					break;
+				}
+
+				flagPoint =
+						placeTilesByDistance(colsNumber,
+								rowsNumber,
+								wallWidth,
+								playerLoc,
+								boulderNum,
+								startingMove,
+								difficulty);
+			} while (flagPoint == null && mFailure == null);
+		}
+		else
+		{
+			// Place tiles in the board until the layout validates.
+			do
+			{
+				checkInterrupted();
+
+				if (isOverBudget(++layoutsNum))
+				{
+					break;
+				}
+
+				flagPoint = placeTiles(colsNumber, rowsNumber, wallWidth, playerLoc, boulderNum);
+			} while (!validate(startingMove, playerLoc, flagPoint, difficulty) || mBreakableBoulder.size() == 0);
+		}
+
+		return flagPoint;
+	}
+
+	/**
+	 * Check the budget of the generation in progress, keeping the reason in mFailure once it ran out.
+	 * 
+	 * @param layoutsNum
+	 *            - Number of the layout about to be placed, 0 when not about to place a layout.
+	 * @return true if the budget ran out.
+	 */
+	private boolean isOverBudget(int layoutsNum)
+	{
+		// Nothing to check without a budget.
+		if (mBudget == null)
+		{
+			return false;
+		}
+
+		CancellationToken token = mBudget.getCancellationToken();
+
+		if (token != null && token.isCancelled())
+		{
+			mFailure = EGenerationFailure.CANCELLED;
+		}
+		else if (mBudget.getTimeoutNanos() > 0 && System.nanoTime() - mDeadline >= 0)
+		{
+			mFailure = EGenerationFailure.DEADLINE_PASSED;
+		}
+		else if (mBudget.getMaxLayouts() > 0 && layoutsNum > mBudget.getMaxLayouts())
+		{
+			mFailure = EGenerationFailure.LAYOUTS_EXHAUSTED;
+		}
+
+		return mFailure != null;
+	}
+
+	/**
+	 * Keep the board as the near miss if it is the best one found.
+	 * Only a generation with a budget keeps a near miss.
+	 * 
+	 * @param flagPoint
+	 *            - Location of the flag on the board.
+	 */
+	private void keepNearMiss(Point flagPoint)
+	{
+		if (mBudget != null && mMoves > 0 && (mNearMiss == null || mMoves > mNearMiss.getMinMoves()))
+		{
+			mNearMiss = new IceCaveBoard(mRowsNum,
+					mColumnsNum,
+					mCodes.clone(),
+					new Point(mPlayerStart),
+					new Point(flagPoint),
+					mStartingMove,
+					mMoves);
+		}
+	}
+
+	/**
+	 * Get the time to measure a generation phase from.
+	 * 
+	 * @return The current System.nanoTime, 0 when no statistics are kept.
+	 */
+	private long startTiming()
+	{
+		return (mStats != null) ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Stop generating the board if the generating thread was interrupted.
+	 * 
+	 * @throws CancellationException
+	 *             If the generating thread is interrupted.
+	 */
+	private void checkInterrupted()
+	{
+		if (Thread.currentThread().isInterrupted())
+		{
+			throw new CancellationException("Board generation was interrupted");
+		}
+	}
+
+	/**
+	 * Make the boulder that a move hits breakable.
+	 * 
+	 * @param stop
+	 *            - Cell where the move stops (row * columns + column).
+	 * @param direction
+	 *            - Direction of the move.
+	 * @return true if a boulder was made breakable.
+	 */
+	private boolean makeHitBoulderBreakable(int stop, EDirection direction)
+	{
+		int hit = getNextCell(stop, direction);
+
+		// The flag stops the player, nothing is hit.
+		if (hit < 0 ||
+				getTileType(stop) == ETileType.FLAG ||
+				getTileType(hit) != ETileType.BOULDER ||
+				mBreakableBoulder.size() == BreakableBoardSolver.MAX_BREAKABLE_BOULDERS)
+		{
+			return false;
+		}
+
+		int hitRow = hit / mColumnsNum;
+		int hitColumn = hit % mColumnsNum;
+
+		setTileType(hitRow, hitColumn, ETileType.BREAKABLE_BOULDER);
+		mBoulders.remove(new BoulderTile(hitColumn, hitRow));
+		mBreakableBoulder.add(new BreakableBoulderTile(hitColumn, hitRow));
+
+		return true;
+	}
+
+	/**
+	 * Make the boulders that the shortest road hits breakable.
+	 * 
+	 * @param roadCells
+	 *            - Cells of the shortest road, from the start to the flag.
+	 */
+	private void makeHitBouldersBreakable(int[] roadCells)
+	{
+		for (int i = 1; i < roadCells.length; i++)
+		{
+			int from = roadCells[i - 1];
+			int to = roadCells[i];
+
+			// The direction of the move between the cells.
+			EDirection direction;
+			if (to / mColumnsNum == from / mColumnsNum)
+			{
+				direction = to > from ? EDirection.RIGHT : EDirection.LEFT;
+			}
+			else
+			{
+				direction = to > from ? EDirection.DOWN : EDirection.UP;
+			}
+
+			makeHitBoulderBreakable(to, direction);
+		}
+	}
+
+	/**
+	 * Make the boulders that the moves found by the breakable boulders solver hit breakable.
+	 * 
+	 * @param solver
+	 *            - Solver of the last solution.
+	 * @return true if any boulder was made breakable.
+	 */
+	private boolean makeHitBouldersBreakable(BreakableBoardSolver solver)
+	{
+		int[] stops = solver.getStops();
+		EDirection[] moves = solver.getMoves();
+		boolean isChanged = false;
+
+		for (int i = 0; i < moves.length; i++)
+		{
+			isChanged |= makeHitBoulderBreakable(stops[i], moves[i]);
+		}
+
+		return isChanged;
 	}
 
 	/**
 	 * Validate that the map is solvable in a specific number of moves.
 	 * 
-	 * @param defaultMoveDirection
-	 *            - The first direction the player moves in.
-	 * @param playerPoint
-	 *            - The starting location of the player.
-	 * @param flagPoint
-	 *            - Location of the flag on the board.
-	 * @param difficulty
-	 *            - The difficulty of the stage.
-	 * @return true if valid.
+	 * @param defaultMoveDirection
+	 *            - The first direction the player moves in.
+	 * @param playerPoint
+	 *            - The starting location of the player.
+	 * @param flagPoint
+	 *            - Location of the flag on the board.
+	 * @param difficulty
+	 *            - The difficulty of the stage.
+	 * @return true if valid.
+	 */
+	private boolean validate(EDirection defaultMoveDirection,
+			Point playerPoint,
+			Point flagPoint,
+			EDifficulty difficulty)
+	{
+		if (mStats == null)
+		{
+			return validateFlag(playerPoint, flagPoint, difficulty);
+		}
+
+		long validationStart = System.nanoTime();
+
+		try
+		{
+			return validateFlag(playerPoint, flagPoint, difficulty);
+		} finally
+		{
+			mStats.mValidationNanos += System.nanoTime() - validationStart;
+		}
+	}
+
+	/**
+	 * Validate that the map is solvable in a specific number of moves,
+	 * making the boulders the solutions hit breakable.
+	 * 
+	 * @param playerPoint
+	 *            - The starting location of the player.
+	 * @param flagPoint
+	 *            - Location of the flag on the board.
+	 * @param difficulty
+	 *            - The difficulty of the stage.
+	 * @return true if valid.
+	 */
+	private boolean validateFlag(Point playerPoint, Point flagPoint, EDifficulty difficulty)
+	{
+		BoardSolver solver = getSolver();
+		int roadLength = solver.solve(this, playerPoint, flagPoint);
+
+		if (mStats != null)
+		{
+			mStats.mNodesExpanded += solver.getNodesExpanded();
+			mStats.mRoadLength = roadLength;
+		}
+
+		if (roadLength < 0)
+		{
+			return false;
+		}
+
+		makeHitBouldersBreakable(solver.getPathCells());
+
+		if (mBreakableBoulder.isEmpty())
+		{
+			return false;
+		}
+
+		BreakableBoardSolver breakableSolver = getBreakableSolver();
+
+		// Solve with the breakable boulders, giving up once the difficulty is exceeded.
+		mMoves = solveBreakable(breakableSolver, playerPoint, difficulty);
+
+		// While too easy, make the boulders the best solution hits breakable too.
+		while (mMoves >= 0 && mMoves < difficulty.getMinMoves())
+		{
+			if (!makeHitBouldersBreakable(breakableSolver))
+			{
+				keepNearMiss(flagPoint);
+				return false;
+			}
+
+			mMoves = solveBreakable(breakableSolver, playerPoint, difficulty);
+		}
+
+		// Check if it's OK.
+		return mMoves >= difficulty.getMinMoves();
+	}
+
+	/**
+	 * Solve the board with its breakable boulders, giving up once the difficulty is exceeded.
+	 * 
+	 * @param breakableSolver
+	 *            - Solver to solve with.
+	 * @param playerPoint
+	 *            - The starting location of the player.
+	 * @param difficulty
+	 *            - The difficulty of the stage.
+	 * @return Minimal number of moves, -1 if the flag cannot be reached within the difficulty.
+	 */
+	private int solveBreakable(BreakableBoardSolver breakableSolver, Point playerPoint, EDifficulty difficulty)
+	{
+		int moves = breakableSolver.solve(this, playerPoint, difficulty.getMaxMoves());
+
+		if (mStats != null)
+		{
+			mStats.mStatesExpanded += breakableSolver.getStatesExpanded();
+		}
+
+		return moves;
+	}
+
+	/**
+	 * Get the board tiles.
+	 * The matrix is live, as in 1.0: a tile placed in it changes the board, and changes of the board show in it.
+	 * The board keeps tile type codes, so once the matrix is handed out each tile read checks its cell
+	 * in the matrix, and each slide checks the whole matrix.
+	 *
+	 * @return The board tiles map, kept by the board.
+	 * @deprecated Use getBoardSnapshot to read the tiles, and setTile to change them.
+	 */
+	@Deprecated
+	@Override
+	public ITile[][] getBoard()
+	{
+		if (mBoardView == null)
+		{
+			mBoardView = getBoardSnapshot();
+		}
+		else
+		{
+			readBoardView();
+		}
+
+		return mBoardView;
+	}
+
+	/**
+	 * Read the tiles placed in the matrix of getBoard into the codes.
+	 */
+	private void readBoardView()
+	{
+		// Go through the cells.
+		for (int cell = 0; cell < mRowsNum * mColumnsNum; cell++)
+		{
+			readBoardView(cell);
+		}
+	}
+
+	/**
+	 * Read the tile placed in a cell of the matrix of getBoard into the codes.
+	 *
+	 * @param cell
+	 *            - Cell of the tile (row * columns + column).
+	 */
+	private void readBoardView(int cell)
+	{
+		int row = cell / mColumnsNum;
+		int column = cell % mColumnsNum;
+		ITile tile = mBoardView[row][column];
+
+		if (tile != null && tile.getType().getCode() != getStoredCode(cell))
+		{
+			setTile(row, column, tile);
+		}
+	}
+
+	/**
+	 * Get a snapshot of the board tiles.
+	 * Tiles are created on demand, so changing the returned array does not change the board.
+	 *
+	 * @return The board tiles map, owned by the caller.
+	 */
+	public ITile[][] getBoardSnapshot()
+	{
+		ITile[][] board = new ITile[mRowsNum][mColumnsNum];
+
+		for (int i = 0; i < mRowsNum; i++)
+		{
+			for (int j = 0; j < mColumnsNum; j++)
+			{
+				board[i][j] = getTile(i, j);
+			}
+		}
+
+		return board;
+	}
+
+	@Override
+	public int getRowsNum()
+	{
+		return mRowsNum;
+	}
+
+	@Override
+	public int getColumnNum()
+	{
+		return mColumnsNum;
+	}
+
+	/**
+	 * Get the type of a tile on the board.
+	 * 
+	 * @param row
+	 *            - Row of the tile on the board.
+	 * @param column
+	 *            - Column of the tile on the board.
+	 * @return The type of the tile, null if dimensions do not fit.
 	 */
-	private boolean validate(EDirection defaultMoveDirection,
-			Point playerPoint,
-			Point flagPoint,
-			EDifficulty difficulty)
+	public ETileType getTileType(int row, int column)
+	{
+		if (row < 0 || column < 0 || row >= mRowsNum || column >= mColumnsNum)
+		{
+			return null;
+		}
+
+		return ETileType.fromCode(getTileCode(row * mColumnsNum + column));
+	}
+
+	/**
+	 * Set the type of a tile on the board, without creating a tile object for it.
+	 * 
+	 * @param row
+	 *            - Row of the tile on the board.
+	 * @param column
+	 *            - Column of the tile on the board.
+	 * @param type
+	 *            - Type of the tile to place.
+	 */
+	void setTileType(int row, int column, ETileType type)
 	{
-		MapNode flagNode = findShortestRoad(new Point(playerPoint), new Point(flagPoint));
+		int cell = row * mColumnsNum + column;
 
-		if (flagNode == null)
+		// Drop the tile handed out for the previous type.
+		if (mTiles != null)
 		{
-			return false;
+			mTiles[cell] = null;
 		}
 
-		mMoves = flagNode.getLevel();
-		mMoves += getLevel(flagNode, mBoulders);
+		// The matrix of getBoard shows the new type, before any read checks it.
+		if (mBoardView != null)
+		{
+			mBoardView[row][column] = type.createTile(column, row);
+		}
 
-		// printBoard(mTiles);
-		// Check if it's OK.
-		if (mMoves >= difficulty.getMinMoves() && mMoves <= difficulty.getMaxMoves())
+		if (mShared)
 		{
-			// Print path for debug
-			printShortestRoad(flagNode);
-			
-			return true;
+			setOverlayCode(cell, type.getCode());
+			return;
 		}
 
-		return false;
+		mCodes[cell] = type.getCode();
+
+		// Only the slides over the row and the column of the tile have changed.
+		if (mSlideEngine != null)
+		{
+			mSlideEngine.update(row, column);
+		}
+	}
+
+	/**
+	 * Set the code of a cell in the overlay of a shared board.
+	 * 
+	 * @param cell
+	 *            - Cell of the tile (row * columns + column).
+	 * @param code
+	 *            - Tile type code to place.
+	 */
+	private void setOverlayCode(int cell, byte code)
+	{
+		int index = 0;
+		while (index < mOverlaySize && mOverlayCells[index] != cell)
+		{
+			index++;
+		}
+
+		// Back to the shared code, drop the cell from the overlay.
+		if (code == mCodes[cell])
+		{
+			if (index < mOverlaySize)
+			{
+				mOverlaySize--;
+				mOverlayCells[index] = mOverlayCells[mOverlaySize];
+				mOverlayCodes[index] = mOverlayCodes[mOverlaySize];
+			}
+
+			return;
+		}
+
+		if (index == mOverlaySize)
+		{
+			if (mOverlayCells == null)
+			{
+				mOverlayCells = new int[INITIAL_OVERLAY_CAPACITY];
+				mOverlayCodes = new byte[INITIAL_OVERLAY_CAPACITY];
+			}
+			else if (mOverlaySize == mOverlayCells.length)
+			{
+				mOverlayCells = Arrays.copyOf(mOverlayCells, mOverlaySize * 2);
+				mOverlayCodes = Arrays.copyOf(mOverlayCodes, mOverlaySize * 2);
+			}
+
+			mOverlayCells[index] = cell;
+			mOverlaySize++;
+		}
+
+		mOverlayCodes[index] = code;
+	}
+
+	/**
+	 * Get the tile type code of a cell.
+	 * 
+	 * @param cell
+	 *            - Cell of the tile (row * columns + column).
+	 * @return The tile type code.
+	 */
+	private byte getTileCode(int cell)
+	{
+		// A tile placed in the matrix of getBoard takes the cell.
+		if (mBoardView != null)
+		{
+			readBoardView(cell);
+		}
+
+		return getStoredCode(cell);
+	}
+
+	/**
+	 * Get the tile type code kept for a cell, in the overlay or in mCodes.
+	 *
+	 * @param cell
+	 *            - Cell of the tile (row * columns + column).
+	 * @return The tile type code.
+	 */
+	private byte getStoredCode(int cell)
+	{
+		// The overlay holds a few broken boulders at most.
+		for (int i = 0; i < mOverlaySize; i++)
+		{
+			if (mOverlayCells[i] == cell)
+			{
+				return mOverlayCodes[i];
+			}
+		}
+
+		return mCodes[cell];
+	}
+
+	/**
+	 * Share the tiles of the board with its copies.
+	 * From now on mCodes never changes, and the slide engine can be shared too.
+	 */
+	void share()
+	{
+		// Copies share mCodes, they do not see the matrix of getBoard.
+		if (mBoardView != null)
+		{
+			readBoardView();
+		}
+
+		mShared = true;
+		getSlideEngine();
 	}
 
+	/**
+	 * Get the tile of a cell.
+	 * A flyweight board creates a new tile, with a new location, on each call.
+	 * Other boards create the tile on the first call and keep it.
+	 * 
+	 * @param row
+	 *            - Row of the tile.
+	 * @param column
+	 *            - Column of the tile.
+	 * @return The tile, null if out of the board.
+	 */
 	@Override
-	public ITile[][] getBoard()
+	public ITile getTile(int row, int column)
 	{
-		return (ITile[][]) mBoard;
+		if (row < 0 || column < 0 || row >= mRowsNum || column >= mColumnsNum)
+		{
+			return null;
+		}
+
+		int cell = row * mColumnsNum + column;
+
+		// The tile kept for the cell may have been replaced in the matrix of getBoard.
+		if (mBoardView != null)
+		{
+			readBoardView(cell);
+		}
+
+		// Nothing is kept, the location comes from the lookup.
+		if (mFlyweightTiles)
+		{
+			return ETileType.fromCode(getTileCode(cell)).createTile(column, row);
+		}
+
+		if (mTiles == null)
+		{
+			mTiles = new ITile[mCodes.length];
+		}
+
+		// Create the tile on first request.
+		if (mTiles[cell] == null)
+		{
+			mTiles[cell] = ETileType.fromCode(getTileCode(cell)).createTile(column, row);
+		}
+
+		return mTiles[cell];
+	}
+
+	/**
+	 * Set whether or not the board keeps no tile objects.
+	 * A flyweight board holds only its tile codes, so a resident board costs a byte per cell.
+	 * It lowers the memory of resident boards, not the allocations:
+	 * every tile handed out is created for the request and not kept.
+	 * Code that reads many tiles should ask for their types with getTileType, which creates nothing.
+	 * 
+	 * @param flyweightTiles
+	 *            - true to keep no tile objects.
+	 */
+	public void setFlyweightTiles(boolean flyweightTiles)
+	{
+		mFlyweightTiles = flyweightTiles;
+
+		// Drop the tiles handed out so far.
+		if (flyweightTiles)
+		{
+			mTiles = null;
+		}
+	}
+
+	/**
+	 * Get indication to whether or not the board keeps no tile objects.
+	 * 
+	 * @return true if the board keeps no tile objects.
+	 */
+	public boolean isFlyweightTiles()
+	{
+		return mFlyweightTiles;
+	}
+
+	@Override
+	public boolean isTileOfType(int row, int column, Class<?> tileClass)
+	{
+		ETileType type = getTileType(row, column);
+
+		return type != null && tileClass.isAssignableFrom(type.getTileClass());
+	}
+
+	/**
+	 * Get the type of a tile on the board.
+	 * 
+	 * @param cell
+	 *            - Cell of the tile (row * columns + column).
+	 * @return The type of the tile.
+	 */
+	ETileType getTileType(int cell)
+	{
+		return ETileType.fromCode(getTileCode(cell));
+	}
+
+	/**
+	 * Get the cell next to a cell on the board.
+	 * 
+	 * @param cell
+	 *            - Cell to start from (row * columns + column).
+	 * @param direction
+	 *            - Direction of the next cell.
+	 * @return The next cell, -1 if it is out of the board.
+	 */
+	int getNextCell(int cell, EDirection direction)
+	{
+		int row = cell / mColumnsNum + direction.getDirection().y;
+		int column = cell % mColumnsNum + direction.getDirection().x;
+
+		if (row < 0 || column < 0 || row >= mRowsNum || column >= mColumnsNum)
+		{
+			return -1;
+		}
+
+		return row * mColumnsNum + column;
+	}
+
+	/**
+	 * Get the cell where a slide on the board stops.
+	 * 
+	 * @param cell
+	 *            - Cell to start the slide from (row * columns + column).
+	 * @param toMove
+	 *            - Direction to move.
+	 * @return The cell where the slide stops.
+	 */
+	int getSlideStop(int cell, EDirection toMove)
+	{
+		// The engine reads the codes of whole lines.
+		if (mBoardView != null)
+		{
+			readBoardView();
+		}
+
+		// The shared engine does not know the overlay cells on the way.
+		if (mOverlaySize > 0 && isOverlayOnLine(cell, toMove))
+		{
+			return walkSlide(cell, toMove);
+		}
+
+		return getSlideEngine().getStop(cell, toMove);
+	}
+
+	/**
+	 * Set the way the stops of slides on the board are found.
+	 * Copies made from now on share the new engine, copies made before keep the old one.
+	 * 
+	 * @param slideEngine
+	 *            - The way to find slide stops.
+	 */
+	public void setSlideEngine(ESlideEngine slideEngine)
+	{
+		mSlideEngineType = slideEngine;
+		mSlideEngine = null;
+	}
+
+	/**
+	 * Get the slide engine of the board, created on first use.
+	 * 
+	 * @return The slide engine of the tiles in mCodes.
+	 */
+	private ISlideEngine getSlideEngine()
+	{
+		if (mSlideEngine == null)
+		{
+			mSlideEngine = (mSlideEngineType == ESlideEngine.TABLE) ?
+					new SlideTable(mCodes, mRowsNum, mColumnsNum) :
+					new SlideBits(mCodes, mRowsNum, mColumnsNum);
+		}
+
+		return mSlideEngine;
 	}
 
 	/**
-	 * Get the new location after making move.
+	 * Check whether or not an overlay cell is on the line of a slide.
 	 * 
+	 * @param cell
+	 *            - Cell to start the slide from (row * columns + column).
 	 * @param toMove
 	 *            - Direction to move.
-	 * @param currPoint
-	 *            - The current point of the player.
-	 * @return Location of the player after making the move.
+	 * @return true if an overlay cell is on the row or the column of the slide.
 	 */
-	private void getMove(MapNode nodeStart, EDirection toMove, Point currPoint)
+	private boolean isOverlayOnLine(int cell, EDirection toMove)
 	{
-		getMove(nodeStart, toMove, currPoint, false);
+		boolean horizontal = toMove.getDirection().y == 0;
+
+		for (int i = 0; i < mOverlaySize; i++)
+		{
+			if (horizontal ? mOverlayCells[i] / mColumnsNum == cell / mColumnsNum :
+					mOverlayCells[i] % mColumnsNum == cell % mColumnsNum)
+			{
+				return true;
+			}
+		}
+
+		return false;
 	}
 
 	/**
-	 * Get the new location after making move.
+	 * Walk a slide tile by tile.
 	 * 
+	 * @param cell
+	 *            - Cell to start the slide from (row * columns + column).
 	 * @param toMove
 	 *            - Direction to move.
-	 * @param currPoint
-	 *            - The current point of the player.
-	 * @param isInternalCall
-	 *            - true if the function call is from the get move function.
-	 * @return Location of the player after making the move.
+	 * @return The cell where the slide stops.
 	 */
-	private void getMove(MapNode nodeStart, EDirection toMove, Point currPoint, boolean isInternalCall)
+	private int walkSlide(int cell, EDirection toMove)
 	{
-		// Getting the current point
-		ITile tileCurr =
-				(ITile) getTile(currPoint.y + toMove.getDirection().y, currPoint.x + toMove.getDirection().x);
+		int stop = cell;
+		int next = getNextCell(stop, toMove);
 
-		// While not blocked
-		while (!(tileCurr instanceof IBlockingTile))
+		// While not blocked (the board edge blocks too).
+		while (next >= 0 && !getTileType(next).isBlocking())
 		{
-			currPoint.x += toMove.getDirection().x;
-			currPoint.y += toMove.getDirection().y;
+			stop = next;
 
 			// Stopping if reached exit.
-			// TODO: make this more generic.
-			if (tileCurr instanceof FlagTile)
+			if (getTileType(stop) == ETileType.FLAG)
 			{
 				break;
 			}
 
-			// Advance
-			tileCurr =
-					(ITile) getTile(currPoint.y + toMove.getDirection().y,
-							currPoint.x + toMove.getDirection().x);
+			next = getNextCell(stop, toMove);
 		}
 
-		if (tileCurr instanceof BoulderTile)
-		{
-			Point nextPoint = new Point(tileCurr.getLocation());
-			getMove(nodeStart, toMove, nextPoint, true);
-		}
-
-		if (isInternalCall)
-		{
-			MapNode nodeNext = new MapNode(nodeStart, (ITile) getTile(currPoint));
-			nodeStart.push(nodeNext);
-		}
+		return stop;
 	}
 
 	/**
@@ -538,51 +1788,44 @@ public class IceCaveBoard extends BaseBoard implements Serializable
 	 */
 	public MapNode findShortestRoad(Point start, Point end)
 	{
-		// Create the root node
-		MapNode root = new MapNode(null, (ITile) getTile(start));
-
-		// Clear the previous stuff
-		root.clear();
-
-		// Add the root to the stack
-		root.addRoot();
-
-		boolean[][] visited = new boolean[getRowsNum()][getColumnNum()];
+		BoardSolver solver = getSolver();
 
-		LinkedList<MapNode> queue = new LinkedList<MapNode>();
+		if (solver.solve(this, start, end) < 0)
+		{
+			return null;
+		}
 
-		// Add the root.
-		queue.add(root);
+		return solver.getPath();
+	}
 
-		MapNode mapNode = null;
-		// While the queue is not empty.
-		while (!queue.isEmpty())
+	/**
+	 * Get the breakable boulders solver of the board, created on first use and reused by later searches.
+	 * 
+	 * @return The breakable boulders solver of the board.
+	 */
+	private BreakableBoardSolver getBreakableSolver()
+	{
+		if (mBreakableSolver == null)
 		{
-			// Pop the node.
-			mapNode = queue.remove();
+			mBreakableSolver = new BreakableBoardSolver();
+		}
 
-			if (mapNode.getParent() != null && mapNode.getValue().getLocation().equals(end))
-			{
-				return mapNode;
-			}
+		return mBreakableSolver;
+	}
 
-			// Go through the directions.
-			for (EDirection direction : EDirection.values())
-			{
-				Point currPoint = new Point(mapNode.getValue().getLocation());
-				getMove(mapNode, direction, currPoint);
-				if (!visited[currPoint.y][currPoint.x])
-				{
-					visited[currPoint.y][currPoint.x] = true;
-					MapNode newNode = new MapNode(mapNode, (ITile) getTile(currPoint));
-					// Push the node.
-					queue.add(newNode);
-					mapNode.push(newNode);
-				}
-			}
+	/**
+	 * Get the solver of the board, created on first use and reused by later searches.
+	 * 
+	 * @return The solver of the board.
+	 */
+	private BoardSolver getSolver()
+	{
+		if (mSolver == null)
+		{
+			mSolver = new BoardSolver();
 		}
 
-		return null;
+		return mSolver;
 	}
 
 	/**
@@ -598,37 +1841,24 @@ public class IceCaveBoard extends BaseBoard implements Serializable
 	@Override
 	public boolean setTile(int row, int column, IBoardTile tile)
 	{
-		if (!(tile instanceof ITile) || row >= getRowsNum() || column >= getColumnNum())
+		if (!(tile instanceof ITile) || row < 0 || column < 0 || row >= mRowsNum || column >= mColumnsNum)
 		{
 			return false;
 		}
 
-		mBoard[row][column] = (ITile) tile;
-
-		return true;
-	}
+		setTileType(row, column, ((ITile) tile).getType());
 
-	/**
-	 * Only use for debug
-	 */
-	private void printShortestRoad(MapNode flagNode)
-	{
-		MapNode currNode = flagNode;
-		ArrayList<String> reverseStackValues = new ArrayList<String>();
-		while (currNode != null) {
-			
-			reverseStackValues.add("x: " + 
-							currNode.getValue().getLocation().x + ", y: " + 
-					currNode.getValue().getLocation().y + 
-					" breakable: " +
-					Boolean.toString(currNode.isBreakable()));
-			currNode = currNode.getParent();
+		// Keep handing out the placed tile.
+		if (mTiles != null)
+		{
+			mTiles[row * mColumnsNum + column] = (ITile) tile;
 		}
-		
-		System.out.println("Path to flag:");
-		
-		for (int i = reverseStackValues.size() - 1; i >= 0; i--) {
-			System.out.println(reverseStackValues.get(i));
+
+		if (mBoardView != null)
+		{
+			mBoardView[row][column] = (ITile) tile;
 		}
+
+		return true;
 	}
-}
+}
\ No newline at end of file
@@ -0,0 +1,353 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
+import com.tas.icecaveLibrary.utils.Point;
+
+/**
+ * Binary format of a stage board.
+ * A header holding the dimensions, the start, the flag, the starting move and the min moves,
+ * followed by the tile type codes of the board, two codes in each byte.
+ * All the values are big endian, as written by DataOutput.
+ *
+ */
+public final class IceCaveBoardCodec
+{
+	/**
+	 * Marks the start of an encoded board, "ICEB".
+	 */
+	public static final int MAGIC = 0x49434542;
+
+	/**
+	 * Version of the format written.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Size of the header in bytes.
+	 */
+	public static final int HEADER_SIZE = 20;
+
+	/**
+	 * Code of a missing starting move.
+	 */
+	private static final byte NO_DIRECTION = -1;
+
+	/**
+	 * The directions, indexed by code.
+	 */
+	private static final EDirection[] DIRECTIONS = EDirection.values();
+
+	/**
+	 * The tile types, indexed by code.
+	 */
+	private static final ETileType[] TYPES = ETileType.values();
+
+	/**
+	 * Create a new instance of the IceCaveBoardCodec object.
+	 */
+	private IceCaveBoardCodec()
+	{
+	}
+
+	/**
+	 * Get the size of an encoded board.
+	 *
+	 * @param board - Board to encode.
+	 * @return Size of the encoded board in bytes.
+	 */
+	public static int getEncodedSize(IceCaveBoard board)
+	{
+		return HEADER_SIZE + getPackedSize(board.getRowsNum() * board.getColumnNum());
+	}
+
+	/**
+	 * Write a board.
+	 *
+	 * @param board - Board to write.
+	 * @param out - Output to write the board to.
+	 * @throws IOException If the board does not fit the format, or writing failed.
+	 */
+	public static void write(IceCaveBoard board, DataOutput out) throws IOException
+	{
+		int rows = board.getRowsNum();
+		int columns = board.getColumnNum();
+		Point start = board.getStartPoint();
+		Point flag = board.getFlagLocation();
+		EDirection startingMove = board.getStartingMove();
+
+		checkShort(rows);
+		checkShort(columns);
+		checkShort(board.getMinMoves());
+
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeShort(rows);
+		out.writeShort(columns);
+		out.writeShort(start.x);
+		out.writeShort(start.y);
+		out.writeShort(flag.x);
+		out.writeShort(flag.y);
+		out.writeByte(startingMove == null ? NO_DIRECTION : startingMove.ordinal());
+		out.writeShort(board.getMinMoves());
+		out.write(pack(board));
+	}
+
+	/**
+	 * Read a board.
+	 *
+	 * @param in - Input to read the board from.
+	 * @return The board read.
+	 * @throws IOException If the input is not an encoded board, or reading failed.
+	 */
+	public static IceCaveBoard read(DataInput in) throws IOException
+	{
+		checkMagic(in.readInt());
+		checkVersion(in.readByte());
+
+		int rows = in.readShort();
+		int columns = in.readShort();
+		Point start = new Point(in.readShort(), in.readShort());
+		Point flag = new Point(in.readShort(), in.readShort());
+		byte startingMove = in.readByte();
+		int moves = in.readShort();
+
+		checkDimensions(rows, columns);
+
+		byte[] packed = new byte[getPackedSize(rows * columns)];
+		in.readFully(packed);
+
+		return new IceCaveBoard(rows,
+				columns,
+				unpack(packed, rows * columns),
+				start,
+				flag,
+				toDirection(startingMove),
+				moves);
+	}
+
+	/**
+	 * Read a board, moving the position of the buffer past it.
+	 *
+	 * @param buffer - Buffer to read the board from.
+	 * @return The board read.
+	 * @throws IOException If the buffer does not hold an encoded board.
+	 */
+	public static IceCaveBoard read(ByteBuffer buffer) throws IOException
+	{
+		if (buffer.remaining() < HEADER_SIZE)
+		{
+			throw new StreamCorruptedException("Encoded board header is cut");
+		}
+
+		checkMagic(buffer.getInt());
+		checkVersion(buffer.get());
+
+		int rows = buffer.getShort();
+		int columns = buffer.getShort();
+		Point start = new Point(buffer.getShort(), buffer.getShort());
+		Point flag = new Point(buffer.getShort(), buffer.getShort());
+		byte startingMove = buffer.get();
+		int moves = buffer.getShort();
+
+		checkDimensions(rows, columns);
+
+		byte[] packed = new byte[getPackedSize(rows * columns)];
+
+		if (buffer.remaining() < packed.length)
+		{
+			throw new StreamCorruptedException("Encoded board tiles are cut");
+		}
+
+		buffer.get(packed);
+
+		return new IceCaveBoard(rows,
+				columns,
+				unpack(packed, rows * columns),
+				start,
+				flag,
+				toDirection(startingMove),
+				moves);
+	}
+
+	/**
+	 * Check whether a stream starts with an encoded board, without consuming it.
+	 *
+	 * @param in - Stream to check, must support mark.
+	 * @return true if the stream starts with an encoded board.
+	 * @throws IOException If reading failed.
+	 */
+	public static boolean isEncoded(InputStream in) throws IOException
+	{
+		int magic = 0;
+		int bytesRead = 0;
+
+		in.mark(4);
+
+		try
+		{
+			// Read the bytes of the magic.
+			for (; bytesRead < 4; bytesRead++)
+			{
+				int value = in.read();
+
+				if (value < 0)
+				{
+					break;
+				}
+
+				magic = (magic << 8) | value;
+			}
+		} finally
+		{
+			in.reset();
+		}
+
+		return bytesRead == 4 && magic == MAGIC;
+	}
+
+	/**
+	 * Get the number of bytes of packed tile codes.
+	 *
+	 * @param cellsNum - Number of cells on the board.
+	 * @return Number of bytes.
+	 */
+	private static int getPackedSize(int cellsNum)
+	{
+		return (cellsNum + 1) / 2;
+	}
+
+	/**
+	 * Pack the tile codes of a board, two in each byte, the first in the high half.
+	 *
+	 * @param board - Board to pack.
+	 * @return The packed tile codes.
+	 */
+	private static byte[] pack(IceCaveBoard board)
+	{
+		int cellsNum = board.getRowsNum() * board.getColumnNum();
+		byte[] packed = new byte[getPackedSize(cellsNum)];
+
+		for (int cell = 0; cell < cellsNum; cell++)
+		{
+			int code = board.getTileType(cell).getCode();
+
+			packed[cell >> 1] |= ((cell & 1) == 0) ? code << 4 : code;
+		}
+
+		return packed;
+	}
+
+	/**
+	 * Unpack tile codes.
+	 *
+	 * @param packed - The packed tile codes.
+	 * @param cellsNum - Number of cells on the board.
+	 * @return The tile codes, one for each cell.
+	 * @throws StreamCorruptedException If a code is not of a tile type.
+	 */
+	private static byte[] unpack(byte[] packed, int cellsNum) throws StreamCorruptedException
+	{
+		byte[] codes = new byte[cellsNum];
+
+		for (int cell = 0; cell < cellsNum; cell++)
+		{
+			int code = ((cell & 1) == 0) ? (packed[cell >> 1] >> 4) & 0xF : packed[cell >> 1] & 0xF;
+
+			if (code >= TYPES.length)
+			{
+				throw new StreamCorruptedException("Unknown tile code " + code);
+			}
+
+			codes[cell] = (byte) code;
+		}
+
+		return codes;
+	}
+
+	/**
+	 * Get the direction of a code.
+	 *
+	 * @param code - Code of the direction.
+	 * @return The direction, null for NO_DIRECTION.
+	 * @throws StreamCorruptedException If the code is not of a direction.
+	 */
+	private static EDirection toDirection(byte code) throws StreamCorruptedException
+	{
+		if (code == NO_DIRECTION)
+		{
+			return null;
+		}
+
+		if (code < 0 || code >= DIRECTIONS.length)
+		{
+			throw new StreamCorruptedException("Unknown direction code " + code);
+		}
+
+		return DIRECTIONS[code];
+	}
+
+	/**
+	 * Check the magic of an encoded board.
+	 *
+	 * @param magic - The magic read.
+	 * @throws StreamCorruptedException If the magic is wrong.
+	 */
+	private static void checkMagic(int magic) throws StreamCorruptedException
+	{
+		if (magic != MAGIC)
+		{
+			throw new StreamCorruptedException("Not an encoded board");
+		}
+	}
+
+	/**
+	 * Check the version of an encoded board.
+	 *
+	 * @param version - The version read.
+	 * @throws StreamCorruptedException If the version is not supported.
+	 */
+	private static void checkVersion(int version) throws StreamCorruptedException
+	{
+		if (version != VERSION)
+		{
+			throw new StreamCorruptedException("Unsupported encoded board version " + version);
+		}
+	}
+
+	/**
+	 * Check the dimensions of an encoded board.
+	 *
+	 * @param rows - Number of rows read.
+	 * @param columns - Number of columns read.
+	 * @throws StreamCorruptedException If the dimensions are not of a board.
+	 */
+	private static void checkDimensions(int rows, int columns) throws StreamCorruptedException
+	{
+		if (rows <= 0 || columns <= 0)
+		{
+			throw new StreamCorruptedException("Bad encoded board dimensions " + rows + "x" + columns);
+		}
+	}
+
+	/**
+	 * Check that a value fits the format.
+	 *
+	 * @param value - Value to check.
+	 * @throws IOException If the value does not fit.
+	 */
+	private static void checkShort(int value) throws IOException
+	{
+		if (value < Short.MIN_VALUE || value > Short.MAX_VALUE)
+		{
+			throw new IOException("Value " + value + " does not fit the board format");
+		}
+	}
+}
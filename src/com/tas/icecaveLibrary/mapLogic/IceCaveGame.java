@@ -1,5 +1,7 @@
 package com.tas.icecaveLibrary.mapLogic;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -8,18 +10,23 @@ import java.io.OptionalDataException;
 import java.io.Serializable;
 import java.io.StreamCorruptedException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 import com.tas.icecaveLibrary.general.EDifficulty;
 import com.tas.icecaveLibrary.general.EDirection;
-import com.tas.icecaveLibrary.general.IFunction;
-import com.tas.icecaveLibrary.mapLogic.collision.BaseCollisionInvoker;
+import com.tas.icecaveLibrary.general.GeneralServiceProvider;
 import com.tas.icecaveLibrary.mapLogic.collision.CollisionManager;
-import com.tas.icecaveLibrary.mapLogic.collision.ICollisionable;
-import com.tas.icecaveLibrary.mapLogic.tiles.BoulderTile;
+import com.tas.icecaveLibrary.mapLogic.collision.ICollisionInvoker;
 import com.tas.icecaveLibrary.mapLogic.tiles.BreakableBoulderTile;
-import com.tas.icecaveLibrary.mapLogic.tiles.FlagTile;
-import com.tas.icecaveLibrary.mapLogic.tiles.WallTile;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
 import com.tas.icecaveLibrary.utils.Point;
+import com.tas.icecaveLibrary.utils.random.IRandomServices;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
 
 /**
  * Class to hold all the logic of the game.
@@ -27,9 +34,18 @@ import com.tas.icecaveLibrary.utils.Point;
  * @author Tom
  * 
  */
-@SuppressWarnings("serial")
 public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus, Serializable
 {
+	/**
+	 * Version of the serialized game, kept from 1.0 so saved games still load.
+	 */
+	private static final long serialVersionUID = -6972913516511769849L;
+
+	/**
+	 * The directions, indexed by ordinal.
+	 */
+	private static final EDirection[] DIRECTIONS = EDirection.values();
+
 	/**
 	 * The overall moves for the current game.
 	 */
@@ -55,11 +71,6 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 	 */
 	private Point mPlayerLocation;
 
-	/**
-	 * Is the player moving.
-	 */
-	private transient boolean mPlayerMoving;
-
 	/**
 	 * Number of boulders for the current game.
 	 */
@@ -90,6 +101,41 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 	 */
 	private transient ArrayList<Point> mPointsChanged;
 
+	/**
+	 * Context of the game session.
+	 */
+	private transient MapLogicContext mContext;
+
+	/**
+	 * Journal of the moves of the current stage.
+	 */
+	private transient MoveJournal mJournal;
+
+	/**
+	 * Max number of moves the journal keeps, 0 to keep every move.
+	 */
+	private int mJournalDepth;
+
+	/**
+	 * Cell of the boulder broken by the current move, MoveJournal.NONE if none.
+	 */
+	private transient int mBrokenCell;
+
+	/**
+	 * Pool to take generated boards from, null to generate each board on a new stage.
+	 */
+	private transient StagePool mStagePool;
+
+	/**
+	 * Listeners to the changes on the board, copied only when a listener is added or removed.
+	 */
+	private transient CopyOnWriteArrayList<IBoardChangeListener> mListeners;
+
+	/**
+	 * Changes of the current action, handed to the listeners when it is done.
+	 */
+	private transient BoardChanges mChanges;
+
 	/**
 	 * Create a new instance of the IceCaveGame object.
 	 * 
@@ -104,28 +150,98 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 	 */
 	public IceCaveGame(int boulderNum, int boardSizeX, int boardSizeY, EDifficulty difficulty)
 	{
+		this(boulderNum,
+				boardSizeX,
+				boardSizeY,
+				difficulty,
+				new SplittableRandomServiceProvider(GeneralServiceProvider.getInstance().getRandom().nextLong()));
+	}
+
+	/**
+	 * Create a new instance of the IceCaveGame object.
+	 * 
+	 * @param boulderNum
+	 *            - Number of boulders to place on board.
+	 * @param boardSizeX
+	 *            - Board width (in tiles).
+	 * @param boardSizeY
+	 *            - Board height (in tiles).
+	 * @param difficulty
+	 *            - Game difficulty.
+	 * @param random
+	 *            - Random values for generating the boards of the game.
+	 */
+	public IceCaveGame(int boulderNum,
+			int boardSizeX,
+			int boardSizeY,
+			EDifficulty difficulty,
+			IRandomServices random)
+	{
+		this(boulderNum, boardSizeX, boardSizeY, difficulty, random, null);
+	}
+
+	/**
+	 * Create a new instance of the IceCaveGame object.
+	 * 
+	 * @param boulderNum
+	 *            - Number of boulders to place on board.
+	 * @param boardSizeX
+	 *            - Board width (in tiles).
+	 * @param boardSizeY
+	 *            - Board height (in tiles).
+	 * @param difficulty
+	 *            - Game difficulty.
+	 * @param random
+	 *            - Random values for generating the boards of the game.
+	 * @param generationMetricsSink
+	 *            - Sink for the statistics of generating the boards, null to keep no statistics.
+	 */
+	public IceCaveGame(int boulderNum,
+			int boardSizeX,
+			int boardSizeY,
+			EDifficulty difficulty,
+			IRandomServices random,
+			IGenerationMetricsSink generationMetricsSink)
+	{
+		super(ETileType.values().length);
+
+		mContext = new MapLogicContext(this,
+				MapLogicServiceProvider.getInstance().getTileValidatorFactory(),
+				random,
+				generationMetricsSink);
 		mPointsChanged = new ArrayList<Point>();
+		mJournal = new MoveJournal();
+		mListeners = new CopyOnWriteArrayList<IBoardChangeListener>();
+		mChanges = new BoardChanges();
 		mBoulderNum = boulderNum;
 		mBoardSizeX = boardSizeX;
 		mBoardSizeY = boardSizeY;
 		mDifficulty = difficulty;
 		mIsStageEnded = false;
-		mStage = new IceCaveStage();
+		mStage = new IceCaveStage(mContext);
 		mPlayerLocation = new Point();
 
+		createCollisionInvokers();
+	}
+
+	/**
+	 * Create the invokers of the game and add them to the collision manager.
+	 */
+	private void createCollisionInvokers()
+	{
 		// Create invokers.
-		final IFunction<Void> wallCollision = new IFunction<Void>()
+		ICollisionInvoker<Void> wallCollision = new ICollisionInvoker<Void>()
 		{
 			@Override
-			public Void invoke(Point collisionPoint)
+			public Void onCollision(int x, int y)
 			{
-				mPlayerMoving = false;
-				collisionPoint.offset(mLastDirectionMoved.getOpositeDirection().getDirection().x,
-						mLastDirectionMoved.getOpositeDirection().getDirection().y);
-				if (!collisionPoint.equals(mPlayerLocation.x, mPlayerLocation.y))
+				// The player stops before the tile.
+				int stopX = x - mLastDirectionMoved.getDirection().x;
+				int stopY = y - mLastDirectionMoved.getDirection().y;
+				if (!mPlayerLocation.equals(stopX, stopY))
 				{
 					mCurrentStageMoves++;
-					mPlayerLocation = collisionPoint;
+					mPlayerLocation = new Point(stopX, stopY);
 					increaseOverallMovesCounter();
 				}
 
@@ -134,34 +250,21 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 		};
 
 		// Create invokers.
-		IFunction<Void> boulderCollision = new IFunction<Void>()
+		ICollisionInvoker<Void> breakableBoulderCollision = new ICollisionInvoker<Void>()
 		{
 			@Override
-			public Void invoke(Point collisionPoint)
+			public Void onCollision(int x, int y)
 			{
-				wallCollision.invoke(collisionPoint);
-
-				return null;
-			}
-		};
-
-		// Create invokers.
-		IFunction<Void> breakableBoulderCollision = new IFunction<Void>()
-		{
-			@Override
-			public Void invoke(Point collisionPoint)
-			{
-				Point original = new Point(collisionPoint);
-				mPlayerMoving = false;
-				collisionPoint.offset(mLastDirectionMoved.getOpositeDirection().getDirection().x,
-						mLastDirectionMoved.getOpositeDirection().getDirection().y);
-				if (!collisionPoint.equals(mPlayerLocation.x, mPlayerLocation.y))
+				Point original = new Point(x, y);
+				int stopX = x - mLastDirectionMoved.getDirection().x;
+				int stopY = y - mLastDirectionMoved.getDirection().y;
+				if (!mPlayerLocation.equals(stopX, stopY))
 				{
-					mPlayerLocation = collisionPoint;
+					mPlayerLocation = new Point(stopX, stopY);
 				}
 				mLastDirectionMoved = null;
 				mStage.removeTile(original);
-				mPointsChanged.add(original);
+				mBrokenCell = y * mStage.getBoard().getColumnNum() + x;
 				
 				// Always increase, even if player stands in same position
 				mCurrentStageMoves++;
@@ -170,15 +273,14 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 			}
 		};
 
-		IFunction<Void> endStage = new IFunction<Void>()
+		ICollisionInvoker<Void> endStage = new ICollisionInvoker<Void>()
 		{
 			@Override
-			public Void invoke(Point collisionPoint)
+			public Void onCollision(int x, int y)
 			{
-				mPlayerMoving = false;
 				mIsStageEnded = true;
 
-				mPlayerLocation = collisionPoint;
+				mPlayerLocation = new Point(x, y);
 
 				mCurrentStageMoves++;
 				increaseOverallMovesCounter();
@@ -187,14 +289,35 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 			}
 		};
 
-		// Add invokers.
-		mCollisionInvokers.put(BreakableBoulderTile.class,
-				new BaseCollisionInvoker<Void>(breakableBoulderCollision));
-		mCollisionInvokers.put(BoulderTile.class, new BaseCollisionInvoker<Void>(boulderCollision));
-		mCollisionInvokers.put(WallTile.class, new BaseCollisionInvoker<Void>(wallCollision));
-		mCollisionInvokers.put(FlagTile.class, new BaseCollisionInvoker<Void>(endStage));
+		// Add invokers, boulders stop the player like walls.
+		setCollisionInvoker(ETileType.BREAKABLE_BOULDER.getCode(), breakableBoulderCollision);
+		setCollisionInvoker(ETileType.BOULDER.getCode(), wallCollision);
+		setCollisionInvoker(ETileType.WALL.getCode(), wallCollision);
+		setCollisionInvoker(ETileType.FLAG.getCode(), endStage);
+	}
+
+	/**
+	 * Read the game, and rebuild the session state that is not serialized.
+	 * The game gets a new random seed, an empty journal and no listeners.
+	 * @param in - Stream to read the game from.
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+
+		mContext = new MapLogicContext(this,
+				MapLogicServiceProvider.getInstance().getTileValidatorFactory(),
+				new SplittableRandomServiceProvider(GeneralServiceProvider.getInstance().getRandom().nextLong()));
+		mPointsChanged = new ArrayList<Point>();
+		mJournal = new MoveJournal(mJournalDepth);
+		mBrokenCell = MoveJournal.NONE;
+		mListeners = new CopyOnWriteArrayList<IBoardChangeListener>();
+		mChanges = new BoardChanges();
+		mStage.setContext(mContext);
 
-		MapLogicServiceProvider.getInstance().registerCollisionManager(this);
+		createCollisionInvokers();
 	}
 
 	private void increaseOverallMovesCounter()
@@ -219,12 +342,38 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 			ClassNotFoundException,
 			CloneNotSupportedException
 	{
-		mIsStageEnded = false;
-		mLastDirectionMoved = null;
-
 		// Read the map board.
-		IceCaveBoard mapBoard = readMapBoard(mapFileStream);
+		newStage(readMapBoard(mapFileStream));
+	}
+
+	/**
+	 * Start a new stage from a level pack.
+	 * 
+	 * @param levelPack
+	 *            - Level pack to take the stage from.
+	 * @param stageIndex
+	 *            - Index of the stage in the level pack.
+	 * @throws IOException
+	 * @throws CloneNotSupportedException
+	 */
+	public void newStage(LevelPack levelPack, int stageIndex) throws IOException, CloneNotSupportedException
+	{
+		newStage(levelPack.getStage(stageIndex));
+	}
 
+	/**
+	 * Start a new stage on a map board.
+	 * 
+	 * @param mapBoard
+	 *            - The map board of the stage.
+	 * @throws CloneNotSupportedException
+	 */
+	private void newStage(IceCaveBoard mapBoard) throws CloneNotSupportedException
+	{
+		mIsStageEnded = false;
+		mLastDirectionMoved = null;
+		mPointsChanged.clear();
+		mJournal.clear();
 		mPlayerLocation = new Point(mapBoard.getStartPoint());
 		mCurrentStageMoves = 0;
 
@@ -233,10 +382,14 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 
 		// Increase minimum stage moves to the overall counter
 		mOverallMoves += mStage.getMoves();
+
+		addChange(EBoardChange.STAGE_STARTED, mPlayerLocation);
+		fireChanges();
 	}
 
 	/**
-	 * Read the map board from a file.
+	 * Read the map board from a file,
+	 * written by IceCaveBoardCodec or by java serialization.
 	 * 
 	 * @param mapFileStream
 	 *            - File to read the map board from.
@@ -254,19 +407,29 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 			ClassNotFoundException
 	{
 		IceCaveBoard mapBoard;
-		ObjectInputStream objectInputStream = null;
+		InputStream inputStream = mapFileStream;
+
+		// Peeking at the format needs mark support.
+		if (!inputStream.markSupported())
+		{
+			inputStream = new BufferedInputStream(inputStream);
+		}
 
 		try
 		{
-			objectInputStream = new ObjectInputStream(mapFileStream);
-			mapBoard = (IceCaveBoard) objectInputStream.readObject();
+			if (IceCaveBoardCodec.isEncoded(inputStream))
+			{
+				mapBoard = IceCaveBoardCodec.read(new DataInputStream(inputStream));
+			}
+			else
+			{
+				// Fall back to boards written by java serialization.
+				mapBoard = (IceCaveBoard) new ObjectInputStream(inputStream).readObject();
+			}
 		} finally
 		{
 			// Close the stream.
-			if (objectInputStream != null)
-			{
-				objectInputStream.close();
-			}
+			inputStream.close();
 		}
 
 		return mapBoard;
@@ -283,8 +446,24 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 	 */
 	public void newStage(Point playerStart, int wallWidth) throws CloneNotSupportedException
 	{
+		// Take a ready board from the pool.
+		if (mStagePool != null)
+		{
+			newStage(mStagePool.take(new StagePool.StageKey(mDifficulty,
+					mBoardSizeY,
+					mBoardSizeX,
+					mBoulderNum,
+					wallWidth,
+					playerStart,
+					EDirection.RIGHT)));
+
+			return;
+		}
+
 		mIsStageEnded = false;
 		mLastDirectionMoved = null;
+		mPointsChanged.clear();
+		mJournal.clear();
 		mPlayerLocation = new Point(playerStart);
 		mStage.buildBoard(mDifficulty,
 				mBoardSizeY,
@@ -297,6 +476,122 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 
 		// Increase minimum stage moves to the overall counter
 		mOverallMoves += mStage.getMoves();
+
+		addChange(EBoardChange.STAGE_STARTED, mPlayerLocation);
+		fireChanges();
+	}
+
+	/**
+	 * Generate the board of the next stage in the background, while the current stage is played.
+	 * The stage is started by newStage(Future) once the board is ready.
+	 *
+	 * @param playerStart
+	 *            - The starting position of the player.
+	 * @param wallWidth
+	 *            - Width of the walls in tiles.
+	 * @param executor
+	 *            - Executor to generate the board on.
+	 * @param listener
+	 *            - Listener to call once the board is ready, null for none.
+	 * @return Future of the generated board.
+	 */
+	public StageFuture newStageAsync(Point playerStart,
+			int wallWidth,
+			Executor executor,
+			IStageReadyListener listener)
+	{
+		// Take the board from the pool on the executor, as it may be generated on take.
+		if (mStagePool != null)
+		{
+			final StagePool stagePool = mStagePool;
+			final StagePool.StageKey key = new StagePool.StageKey(mDifficulty,
+					mBoardSizeY,
+					mBoardSizeX,
+					mBoulderNum,
+					wallWidth,
+					playerStart,
+					EDirection.RIGHT);
+
+			StageFuture future = new StageFuture(new Callable<IceCaveBoard>()
+			{
+				@Override
+				public IceCaveBoard call()
+				{
+					return stagePool.take(key);
+				}
+			}, listener);
+
+			executor.execute(future);
+
+			return future;
+		}
+
+		return mStage.buildBoardAsync(executor,
+				mDifficulty,
+				mBoardSizeY,
+				mBoardSizeX,
+				wallWidth,
+				playerStart,
+				mBoulderNum,
+				EDirection.RIGHT,
+				listener);
+	}
+
+	/**
+	 * Start a new stage on a board generated in the background,
+	 * waiting for the board if it is not ready yet.
+	 *
+	 * @param stage
+	 *            - Future of the board, from newStageAsync.
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the board.
+	 * @throws ExecutionException
+	 *             If generating the board failed.
+	 * @throws CloneNotSupportedException
+	 */
+	public void newStage(Future<IceCaveBoard> stage) throws InterruptedException,
+			ExecutionException,
+			CloneNotSupportedException
+	{
+		newStage(stage.get());
+	}
+
+	/**
+	 * Set the pool to take generated boards from on a new stage.
+	 * 
+	 * @param stagePool
+	 *            - Pool of generated boards, null to generate each board on a new stage.
+	 */
+	public void setStagePool(StagePool stagePool)
+	{
+		mStagePool = stagePool;
+	}
+
+	/**
+	 * Set whether or not the stage boards keep no tile objects.
+	 * Meant for hosting many games, where the tiles of resident boards add up.
+	 * Each tile read from a flyweight board is a new object.
+	 * 
+	 * @param flyweightTiles
+	 *            - true to keep only the tile codes of the boards.
+	 */
+	public void setFlyweightTiles(boolean flyweightTiles)
+	{
+		mStage.setFlyweightTiles(flyweightTiles);
+	}
+
+	/**
+	 * Set the max number of moves that can be undone, older moves are dropped from the journal.
+	 * The moves recorded so far are dropped.
+	 * 
+	 * @param journalDepth
+	 *            - Max number of moves to keep, 0 to keep every move.
+	 * @throws IllegalArgumentException If the depth is negative.
+	 */
+	public void setJournalDepth(int journalDepth)
+	{
+		mJournal = new MoveJournal(journalDepth);
+		mJournalDepth = journalDepth;
 	}
 
 	/**
@@ -318,25 +613,328 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 	 */
 	public IIceCaveGameStatus movePlayer(EDirection direction)
 	{
+		move(direction);
+
+		// Report the broken boulder.
+		if (mBrokenCell != MoveJournal.NONE)
+		{
+			mPointsChanged.add(toPoint(mBrokenCell));
+		}
+
+		fireChanges();
+
+		return this;
+	}
+
+	/**
+	 * Move the player on the board, for each move of a batch.
+	 * The batch stops at the end of the stage, the moves after it are not applied.
+	 * The cells changed by the batch are reported by the result, and not by getPointToUpdate.
+	 * 
+	 * @param moves
+	 *            - Directions to move the player in.
+	 * @return Status of the game after the batch.
+	 */
+	public MoveBatchResult applyMoves(EDirection[] moves)
+	{
+		return applyMoves(moves, null, moves.length);
+	}
+
+	/**
+	 * Move the player on the board, for each move of a batch.
+	 * The batch stops at the end of the stage, the moves after it are not applied.
+	 * The cells changed by the batch are reported by the result, and not by getPointToUpdate.
+	 * 
+	 * @param moves
+	 *            - Ordinals of the directions to move the player in.
+	 * @return Status of the game after the batch.
+	 * @throws IllegalArgumentException
+	 *             If a move is not a direction ordinal, nothing is applied then.
+	 */
+	public MoveBatchResult applyMoves(byte[] moves)
+	{
+		// Check the whole batch before applying any of it.
+		for (int i = 0; i < moves.length; i++)
+		{
+			if (moves[i] < 0 || moves[i] >= DIRECTIONS.length)
+			{
+				throw new IllegalArgumentException("Bad direction " + moves[i] + " at move " + i);
+			}
+		}
+
+		return applyMoves(null, moves, moves.length);
+	}
+
+	/**
+	 * Move the player on the board, for each move of a batch.
+	 * 
+	 * @param directions
+	 *            - Directions to move the player in, null to take the ordinals.
+	 * @param ordinals
+	 *            - Ordinals of the directions to move the player in.
+	 * @param movesNum
+	 *            - Number of moves in the batch.
+	 * @return Status of the game after the batch.
+	 */
+	private MoveBatchResult applyMoves(EDirection[] directions, byte[] ordinals, int movesNum)
+	{
+		int[] changedCells = null;
+		int changedNum = 0;
+		int countedNum = 0;
+		int stageEndedIndex = MoveBatchResult.NOT_ENDED;
+		int applied = 0;
+
+		// Go through the moves, up to the end of the stage.
+		while (applied < movesNum && !mIsStageEnded)
+		{
+			EDirection direction = (directions != null) ? directions[applied] : DIRECTIONS[ordinals[applied]];
+
+			if (move(direction))
+			{
+				countedNum++;
+			}
+
+			if (mBrokenCell != MoveJournal.NONE)
+			{
+				if (changedCells == null)
+				{
+					changedCells = new int[4];
+				}
+				else if (changedNum == changedCells.length)
+				{
+					changedCells = Arrays.copyOf(changedCells, changedNum * 2);
+				}
+
+				changedCells[changedNum++] = mBrokenCell;
+			}
+
+			if (mIsStageEnded)
+			{
+				stageEndedIndex = applied;
+			}
+
+			applied++;
+		}
+
+		// One call to the listeners for the whole batch.
+		fireChanges();
+
+		return new MoveBatchResult(new Point(mPlayerLocation),
+				applied,
+				countedNum,
+				stageEndedIndex,
+				mIsStageEnded,
+				(changedCells == null) ? new int[0] : Arrays.copyOf(changedCells, changedNum),
+				mStage.getBoard().getColumnNum());
+	}
+
+	/**
+	 * Move the player on the board, journaling the move if it counted.
+	 * 
+	 * @param direction
+	 *            - Direction to move the player in.
+	 * @return true if the move counted.
+	 */
+	private boolean move(EDirection direction)
+	{
+		mBrokenCell = MoveJournal.NONE;
+
 		// Check if the requested direction is the last direction moved.
 		if (!direction.equals(mLastDirectionMoved))
 		{
+			EDirection lastDirection = mLastDirectionMoved;
+			Point fromLocation = mPlayerLocation;
+			int stageMoves = mCurrentStageMoves;
+			int overallMoves = mOverallMoves;
+			boolean wasStageEnded = mIsStageEnded;
+
 			// Set last move
 			mLastDirectionMoved = direction;
 
-			// Start moving.
-			mPlayerMoving = true;
+			// Slide to the tile that stops the player, and collide with it.
+			mStage.movePlayer(mPlayerLocation, direction);
 
-			Point nextPlayerPoint = mStage.movePlayerOneTile(mPlayerLocation, direction);
+			if (mBrokenCell != MoveJournal.NONE)
+			{
+				addChange(EBoardChange.TILE_BROKEN, mBrokenCell);
+			}
 
-			// While we are moving.
-			while (mPlayerMoving)
+			if (!mPlayerLocation.equals(fromLocation))
 			{
-				nextPlayerPoint = mStage.movePlayerOneTile(nextPlayerPoint, direction);
+				addChange(EBoardChange.PLAYER_MOVED, mPlayerLocation);
+			}
+
+			if (mIsStageEnded && !wasStageEnded)
+			{
+				addChange(EBoardChange.STAGE_ENDED, mPlayerLocation);
+			}
+
+			// Journal the moves that counted.
+			if (mCurrentStageMoves != stageMoves)
+			{
+				int flags = (mOverallMoves != overallMoves) ? MoveJournal.OVERALL_MOVE : 0;
+
+				if (mIsStageEnded)
+				{
+					flags |= MoveJournal.STAGE_ENDED;
+				}
+
+				mJournal.record(toCell(fromLocation),
+						toCell(mPlayerLocation),
+						mBrokenCell,
+						direction.ordinal(),
+						lastDirection == null ? MoveJournal.NONE : lastDirection.ordinal(),
+						flags);
+
+				return true;
 			}
 		}
 
-		return this;
+		return false;
+	}
+
+	/**
+	 * Undo the last move of the stage, restoring the board and the counters.
+	 * 
+	 * @return true if a move was undone, false if there is no move to undo.
+	 */
+	public boolean undo()
+	{
+		if (!mJournal.canUndo())
+		{
+			return false;
+		}
+
+		int record = mJournal.undo();
+		int flags = mJournal.getFlags(record);
+		int brokenCell = mJournal.getBrokenCell(record);
+		int lastDirection = mJournal.getLastDirection(record);
+
+		mPlayerLocation = toPoint(mJournal.getFromCell(record));
+		mLastDirectionMoved = (lastDirection == MoveJournal.NONE) ? null : DIRECTIONS[lastDirection];
+		mCurrentStageMoves--;
+
+		if ((flags & MoveJournal.OVERALL_MOVE) != 0)
+		{
+			mOverallMoves--;
+		}
+
+		if ((flags & MoveJournal.STAGE_ENDED) != 0)
+		{
+			mIsStageEnded = false;
+		}
+
+		// Put the broken boulder back.
+		if (brokenCell != MoveJournal.NONE)
+		{
+			Point location = toPoint(brokenCell);
+			mStage.placeTile(new BreakableBoulderTile(location));
+			mPointsChanged.add(location);
+			addChange(EBoardChange.TILE_RESTORED, brokenCell);
+		}
+
+		addChange(EBoardChange.PLAYER_MOVED, mJournal.getFromCell(record));
+		fireChanges();
+
+		return true;
+	}
+
+	/**
+	 * Redo the last undone move of the stage.
+	 * 
+	 * @return true if a move was redone, false if there is no move to redo.
+	 */
+	public boolean redo()
+	{
+		if (!mJournal.canRedo())
+		{
+			return false;
+		}
+
+		int record = mJournal.redo();
+		int flags = mJournal.getFlags(record);
+		int brokenCell = mJournal.getBrokenCell(record);
+
+		mPlayerLocation = toPoint(mJournal.getToCell(record));
+		mLastDirectionMoved = DIRECTIONS[mJournal.getDirection(record)];
+		mCurrentStageMoves++;
+
+		if ((flags & MoveJournal.OVERALL_MOVE) != 0)
+		{
+			mOverallMoves++;
+		}
+
+		if ((flags & MoveJournal.STAGE_ENDED) != 0)
+		{
+			mIsStageEnded = true;
+		}
+
+		// Break the boulder again.
+		if (brokenCell != MoveJournal.NONE)
+		{
+			Point location = toPoint(brokenCell);
+			mStage.removeTile(location);
+			mPointsChanged.add(location);
+			mLastDirectionMoved = null;
+			addChange(EBoardChange.TILE_BROKEN, brokenCell);
+		}
+
+		addChange(EBoardChange.PLAYER_MOVED, mJournal.getToCell(record));
+
+		if ((flags & MoveJournal.STAGE_ENDED) != 0)
+		{
+			addChange(EBoardChange.STAGE_ENDED, mJournal.getToCell(record));
+		}
+
+		fireChanges();
+
+		return true;
+	}
+
+	/**
+	 * Check whether or not there is a move to undo.
+	 * 
+	 * @return true if there is a move to undo.
+	 */
+	public boolean canUndo()
+	{
+		return mJournal.canUndo();
+	}
+
+	/**
+	 * Check whether or not there is a move to redo.
+	 * 
+	 * @return true if there is a move to redo.
+	 */
+	public boolean canRedo()
+	{
+		return mJournal.canRedo();
+	}
+
+	/**
+	 * Get the cell of a point on the board of the stage.
+	 * 
+	 * @param point
+	 *            - Point on the board.
+	 * @return Cell of the point (row * columns + column).
+	 */
+	private int toCell(Point point)
+	{
+		return point.y * mStage.getBoard().getColumnNum() + point.x;
+	}
+
+	/**
+	 * Get the point of a cell on the board of the stage.
+	 * 
+	 * @param cell
+	 *            - Cell on the board (row * columns + column).
+	 * @return Point of the cell.
+	 */
+	private Point toPoint(int cell)
+	{
+		int columnsNum = mStage.getBoard().getColumnNum();
+
+		return new Point(cell % columnsNum, cell / columnsNum);
 	}
 
 	/**
@@ -369,15 +967,6 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 		return mStage.getBoard();
 	}
 
-	@Override
-	public void handleCollision(ICollisionable collisionable)
-	{
-		if (mCollisionInvokers.containsKey(collisionable.getClass()))
-		{
-			mCollisionInvokers.get(collisionable.getClass()).onCollision(collisionable.getLocation());
-		}
-	}
-
 	@Override
 	public Point getPlayerPoint()
 	{
@@ -409,6 +998,10 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 	{
 		mPlayerLocation = new Point(startLoc);
 		mLastDirectionMoved = null;
+		mJournal.clear();
+
+		addChange(EBoardChange.PLAYER_MOVED, mPlayerLocation);
+		fireChanges();
 	}
 
 	/**
@@ -418,6 +1011,7 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 	{
 		mOverallMoves -= mCurrentStageMoves;
 		mCurrentStageMoves = 0;
+		mJournal.clear();
 	}
 
 	/**
@@ -428,5 +1022,88 @@ public class IceCaveGame extends CollisionManager implements IIceCaveGameStatus,
 	public void resetStage() throws CloneNotSupportedException
 	{
 		mStage.reset();
+		mJournal.clear();
+
+		addChange(EBoardChange.STAGE_STARTED, mPlayerLocation);
+		fireChanges();
+	}
+
+	/**
+	 * Add a listener to the changes on the board.
+	 * Listeners are called on the thread acting on the game, once per action.
+	 * 
+	 * @param listener
+	 *            - Listener to add.
+	 */
+	public void addBoardChangeListener(IBoardChangeListener listener)
+	{
+		mListeners.addIfAbsent(listener);
+	}
+
+	/**
+	 * Remove a listener to the changes on the board.
+	 * 
+	 * @param listener
+	 *            - Listener to remove.
+	 * @return true if the listener was removed.
+	 */
+	public boolean removeBoardChangeListener(IBoardChangeListener listener)
+	{
+		return mListeners.remove(listener);
+	}
+
+	/**
+	 * Record a change for the listeners.
+	 * 
+	 * @param kind
+	 *            - Kind of the change.
+	 * @param cell
+	 *            - Cell of the change (row * columns + column).
+	 */
+	private void addChange(EBoardChange kind, int cell)
+	{
+		// Nothing to record when nobody listens.
+		if (!mListeners.isEmpty())
+		{
+			mChanges.add(kind, cell, mStage.getBoard().getColumnNum());
+		}
+	}
+
+	/**
+	 * Record a change for the listeners.
+	 * 
+	 * @param kind
+	 *            - Kind of the change.
+	 * @param point
+	 *            - Point of the change.
+	 */
+	private void addChange(EBoardChange kind, Point point)
+	{
+		if (!mListeners.isEmpty())
+		{
+			mChanges.add(kind, toCell(point), mStage.getBoard().getColumnNum());
+		}
+	}
+
+	/**
+	 * Hand the recorded changes to the listeners.
+	 */
+	private void fireChanges()
+	{
+		if (mChanges.getSize() == 0)
+		{
+			return;
+		}
+
+		try
+		{
+			for (IBoardChangeListener listener : mListeners)
+			{
+				listener.onBoardChanged(mChanges);
+			}
+		} finally
+		{
+			mChanges.clear();
+		}
 	}
 }
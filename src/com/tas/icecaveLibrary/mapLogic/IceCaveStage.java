@@ -1,22 +1,35 @@
 package com.tas.icecaveLibrary.mapLogic;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 import com.tas.icecaveLibrary.general.EDifficulty;
 import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.general.GeneralServiceProvider;
 import com.tas.icecaveLibrary.mapLogic.collision.ICollisionable;
-import com.tas.icecaveLibrary.mapLogic.tiles.EmptyTile;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
 import com.tas.icecaveLibrary.mapLogic.tiles.ITile;
 import com.tas.icecaveLibrary.utils.Point;
+import com.tas.icecaveLibrary.utils.random.IRandomServices;
+import com.tas.icecaveLibrary.utils.random.ISplittableRandomServices;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
 
 /**
  * Class representing a stage in the game.
  * @author Tom
  *
  */
-@SuppressWarnings("serial")
 public class IceCaveStage implements Serializable
 {
+	/**
+	 * Version of the serialized stage, kept from 1.0 so saved games still load.
+	 */
+	private static final long serialVersionUID = 5984889814843408865L;
+
 	/**
 	 * The tiles of the current stage board.
 	 */
@@ -26,14 +39,80 @@ public class IceCaveStage implements Serializable
 	 * The tiles of the current stage board.
 	 */
 	private IceCaveBoard mTempBoard;
+
+	/**
+	 * Context of the session the stage is played in.
+	 */
+	private transient MapLogicContext mContext;
+
+	/**
+	 * Indicates whether or not the boards of the stage keep no tile objects.
+	 */
+	private boolean mFlyweightTiles;
+
+	/**
+	 * Create a new instance of the IceCaveStage object.
+	 * 
+	 * @param context - Context of the session the stage is played in.
+	 */
+	public IceCaveStage(MapLogicContext context)
+	{
+		mContext = context;
+	}
+
+	/**
+	 * Create a new instance of the IceCaveStage object, in the context of the registered services.
+	 * @deprecated Use IceCaveStage(MapLogicContext).
+	 */
+	@Deprecated
+	public IceCaveStage()
+	{
+		this(createDefaultContext());
+	}
+
+	/**
+	 * Set the context of the session the stage is played in.
+	 * @param context - Context of the session the stage is played in.
+	 */
+	void setContext(MapLogicContext context)
+	{
+		mContext = context;
+	}
+
+	/**
+	 * Read the stage, in the context of the registered services until its game sets one.
+	 * @param in - Stream to read the stage from.
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+
+		mContext = createDefaultContext();
+	}
+
+	/**
+	 * Create a context of the services registered on the service provider, with a new random seed.
+	 * @return The context.
+	 */
+	@SuppressWarnings("deprecation")
+	private static MapLogicContext createDefaultContext()
+	{
+		MapLogicServiceProvider provider = MapLogicServiceProvider.getInstance();
+
+		return new MapLogicContext(provider.getCollisionManager(),
+				provider.getTileValidatorFactory(),
+				new SplittableRandomServiceProvider(GeneralServiceProvider.getInstance().getRandom().nextLong()));
+	}
 	
 	/**
 	 * Reset the stage.
 	 * @throws CloneNotSupportedException 
 	 */
 	public void reset() throws CloneNotSupportedException{
+		// The kept board is never changed, a copy of it is enough.
 		mBoard = (IceCaveBoard) mTempBoard.clone();
-		mTempBoard = (IceCaveBoard) mBoard.clone();
 	}
 	
 	/**
@@ -63,13 +142,34 @@ public class IceCaveStage implements Serializable
 				(ICollisionable)mBoard.getTile(nextPoint);
 		
 		// Call the tile that the player will meet.
-		MapLogicServiceProvider.getInstance().
-								getCollisionManager().
-								handleCollision(collisionable);
+		mContext.getCollisionManager().handleCollision(collisionable);
 		
 		return nextPoint;
 	}
 	
+	/**
+	 * Move the player in a direction, up to the tile that stops the player,
+	 * and call that tile.
+	 * @param playerLocation - Current player location.
+	 * @param direction - Direction to move the player in.
+	 */
+	public void movePlayer(Point playerLocation, EDirection direction)
+	{
+		int columnsNum = mBoard.getColumnNum();
+		int start = playerLocation.y * columnsNum + playerLocation.x;
+		int stop = mBoard.getSlideStop(start, direction);
+
+		// The flag stops the player on it, other tiles stop the player before them.
+		// A player blocked on the flag meets the blocking tile, not the flag again.
+		int collisionCell = (stop != start && mBoard.getTileType(stop) == ETileType.FLAG) ?
+				stop : mBoard.getNextCell(stop, direction);
+
+		// Call the tile that the player will meet.
+		mContext.getCollisionManager().handleCollision(mBoard.getTileType(collisionCell).getCode(),
+				collisionCell % columnsNum,
+				collisionCell / columnsNum);
+	}
+
 	/**
 	 * Get the number of minimal moves for this stage.
 	 * @return Minimal number of moves.
@@ -96,7 +196,8 @@ public class IceCaveStage implements Serializable
 	{
 		// Initialize members.
 		mBoard = (IceCaveBoard) board.clone();
-		mTempBoard = (IceCaveBoard) board.clone();
+		mBoard.setFlyweightTiles(mFlyweightTiles);
+		mTempBoard = (IceCaveBoard) mBoard.clone();
 	}
 	
 	/**
@@ -126,7 +227,106 @@ public class IceCaveStage implements Serializable
 								 startingMove,
 								 boulderNum,
 								 wallWidth,
-								 difficulty);
+								 difficulty,
+								 EGenerationMode.DISTANCE_FIELD,
+								 mContext);
+		mBoard.setFlyweightTiles(mFlyweightTiles);
+		mTempBoard = (IceCaveBoard) mBoard.clone();
+	}
+
+	/**
+	 * Generating a possible to beat map in the background, leaving the stage as it is.
+	 * The board is given to buildBoard(IceCaveBoard) once ready, by the thread playing the stage.
+	 *
+	 * @param executor - Executor to generate the board on.
+	 * @param difficulty - Difficulty for the stage.
+	 * @param rowsNumber - Number of rows in board.
+	 * @param colsNumber - Number of columns in board.
+	 * @param wallWidth - Width of the wall in tiles.
+	 * @param playerLoc - Starting location for the player.
+	 * @param boulderNum - Number of boulders in the board.
+	 * @param startingMove - First move of the player to do (while building the board).
+	 * @param listener - Listener to call once the board is ready, null for none.
+	 * @return Future of the generated board, owned by the caller.
+	 */
+	public StageFuture buildBoardAsync(Executor 	   executor,
+									   final EDifficulty difficulty,
+									   final int 	   rowsNumber,
+									   final int 	   colsNumber,
+									   final int 	   wallWidth,
+									   Point 		   playerLoc,
+									   final int 	   boulderNum,
+									   final EDirection  startingMove,
+									   IStageReadyListener listener)
+	{
+		// The generating thread gets its own random, split on the calling thread.
+		IRandomServices random = mContext.getRandom();
+		IRandomServices taskRandom = (random instanceof ISplittableRandomServices) ?
+				((ISplittableRandomServices) random).split() :
+				new SplittableRandomServiceProvider(random.getRandomLong());
+		final MapLogicContext context = new MapLogicContext(mContext.getCollisionManager(),
+				mContext.getTileValidatorFactory(),
+				taskRandom,
+				mContext.getGenerationMetricsSink());
+		final Point start = new Point(playerLoc);
+
+		StageFuture future = new StageFuture(new Callable<IceCaveBoard>()
+		{
+			@Override
+			public IceCaveBoard call()
+			{
+				return new IceCaveBoard(rowsNumber,
+										colsNumber,
+										start,
+										startingMove,
+										boulderNum,
+										wallWidth,
+										difficulty,
+										EGenerationMode.DISTANCE_FIELD,
+										context);
+			}
+		}, listener);
+
+		executor.execute(future);
+
+		return future;
+	}
+
+	/**
+	 * Generating a possible to beat map, racing several generators.
+	 *
+	 * @param generator - Generator to race the generators with.
+	 * @param difficulty - Difficulty for the stage.
+	 * @param rowsNumber - Number of rows in board.
+	 * @param colsNumber - Number of columns in board.
+	 * @param wallWidth - Width of the wall in tiles.
+	 * @param playerLoc - Starting location for the player.
+	 * @param boulderNum - Number of boulders in the board.
+	 * @param startingMove - First move of the player to do (while building the board).
+	 * @throws CloneNotSupportedException
+	 * @throws InterruptedException If interrupted while generating.
+	 * @throws ExecutionException If all the generators failed.
+	 */
+	public void buildBoard(ParallelBoardGenerator generator,
+						   EDifficulty difficulty,
+						   int 		   rowsNumber,
+						   int 		   colsNumber,
+						   int 		   wallWidth,
+						   Point 	   playerLoc,
+						   int 	       boulderNum,
+						   EDirection  startingMove) throws CloneNotSupportedException,
+						   									InterruptedException,
+						   									ExecutionException
+	{
+		mBoard =
+				generator.generate(rowsNumber,
+								   colsNumber,
+								   playerLoc,
+								   startingMove,
+								   boulderNum,
+								   wallWidth,
+								   difficulty);
+		mBoard.setFlyweightTiles(mFlyweightTiles);
 		mTempBoard = (IceCaveBoard) mBoard.clone();
 	}
 
@@ -182,6 +382,16 @@ public class IceCaveStage implements Serializable
 		return (ITile) mBoard.getTile(location);
 	}
 
+	/**
+	 * Place a tile on the board, at its location.
+	 * @param tile - Tile to place.
+	 * @return true if successful.
+	 */
+	public boolean placeTile(ITile tile)
+	{
+		return mBoard.setTile(tile.getLocation(), tile);
+	}
+
 	/**
 	 * Remove the tile in the location, 
 	 * replacing it with an empty tile.
@@ -190,7 +400,30 @@ public class IceCaveStage implements Serializable
 	 */
 	public boolean removeTile(Point location)
 	{
-		return mBoard.setTile(location, new EmptyTile(location));
+		if (mBoard.getTileType(location.y, location.x) == null)
+		{
+			return false;
+		}
+
+		// Only the tile code changes, no empty tile is created.
+		mBoard.setTileType(location.y, location.x, ETileType.EMPTY);
+
+		return true;
+	}
+
+	/**
+	 * Set whether or not the boards of the stage keep no tile objects.
+	 * @param flyweightTiles - true to keep only the tile codes of the boards.
+	 */
+	public void setFlyweightTiles(boolean flyweightTiles)
+	{
+		mFlyweightTiles = flyweightTiles;
+
+		if (mBoard != null)
+		{
+			mBoard.setFlyweightTiles(flyweightTiles);
+			mTempBoard.setFlyweightTiles(flyweightTiles);
+		}
 	}
 
 
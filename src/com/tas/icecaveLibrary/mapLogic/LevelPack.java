@@ -0,0 +1,224 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A pack of stage boards in one file.
+ * The file holds a header, an index of the offset of each board,
+ * and the boards encoded by IceCaveBoardCodec.
+ * The file is memory mapped once, and a board is decoded only when its stage is first requested.
+ * The decoded board is kept, and the boards handed out share its tiles.
+ * A pack never changes, so one pack can be shared by all the game sessions.
+ *
+ */
+public final class LevelPack
+{
+	/**
+	 * Marks the start of a pack file, "ICEP".
+	 */
+	public static final int MAGIC = 0x49434550;
+
+	/**
+	 * Version of the format written.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Size of the header in bytes, the index starts right after it.
+	 */
+	private static final int HEADER_SIZE = 12;
+
+	/**
+	 * The content of the pack, never moved.
+	 */
+	private final ByteBuffer mBuffer;
+
+	/**
+	 * Number of stages in the pack.
+	 */
+	private final int mStagesNum;
+
+	/**
+	 * The decoded board of each stage, null until first requested.
+	 */
+	private final AtomicReferenceArray<IceCaveBoard> mStages;
+
+	/**
+	 * Create a new instance of the LevelPack object.
+	 *
+	 * @param buffer - The content of the pack.
+	 * @throws IOException If the buffer does not hold a pack.
+	 */
+	private LevelPack(ByteBuffer buffer) throws IOException
+	{
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+		{
+			throw new StreamCorruptedException("Not a level pack");
+		}
+
+		if (buffer.getInt(4) != VERSION)
+		{
+			throw new StreamCorruptedException("Unsupported level pack version " + buffer.getInt(4));
+		}
+
+		mStagesNum = buffer.getInt(8);
+
+		if (mStagesNum < 0 || HEADER_SIZE + 4L * mStagesNum > buffer.limit())
+		{
+			throw new StreamCorruptedException("Level pack index is cut");
+		}
+
+		mBuffer = buffer;
+		mStages = new AtomicReferenceArray<IceCaveBoard>(mStagesNum);
+	}
+
+	/**
+	 * Open a pack file, mapping it to memory.
+	 *
+	 * @param packFile - The pack file.
+	 * @return The pack.
+	 * @throws IOException If the file could not be mapped, or it is not a pack.
+	 */
+	public static LevelPack open(File packFile) throws IOException
+	{
+		RandomAccessFile file = new RandomAccessFile(packFile, "r");
+
+		try
+		{
+			// The mapping stays valid after the file is closed.
+			FileChannel channel = file.getChannel();
+
+			return new LevelPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally
+		{
+			file.close();
+		}
+	}
+
+	/**
+	 * Wrap the content of a pack already in memory.
+	 *
+	 * @param buffer - The content of the pack, from position zero.
+	 * @return The pack.
+	 * @throws IOException If the buffer does not hold a pack.
+	 */
+	public static LevelPack wrap(ByteBuffer buffer) throws IOException
+	{
+		return new LevelPack(buffer.duplicate());
+	}
+
+	/**
+	 * Write a pack file.
+	 *
+	 * @param packFile - File to write the pack to.
+	 * @param boards - The boards of the stages, in order.
+	 * @throws IOException If writing failed, or a board does not fit the format.
+	 */
+	public static void write(File packFile, List<IceCaveBoard> boards) throws IOException
+	{
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(packFile)));
+
+		try
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(boards.size());
+
+			// Write the index, boards are placed one after the other.
+			long offset = HEADER_SIZE + 4L * boards.size();
+			for (IceCaveBoard board : boards)
+			{
+				if (offset > Integer.MAX_VALUE)
+				{
+					throw new IOException("Level pack is too large");
+				}
+
+				out.writeInt((int) offset);
+				offset += IceCaveBoardCodec.getEncodedSize(board);
+			}
+
+			for (IceCaveBoard board : boards)
+			{
+				IceCaveBoardCodec.write(board, out);
+			}
+		} finally
+		{
+			out.close();
+		}
+	}
+
+	/**
+	 * Get the number of stages in the pack.
+	 *
+	 * @return Number of stages.
+	 */
+	public int getStagesNum()
+	{
+		return mStagesNum;
+	}
+
+	/**
+	 * Get the board of a stage, decoding only the board of that stage.
+	 * Safe to call from several threads at once.
+	 *
+	 * @param index - Index of the stage.
+	 * @return A new board of the stage, sharing its tiles with the other boards of the stage.
+	 * @throws IOException If the board of the stage is corrupted.
+	 */
+	public IceCaveBoard getStage(int index) throws IOException
+	{
+		if (index < 0 || index >= mStagesNum)
+		{
+			throw new IndexOutOfBoundsException("Stage " + index + " of " + mStagesNum);
+		}
+
+		IceCaveBoard stage = mStages.get(index);
+
+		if (stage == null)
+		{
+			stage = decodeStage(index);
+			stage.share();
+
+			// Another thread may have decoded the stage first.
+			if (!mStages.compareAndSet(index, null, stage))
+			{
+				stage = mStages.get(index);
+			}
+		}
+
+		return new IceCaveBoard(stage);
+	}
+
+	/**
+	 * Decode the board of a stage.
+	 *
+	 * @param index - Index of the stage.
+	 * @return The board of the stage.
+	 * @throws IOException If the board of the stage is corrupted.
+	 */
+	private IceCaveBoard decodeStage(int index) throws IOException
+	{
+		int offset = mBuffer.getInt(HEADER_SIZE + 4 * index);
+
+		if (offset < 0 || offset > mBuffer.limit())
+		{
+			throw new StreamCorruptedException("Bad offset of stage " + index);
+		}
+
+		// Each read gets its own position on the shared content.
+		ByteBuffer stageBuffer = mBuffer.duplicate();
+		stageBuffer.position(offset);
+
+		return IceCaveBoardCodec.read(stageBuffer);
+	}
+}
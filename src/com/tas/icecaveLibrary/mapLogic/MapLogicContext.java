@@ -0,0 +1,106 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import com.tas.icecaveLibrary.mapLogic.collision.CollisionManager;
+import com.tas.icecaveLibrary.mapLogic.tiles.validators.TileValidatorFactory;
+import com.tas.icecaveLibrary.utils.random.IRandomServices;
+
+/**
+ * The services of one game session.
+ * Each game has its own context, so several games can run side by side without sharing state.
+ *
+ */
+public class MapLogicContext
+{
+	/**
+	 * Collision manager to handle the collisions of the session.
+	 */
+	private final CollisionManager mCollisionManager;
+
+	/**
+	 * Tile validator factory for generating boards.
+	 */
+	private final TileValidatorFactory mTileValidatorFactory;
+
+	/**
+	 * Random values for generating boards.
+	 */
+	private final IRandomServices mRandom;
+
+	/**
+	 * Sink for the statistics of generating boards, null to keep no statistics.
+	 */
+	private final IGenerationMetricsSink mGenerationMetricsSink;
+
+	/**
+	 * Create a new instance of the MapLogicContext object.
+	 *
+	 * @param collisionManager - Collision manager to handle the collisions of the session.
+	 * @param tileValidatorFactory - Tile validator factory for generating boards.
+	 * @param random - Random values for generating boards, used by one thread at a time.
+	 */
+	public MapLogicContext(CollisionManager collisionManager,
+			TileValidatorFactory tileValidatorFactory,
+			IRandomServices random)
+	{
+		this(collisionManager, tileValidatorFactory, random, null);
+	}
+
+	/**
+	 * Create a new instance of the MapLogicContext object.
+	 *
+	 * @param collisionManager - Collision manager to handle the collisions of the session.
+	 * @param tileValidatorFactory - Tile validator factory for generating boards.
+	 * @param random - Random values for generating boards, used by one thread at a time.
+	 * @param generationMetricsSink - Sink for the statistics of generating boards, null to keep no statistics.
+	 */
+	public MapLogicContext(CollisionManager collisionManager,
+			TileValidatorFactory tileValidatorFactory,
+			IRandomServices random,
+			IGenerationMetricsSink generationMetricsSink)
+	{
+		mCollisionManager = collisionManager;
+		mTileValidatorFactory = tileValidatorFactory;
+		mRandom = random;
+		mGenerationMetricsSink = generationMetricsSink;
+	}
+
+	/**
+	 * Get the collision manager.
+	 *
+	 * @return Collision manager of the session.
+	 */
+	public CollisionManager getCollisionManager()
+	{
+		return mCollisionManager;
+	}
+
+	/**
+	 * Get the tile validator factory.
+	 *
+	 * @return Tile validator factory.
+	 */
+	public TileValidatorFactory getTileValidatorFactory()
+	{
+		return mTileValidatorFactory;
+	}
+
+	/**
+	 * Get the random values for generating boards.
+	 *
+	 * @return Random values.
+	 */
+	public IRandomServices getRandom()
+	{
+		return mRandom;
+	}
+
+	/**
+	 * Get the sink for the statistics of generating boards.
+	 *
+	 * @return The sink, null if no statistics are kept.
+	 */
+	public IGenerationMetricsSink getGenerationMetricsSink()
+	{
+		return mGenerationMetricsSink;
+	}
+}
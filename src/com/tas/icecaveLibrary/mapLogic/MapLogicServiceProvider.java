@@ -19,7 +19,9 @@ public class MapLogicServiceProvider
 	/**
 	 * Registers a collision manager to the service provider.
 	 * @param collisionManager - Collision manager to register.
+	 * @deprecated Games take their collision manager from their MapLogicContext.
 	 */
+	@Deprecated
 	public void registerCollisionManager(CollisionManager collisionManager)
 	{
 			mCollisionManager = collisionManager;
@@ -37,7 +39,9 @@ public class MapLogicServiceProvider
 	/**
 	 * Get the collision manager.
 	 * @return Active collision manager.
+	 * @deprecated Games take their collision manager from their MapLogicContext.
 	 */
+	@Deprecated
 	public CollisionManager getCollisionManager()
 	{
 		return mCollisionManager;
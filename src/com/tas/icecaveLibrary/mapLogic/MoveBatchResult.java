@@ -0,0 +1,162 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import com.tas.icecaveLibrary.utils.Point;
+
+/**
+ * Status of a game after a batch of moves.
+ * The cells changed by the batch are kept as cell indexes (row * columns + column),
+ * and turned to points only when requested.
+ *
+ */
+public final class MoveBatchResult implements IIceCaveGameStatus
+{
+	/**
+	 * Marks a batch that did not end the stage.
+	 */
+	public static final int NOT_ENDED = -1;
+
+	/**
+	 * The player point after the batch.
+	 */
+	private final Point mPlayerPoint;
+
+	/**
+	 * Number of moves applied, the moves after the end of the stage are not applied.
+	 */
+	private final int mAppliedNum;
+
+	/**
+	 * Number of moves counted by the stage.
+	 */
+	private final int mCountedNum;
+
+	/**
+	 * Index of the move that ended the stage, NOT_ENDED if none.
+	 */
+	private final int mStageEndedIndex;
+
+	/**
+	 * Indicates whether or not the stage has ended.
+	 */
+	private final boolean mIsStageEnded;
+
+	/**
+	 * Cells changed by the batch, in the order they changed.
+	 */
+	private final int[] mChangedCells;
+
+	/**
+	 * Number of columns on the board, for turning cells to points.
+	 */
+	private final int mColumnsNum;
+
+	/**
+	 * Create a new instance of the MoveBatchResult object.
+	 *
+	 * @param playerPoint - The player point after the batch.
+	 * @param appliedNum - Number of moves applied.
+	 * @param countedNum - Number of moves counted by the stage.
+	 * @param stageEndedIndex - Index of the move that ended the stage, NOT_ENDED if none.
+	 * @param isStageEnded - Indicates whether or not the stage has ended.
+	 * @param changedCells - Cells changed by the batch, kept by the result.
+	 * @param columnsNum - Number of columns on the board.
+	 */
+	MoveBatchResult(Point playerPoint,
+			int appliedNum,
+			int countedNum,
+			int stageEndedIndex,
+			boolean isStageEnded,
+			int[] changedCells,
+			int columnsNum)
+	{
+		mPlayerPoint = playerPoint;
+		mAppliedNum = appliedNum;
+		mCountedNum = countedNum;
+		mStageEndedIndex = stageEndedIndex;
+		mIsStageEnded = isStageEnded;
+		mChangedCells = changedCells;
+		mColumnsNum = columnsNum;
+	}
+
+	@Override
+	public Point getPlayerPoint()
+	{
+		return mPlayerPoint;
+	}
+
+	@Override
+	public boolean getIsStageEnded()
+	{
+		return mIsStageEnded;
+	}
+
+	/**
+	 * Get the points changed by the batch.
+	 *
+	 * @return Array of points.
+	 */
+	@Override
+	public Point[] getPointToUpdate()
+	{
+		Point[] points = new Point[mChangedCells.length];
+
+		for (int i = 0; i < points.length; i++)
+		{
+			points[i] = new Point(mChangedCells[i] % mColumnsNum, mChangedCells[i] / mColumnsNum);
+		}
+
+		return points;
+	}
+
+	/**
+	 * Get the number of moves applied.
+	 * The moves after the end of the stage are not applied.
+	 *
+	 * @return Number of moves applied.
+	 */
+	public int getAppliedNum()
+	{
+		return mAppliedNum;
+	}
+
+	/**
+	 * Get the number of moves counted by the stage.
+	 * Moves that did not move the player, and repeated directions, are not counted.
+	 *
+	 * @return Number of moves counted.
+	 */
+	public int getCountedNum()
+	{
+		return mCountedNum;
+	}
+
+	/**
+	 * Get the index of the move that ended the stage.
+	 *
+	 * @return Index of the move in the batch, NOT_ENDED if the batch did not end the stage.
+	 */
+	public int getStageEndedIndex()
+	{
+		return mStageEndedIndex;
+	}
+
+	/**
+	 * Get the cells changed by the batch.
+	 *
+	 * @return Cells (row * columns + column) in the order they changed, owned by the result.
+	 */
+	public int[] getChangedCells()
+	{
+		return mChangedCells;
+	}
+
+	/**
+	 * Get the number of columns on the board the cells are on.
+	 *
+	 * @return Number of columns.
+	 */
+	public int getColumnsNum()
+	{
+		return mColumnsNum;
+	}
+}
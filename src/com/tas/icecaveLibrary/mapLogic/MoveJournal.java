@@ -0,0 +1,323 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+/**
+ * Journal of the moves of a stage, for undoing and redoing them.
+ * Each move is a record in parallel arrays, so recording a move allocates nothing
+ * once the arrays have grown to the length of the stage.
+ * A journal with a max depth keeps the last moves only, the arrays are then a ring
+ * and recording a move past the depth drops the oldest one.
+ *
+ */
+class MoveJournal
+{
+	/**
+	 * Marks a record without a broken boulder, or without a last direction.
+	 */
+	static final int NONE = -1;
+
+	/**
+	 * Flag of a move that increased the overall moves.
+	 */
+	static final int OVERALL_MOVE = 1;
+
+	/**
+	 * Flag of a move that ended the stage.
+	 */
+	static final int STAGE_ENDED = 1 << 1;
+
+	/**
+	 * Max depth of a journal that keeps every move.
+	 */
+	static final int UNLIMITED = 0;
+
+	/**
+	 * Initial number of records.
+	 */
+	private static final int INITIAL_CAPACITY = 32;
+
+	/**
+	 * Max number of records kept.
+	 */
+	private final int mMaxDepth;
+
+	/**
+	 * Cell the player moved from.
+	 */
+	private int[] mFromCells;
+
+	/**
+	 * Cell the player moved to.
+	 */
+	private int[] mToCells;
+
+	/**
+	 * Cell of the boulder the move broke, NONE if none.
+	 */
+	private int[] mBrokenCells;
+
+	/**
+	 * Direction ordinal of the move.
+	 */
+	private byte[] mDirections;
+
+	/**
+	 * Direction ordinal of the last move before the move, NONE if none.
+	 */
+	private byte[] mLastDirections;
+
+	/**
+	 * Flags of the move.
+	 */
+	private byte[] mFlags;
+
+	/**
+	 * Slot of the oldest record in the arrays.
+	 */
+	private int mStart;
+
+	/**
+	 * Number of records, including the undone ones.
+	 */
+	private int mSize;
+
+	/**
+	 * Number of records not undone, the next record to undo is before it.
+	 */
+	private int mCursor;
+
+	/**
+	 * Create a new instance of the MoveJournal object, keeping every move.
+	 */
+	MoveJournal()
+	{
+		this(UNLIMITED);
+	}
+
+	/**
+	 * Create a new instance of the MoveJournal object.
+	 * @param maxDepth - Max number of moves to keep, UNLIMITED to keep every move.
+	 * @throws IllegalArgumentException If the max depth is negative.
+	 */
+	MoveJournal(int maxDepth)
+	{
+		if (maxDepth < 0)
+		{
+			throw new IllegalArgumentException("Negative journal depth " + maxDepth);
+		}
+
+		mMaxDepth = (maxDepth == UNLIMITED) ? Integer.MAX_VALUE : maxDepth;
+
+		int capacity = Math.min(INITIAL_CAPACITY, mMaxDepth);
+		mFromCells = new int[capacity];
+		mToCells = new int[capacity];
+		mBrokenCells = new int[capacity];
+		mDirections = new byte[capacity];
+		mLastDirections = new byte[capacity];
+		mFlags = new byte[capacity];
+	}
+
+	/**
+	 * Record a move, dropping the undone moves, and the oldest move if the journal is full.
+	 * @param fromCell - Cell the player moved from.
+	 * @param toCell - Cell the player moved to.
+	 * @param brokenCell - Cell of the boulder the move broke, NONE if none.
+	 * @param direction - Direction ordinal of the move.
+	 * @param lastDirection - Direction ordinal of the last move before the move, NONE if none.
+	 * @param flags - Flags of the move.
+	 */
+	void record(int fromCell, int toCell, int brokenCell, int direction, int lastDirection, int flags)
+	{
+		if (mCursor == mMaxDepth)
+		{
+			// The oldest move can no longer be undone.
+			mStart = getSlot(1);
+			mCursor--;
+		}
+
+		ensureCapacity(mCursor + 1);
+
+		int slot = getSlot(mCursor);
+		mFromCells[slot] = fromCell;
+		mToCells[slot] = toCell;
+		mBrokenCells[slot] = brokenCell;
+		mDirections[slot] = (byte) direction;
+		mLastDirections[slot] = (byte) lastDirection;
+		mFlags[slot] = (byte) flags;
+
+		mCursor++;
+		mSize = mCursor;
+	}
+
+	/**
+	 * Clear the journal.
+	 */
+	void clear()
+	{
+		mStart = 0;
+		mSize = 0;
+		mCursor = 0;
+	}
+
+	/**
+	 * Check whether or not there is a move to undo.
+	 * @return true if there is a move to undo.
+	 */
+	boolean canUndo()
+	{
+		return mCursor > 0;
+	}
+
+	/**
+	 * Check whether or not there is a move to redo.
+	 * @return true if there is a move to redo.
+	 */
+	boolean canRedo()
+	{
+		return mCursor < mSize;
+	}
+
+	/**
+	 * Step back over the last move.
+	 * @return Slot of the record to undo.
+	 */
+	int undo()
+	{
+		return getSlot(--mCursor);
+	}
+
+	/**
+	 * Step forward over the next undone move.
+	 * @return Slot of the record to redo.
+	 */
+	int redo()
+	{
+		return getSlot(mCursor++);
+	}
+
+	/**
+	 * Get the cell the player moved from.
+	 * @param record - Slot of the record.
+	 * @return The cell.
+	 */
+	int getFromCell(int record)
+	{
+		return mFromCells[record];
+	}
+
+	/**
+	 * Get the cell the player moved to.
+	 * @param record - Slot of the record.
+	 * @return The cell.
+	 */
+	int getToCell(int record)
+	{
+		return mToCells[record];
+	}
+
+	/**
+	 * Get the cell of the boulder the move broke.
+	 * @param record - Slot of the record.
+	 * @return The cell, NONE if none.
+	 */
+	int getBrokenCell(int record)
+	{
+		return mBrokenCells[record];
+	}
+
+	/**
+	 * Get the direction ordinal of the move.
+	 * @param record - Slot of the record.
+	 * @return The direction ordinal.
+	 */
+	int getDirection(int record)
+	{
+		return mDirections[record];
+	}
+
+	/**
+	 * Get the direction ordinal of the last move before the move.
+	 * @param record - Slot of the record.
+	 * @return The direction ordinal, NONE if none.
+	 */
+	int getLastDirection(int record)
+	{
+		return mLastDirections[record];
+	}
+
+	/**
+	 * Get the flags of the move.
+	 * @param record - Slot of the record.
+	 * @return The flags.
+	 */
+	int getFlags(int record)
+	{
+		return mFlags[record];
+	}
+
+	/**
+	 * Get the slot of a record in the arrays.
+	 * @param record - Index of the record, from the oldest one.
+	 * @return The slot.
+	 */
+	private int getSlot(int record)
+	{
+		int slot = mStart + record;
+
+		return (slot < mFromCells.length) ? slot : slot - mFromCells.length;
+	}
+
+	/**
+	 * Make sure the journal can hold a number of records.
+	 * @param capacity - Number of records to hold, at most the max depth.
+	 */
+	private void ensureCapacity(int capacity)
+	{
+		if (capacity <= mFromCells.length)
+		{
+			return;
+		}
+
+		int newCapacity = (int) Math.min(Math.max(capacity, mFromCells.length * 2L), mMaxDepth);
+
+		// The arrays are full, the oldest record moves to the first slot.
+		mFromCells = grow(mFromCells, mStart, newCapacity);
+		mToCells = grow(mToCells, mStart, newCapacity);
+		mBrokenCells = grow(mBrokenCells, mStart, newCapacity);
+		mDirections = grow(mDirections, mStart, newCapacity);
+		mLastDirections = grow(mLastDirections, mStart, newCapacity);
+		mFlags = grow(mFlags, mStart, newCapacity);
+		mStart = 0;
+	}
+
+	/**
+	 * Copy a full ring to a larger array, from its oldest record on.
+	 * @param array - Array to copy.
+	 * @param start - Slot of the oldest record.
+	 * @param capacity - Length of the new array.
+	 * @return The new array.
+	 */
+	private static int[] grow(int[] array, int start, int capacity)
+	{
+		int[] grown = new int[capacity];
+		System.arraycopy(array, start, grown, 0, array.length - start);
+		System.arraycopy(array, 0, grown, array.length - start, start);
+
+		return grown;
+	}
+
+	/**
+	 * Copy a full ring to a larger array, from its oldest record on.
+	 * @param array - Array to copy.
+	 * @param start - Slot of the oldest record.
+	 * @param capacity - Length of the new array.
+	 * @return The new array.
+	 */
+	private static byte[] grow(byte[] array, int start, int capacity)
+	{
+		byte[] grown = new byte[capacity];
+		System.arraycopy(array, start, grown, 0, array.length - start);
+		System.arraycopy(array, 0, grown, array.length - start, start);
+
+		return grown;
+	}
+}
@@ -0,0 +1,171 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.general.GeneralServiceProvider;
+import com.tas.icecaveLibrary.utils.Point;
+import com.tas.icecaveLibrary.utils.random.IRandomServices;
+import com.tas.icecaveLibrary.utils.random.ISplittableRandomServices;
+import com.tas.icecaveLibrary.utils.random.SplittableRandomServiceProvider;
+
+/**
+ * Generates boards by racing several independent generators on an executor.
+ * The first valid board wins, and the other generators are cancelled.
+ * The board of each generator depends only on the seed and on the order the generator was started in,
+ * but which generator wins depends on timing, unless the executor runs a single thread.
+ *
+ */
+public class ParallelBoardGenerator
+{
+	/**
+	 * Executor to run the generators on.
+	 */
+	private ExecutorService mExecutor;
+
+	/**
+	 * Number of generators to race.
+	 */
+	private int mWorkersNum;
+
+	/**
+	 * The way to generate the boards.
+	 */
+	private EGenerationMode mGenerationMode;
+
+	/**
+	 * Random services to split the random services of the generators from.
+	 */
+	private ISplittableRandomServices mRandom;
+
+	/**
+	 * Create a new instance of the ParallelBoardGenerator object.
+	 *
+	 * @param executor - Executor to run the generators on.
+	 * @param workersNum - Number of generators to race.
+	 */
+	public ParallelBoardGenerator(ExecutorService executor, int workersNum)
+	{
+		this(executor, workersNum, EGenerationMode.DISTANCE_FIELD,
+				new SplittableRandomServiceProvider(GeneralServiceProvider.getInstance().getRandom().nextLong()));
+	}
+
+	/**
+	 * Create a new instance of the ParallelBoardGenerator object.
+	 *
+	 * @param executor - Executor to run the generators on.
+	 * @param workersNum - Number of generators to race.
+	 * @param generationMode - The way to generate the boards.
+	 * @param random - Random services to split the random services of the generators from.
+	 */
+	public ParallelBoardGenerator(ExecutorService executor,
+			int workersNum,
+			EGenerationMode generationMode,
+			ISplittableRandomServices random)
+	{
+		if (workersNum < 1)
+		{
+			throw new IllegalArgumentException("workersNum must be positive");
+		}
+
+		mExecutor = executor;
+		mWorkersNum = workersNum;
+		mGenerationMode = generationMode;
+		mRandom = random;
+	}
+
+	/**
+	 * Generate a board.
+	 *
+	 * @param rows - Number of rows on the board.
+	 * @param columns - Number of columns on the board.
+	 * @param startPoint - The starting location of the player.
+	 * @param startingMove - The starting move of the player.
+	 * @param boulderNum - Number of boulders on the board.
+	 * @param wallWidth - The width of the wall on the board.
+	 * @param difficulty - The difficulty the board should fill.
+	 * @return The first board generated.
+	 * @throws InterruptedException If interrupted while waiting for the generators.
+	 * @throws ExecutionException If all the generators failed.
+	 */
+	public IceCaveBoard generate(final int rows,
+			final int columns,
+			final Point startPoint,
+			final EDirection startingMove,
+			final int boulderNum,
+			final int wallWidth,
+			final EDifficulty difficulty) throws InterruptedException, ExecutionException
+	{
+		CompletionService<IceCaveBoard> completionService =
+				new ExecutorCompletionService<IceCaveBoard>(mExecutor);
+		ArrayList<Future<IceCaveBoard>> futures = new ArrayList<Future<IceCaveBoard>>(mWorkersNum);
+
+		try
+		{
+			// Start the generators, each with its own random values.
+			for (int i = 0; i < mWorkersNum; i++)
+			{
+				final IRandomServices random = createWorkerRandom();
+
+				futures.add(completionService.submit(new Callable<IceCaveBoard>()
+				{
+					@Override
+					public IceCaveBoard call()
+					{
+						return new IceCaveBoard(rows,
+								columns,
+								startPoint,
+								startingMove,
+								boulderNum,
+								wallWidth,
+								difficulty,
+								mGenerationMode,
+								random);
+					}
+				}));
+			}
+
+			// Take the first board generated.
+			ExecutionException failure = null;
+			for (int i = 0; i < mWorkersNum; i++)
+			{
+				try
+				{
+					return completionService.take().get();
+				} catch (ExecutionException e)
+				{
+					failure = e;
+				}
+			}
+
+			throw failure;
+		} finally
+		{
+			// Cancel the generators left.
+			for (Future<IceCaveBoard> future : futures)
+			{
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Create the random values of a generator.
+	 *
+	 * @return Random values for a generator.
+	 */
+	private IRandomServices createWorkerRandom()
+	{
+		synchronized (mRandom)
+		{
+			return mRandom.split();
+		}
+	}
+}
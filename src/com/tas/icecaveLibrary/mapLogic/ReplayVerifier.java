@@ -0,0 +1,469 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
+import com.tas.icecaveLibrary.utils.Point;
+
+/**
+ * Verifies the results claimed for recorded sessions, by replaying their moves.
+ * The moves are replayed on the slide rules of the board, with no game and no collision callbacks,
+ * so replays are cheap and the claims can be split over the threads of an executor.
+ *
+ */
+public class ReplayVerifier
+{
+	/**
+	 * Directions, indexed by ordinal.
+	 */
+	private static final EDirection[] DIRECTIONS = EDirection.values();
+
+	/**
+	 * A result claimed for a recorded session.
+	 *
+	 */
+	public static final class Claim
+	{
+		/**
+		 * The stage board of the session.
+		 */
+		private final IceCaveBoard mStage;
+
+		/**
+		 * Ordinals of the directions moved.
+		 */
+		private final byte[] mMoves;
+
+		/**
+		 * The number of moves claimed.
+		 */
+		private final int mClaimedMoves;
+
+		/**
+		 * Create a new instance of the Claim object.
+		 *
+		 * @param stage - The stage board of the session, not changed by the replay.
+		 * @param moves - Ordinals of the directions moved.
+		 * @param claimedMoves - The number of moves claimed to reach the flag in.
+		 */
+		public Claim(IceCaveBoard stage, byte[] moves, int claimedMoves)
+		{
+			mStage = stage;
+			mMoves = moves;
+			mClaimedMoves = claimedMoves;
+		}
+
+		/**
+		 * Get the stage board of the session.
+		 *
+		 * @return The stage board.
+		 */
+		public IceCaveBoard getStage()
+		{
+			return mStage;
+		}
+
+		/**
+		 * Get the ordinals of the directions moved.
+		 *
+		 * @return The moves.
+		 */
+		public byte[] getMoves()
+		{
+			return mMoves;
+		}
+
+		/**
+		 * Get the number of moves claimed.
+		 *
+		 * @return The number of moves claimed.
+		 */
+		public int getClaimedMoves()
+		{
+			return mClaimedMoves;
+		}
+	}
+
+	/**
+	 * The outcome of replaying a claim.
+	 *
+	 */
+	public static final class Verdict
+	{
+		/**
+		 * Number of moves counted by the replay.
+		 */
+		private final int mCountedMoves;
+
+		/**
+		 * Minimum moves to solve the stage in.
+		 */
+		private final int mMinMoves;
+
+		/**
+		 * Index of the move that reached the flag, -1 if the flag was not reached.
+		 */
+		private final int mFlagIndex;
+
+		/**
+		 * Indicates whether or not the claim holds.
+		 */
+		private final boolean mIsValid;
+
+		/**
+		 * Create a new instance of the Verdict object.
+		 *
+		 * @param countedMoves - Number of moves counted by the replay.
+		 * @param minMoves - Minimum moves to solve the stage in.
+		 * @param flagIndex - Index of the move that reached the flag, -1 if not reached.
+		 * @param isValid - Indicates whether or not the claim holds.
+		 */
+		Verdict(int countedMoves, int minMoves, int flagIndex, boolean isValid)
+		{
+			mCountedMoves = countedMoves;
+			mMinMoves = minMoves;
+			mFlagIndex = flagIndex;
+			mIsValid = isValid;
+		}
+
+		/**
+		 * Get the number of moves counted by the replay, up to the flag.
+		 *
+		 * @return Number of moves counted.
+		 */
+		public int getCountedMoves()
+		{
+			return mCountedMoves;
+		}
+
+		/**
+		 * Get the minimum moves to solve the stage in.
+		 *
+		 * @return Minimum moves.
+		 */
+		public int getMinMoves()
+		{
+			return mMinMoves;
+		}
+
+		/**
+		 * Get indication to whether or not the replay reached the flag.
+		 *
+		 * @return true if the flag was reached.
+		 */
+		public boolean getIsFlagReached()
+		{
+			return mFlagIndex >= 0;
+		}
+
+		/**
+		 * Get the index of the move that reached the flag.
+		 *
+		 * @return Index of the move, -1 if the flag was not reached.
+		 */
+		public int getFlagIndex()
+		{
+			return mFlagIndex;
+		}
+
+		/**
+		 * Get indication to whether or not the claim holds.
+		 * A claim holds if the replay reached the flag with no moves after it,
+		 * in the claimed number of moves, and in no less than the minimum moves.
+		 *
+		 * @return true if the claim holds.
+		 */
+		public boolean isValid()
+		{
+			return mIsValid;
+		}
+	}
+
+	/**
+	 * The outcome of verifying many claims.
+	 *
+	 */
+	public static final class Report
+	{
+		/**
+		 * The verdicts, in the order of the claims.
+		 */
+		private final Verdict[] mVerdicts;
+
+		/**
+		 * Number of claims that hold.
+		 */
+		private final int mValidNum;
+
+		/**
+		 * Number of moves replayed.
+		 */
+		private final long mMovesNum;
+
+		/**
+		 * Time the verification took, in nanoseconds.
+		 */
+		private final long mElapsedNanos;
+
+		/**
+		 * Create a new instance of the Report object.
+		 *
+		 * @param verdicts - The verdicts, in the order of the claims.
+		 * @param validNum - Number of claims that hold.
+		 * @param movesNum - Number of moves replayed.
+		 * @param elapsedNanos - Time the verification took, in nanoseconds.
+		 */
+		Report(Verdict[] verdicts, int validNum, long movesNum, long elapsedNanos)
+		{
+			mVerdicts = verdicts;
+			mValidNum = validNum;
+			mMovesNum = movesNum;
+			mElapsedNanos = elapsedNanos;
+		}
+
+		/**
+		 * Get the verdicts.
+		 *
+		 * @return The verdicts, in the order of the claims.
+		 */
+		public Verdict[] getVerdicts()
+		{
+			return mVerdicts;
+		}
+
+		/**
+		 * Get the number of claims that hold.
+		 *
+		 * @return Number of valid claims.
+		 */
+		public int getValidNum()
+		{
+			return mValidNum;
+		}
+
+		/**
+		 * Get the time the verification took.
+		 *
+		 * @return Time in nanoseconds.
+		 */
+		public long getElapsedNanos()
+		{
+			return mElapsedNanos;
+		}
+
+		/**
+		 * Get the number of claims verified per second.
+		 *
+		 * @return Claims per second.
+		 */
+		public double getClaimsPerSecond()
+		{
+			return perSecond(mVerdicts.length);
+		}
+
+		/**
+		 * Get the number of moves replayed per second.
+		 *
+		 * @return Moves per second.
+		 */
+		public double getMovesPerSecond()
+		{
+			return perSecond(mMovesNum);
+		}
+
+		/**
+		 * Get the rate of a count over the verification time.
+		 *
+		 * @param count - Count to get the rate of.
+		 * @return The count per second.
+		 */
+		private double perSecond(long count)
+		{
+			return (mElapsedNanos == 0) ? 0 : count * 1e9 / mElapsedNanos;
+		}
+	}
+
+	/**
+	 * Executor to replay the claims on.
+	 */
+	private final ExecutorService mExecutor;
+
+	/**
+	 * Number of tasks to split the claims between.
+	 */
+	private final int mWorkersNum;
+
+	/**
+	 * Create a new instance of the ReplayVerifier object.
+	 *
+	 * @param executor - Executor to replay the claims on.
+	 * @param workersNum - Number of tasks to split the claims between.
+	 */
+	public ReplayVerifier(ExecutorService executor, int workersNum)
+	{
+		if (workersNum < 1)
+		{
+			throw new IllegalArgumentException("workersNum must be positive");
+		}
+
+		mExecutor = executor;
+		mWorkersNum = workersNum;
+	}
+
+	/**
+	 * Verify claims, split over the executor.
+	 *
+	 * @param claims - The claims to verify.
+	 * @return Report of the verdicts and the throughput.
+	 * @throws InterruptedException If interrupted while waiting for the replays.
+	 * @throws ExecutionException If a replay failed.
+	 */
+	public Report verifyAll(final List<Claim> claims) throws InterruptedException, ExecutionException
+	{
+		long start = System.nanoTime();
+		final Verdict[] verdicts = new Verdict[claims.size()];
+
+		// Claims of a stage share its board, make it ready to share before the tasks see it.
+		for (Claim claim : claims)
+		{
+			claim.getStage().share();
+		}
+
+		ArrayList<Future<Long>> futures = new ArrayList<Future<Long>>(mWorkersNum);
+		int chunkSize = (verdicts.length + mWorkersNum - 1) / mWorkersNum;
+
+		try
+		{
+			// Give each task its own range of claims.
+			for (int from = 0; from < verdicts.length; from += chunkSize)
+			{
+				final int first = from;
+				final int last = Math.min(from + chunkSize, verdicts.length);
+
+				futures.add(mExecutor.submit(new Callable<Long>()
+				{
+					@Override
+					public Long call()
+					{
+						long movesNum = 0;
+
+						for (int i = first; i < last; i++)
+						{
+							Claim claim = claims.get(i);
+							verdicts[i] = verify(claim);
+							movesNum += claim.getMoves().length;
+						}
+
+						return movesNum;
+					}
+				}));
+			}
+
+			long movesNum = 0;
+			for (Future<Long> future : futures)
+			{
+				movesNum += future.get();
+			}
+
+			int validNum = 0;
+			for (Verdict verdict : verdicts)
+			{
+				if (verdict.isValid())
+				{
+					validNum++;
+				}
+			}
+
+			return new Report(verdicts, validNum, movesNum, System.nanoTime() - start);
+		} finally
+		{
+			// Cancel the tasks left on failure.
+			for (Future<Long> future : futures)
+			{
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Verify a claim on the calling thread.
+	 *
+	 * @param claim - The claim to verify.
+	 * @return The verdict of the claim.
+	 */
+	public static Verdict verify(Claim claim)
+	{
+		IceCaveBoard stage = claim.getStage();
+		byte[] moves = claim.getMoves();
+
+		// Broken boulders are removed from a copy, the copy shares the tiles of the stage.
+		IceCaveBoard board = new IceCaveBoard(stage);
+		Point start = board.getStartPoint();
+		int cell = start.y * board.getColumnNum() + start.x;
+		int lastDirection = -1;
+		int countedMoves = 0;
+		int flagIndex = -1;
+		boolean isLegal = true;
+
+		// Go through the moves, up to the flag.
+		for (int i = 0; i < moves.length && flagIndex < 0; i++)
+		{
+			int ordinal = moves[i];
+
+			if (ordinal < 0 || ordinal >= DIRECTIONS.length)
+			{
+				isLegal = false;
+				break;
+			}
+
+			// Repeating the last direction does nothing.
+			if (ordinal == lastDirection)
+			{
+				continue;
+			}
+
+			EDirection direction = DIRECTIONS[ordinal];
+			int stop = board.getSlideStop(cell, direction);
+			lastDirection = ordinal;
+
+			// The flag stops the player on it.
+			if (board.getTileType(stop) == ETileType.FLAG)
+			{
+				cell = stop;
+				countedMoves++;
+				flagIndex = i;
+				continue;
+			}
+
+			int next = board.getNextCell(stop, direction);
+
+			// Breaking a boulder always counts, even if the player did not move.
+			if (next >= 0 && board.getTileType(next) == ETileType.BREAKABLE_BOULDER)
+			{
+				board.setTileType(next / board.getColumnNum(), next % board.getColumnNum(), ETileType.EMPTY);
+				lastDirection = -1;
+				cell = stop;
+				countedMoves++;
+			}
+			else if (stop != cell)
+			{
+				cell = stop;
+				countedMoves++;
+			}
+		}
+
+		// No moves are allowed after the flag.
+		boolean isValid = isLegal &&
+				flagIndex == moves.length - 1 &&
+				countedMoves == claim.getClaimedMoves() &&
+				countedMoves >= stage.getMinMoves();
+
+		return new Verdict(countedMoves, stage.getMinMoves(), flagIndex, isValid);
+	}
+}
@@ -0,0 +1,164 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.util.Arrays;
+
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
+
+/**
+ * Table of the cells where a slide on the board stops, per cell and direction.
+ * Entries are computed on first use, and a change of a tile
+ * only invalidates the entries of its row and column.
+ * A table of tile codes that no longer change can be shared by several threads,
+ * as every entry is always computed to the same value.
+ *
+ */
+class SlideTable implements ISlideEngine
+{
+	/**
+	 * Marks an entry that was not computed yet.
+	 */
+	private static final int UNKNOWN = -1;
+
+	/**
+	 * Number of directions a slide can be made in.
+	 */
+	private static final int DIRECTIONS_NUM = EDirection.values().length;
+
+	/**
+	 * Tile type codes of the board, indexed by (row * columns + column).
+	 */
+	private final byte[] mCodes;
+
+	/**
+	 * Number of rows on the board.
+	 */
+	private final int mRowsNum;
+
+	/**
+	 * Number of columns on the board.
+	 */
+	private final int mColumnsNum;
+
+	/**
+	 * The stop cells, indexed by (cell * DIRECTIONS_NUM + direction ordinal).
+	 */
+	private final int[] mStops;
+
+	/**
+	 * Create a new instance of the SlideTable object.
+	 * @param codes - Tile type codes of the board to compute the slides on.
+	 * @param rowsNum - Number of rows on the board.
+	 * @param columnsNum - Number of columns on the board.
+	 */
+	SlideTable(byte[] codes, int rowsNum, int columnsNum)
+	{
+		mCodes = codes;
+		mRowsNum = rowsNum;
+		mColumnsNum = columnsNum;
+		mStops = new int[rowsNum * columnsNum * DIRECTIONS_NUM];
+		Arrays.fill(mStops, UNKNOWN);
+	}
+
+	@Override
+	public int getStop(int cell, EDirection direction)
+	{
+		int stop = mStops[cell * DIRECTIONS_NUM + direction.ordinal()];
+
+		if (stop == UNKNOWN)
+		{
+			stop = computeStop(cell, direction);
+		}
+
+		return stop;
+	}
+
+	/**
+	 * Invalidate the entries affected by a change of a tile.
+	 * @param row - Row of the changed tile.
+	 * @param column - Column of the changed tile.
+	 */
+	@Override
+	public void update(int row, int column)
+	{
+		int columnsNum = mColumnsNum;
+
+		// Horizontal slides over the row.
+		for (int cell = row * columnsNum; cell < (row + 1) * columnsNum; cell++)
+		{
+			mStops[cell * DIRECTIONS_NUM + EDirection.RIGHT.ordinal()] = UNKNOWN;
+			mStops[cell * DIRECTIONS_NUM + EDirection.LEFT.ordinal()] = UNKNOWN;
+		}
+
+		// Vertical slides over the column.
+		for (int cell = column; cell < mRowsNum * columnsNum; cell += columnsNum)
+		{
+			mStops[cell * DIRECTIONS_NUM + EDirection.DOWN.ordinal()] = UNKNOWN;
+			mStops[cell * DIRECTIONS_NUM + EDirection.UP.ordinal()] = UNKNOWN;
+		}
+	}
+
+	/**
+	 * Walk the slide tile by tile, and fill the entries of all the cells on the way.
+	 * @param cell - Cell to start the slide from.
+	 * @param direction - Direction of the slide.
+	 * @return The cell where the slide stops.
+	 */
+	private int computeStop(int cell, EDirection direction)
+	{
+		int columnsNum = mColumnsNum;
+		int row = cell / columnsNum;
+		int column = cell % columnsNum;
+		int delta = direction.getDirection().y * columnsNum + direction.getDirection().x;
+		ETileType tileNext = getTileType(row + direction.getDirection().y,
+				column + direction.getDirection().x);
+
+		// While not blocked (the board edge blocks too).
+		while (tileNext != null && !tileNext.isBlocking())
+		{
+			row += direction.getDirection().y;
+			column += direction.getDirection().x;
+
+			// Stopping if reached exit.
+			if (tileNext == ETileType.FLAG)
+			{
+				break;
+			}
+
+			tileNext = getTileType(row + direction.getDirection().y,
+					column + direction.getDirection().x);
+		}
+
+		int stop = row * columnsNum + column;
+
+		// Every cell on the way slides to the same stop.
+		for (int wayCell = cell; wayCell != stop; wayCell += delta)
+		{
+			mStops[wayCell * DIRECTIONS_NUM + direction.ordinal()] = stop;
+		}
+
+		// Sliding from a blocked stop stays in place.
+		if (tileNext == null || tileNext.isBlocking())
+		{
+			mStops[stop * DIRECTIONS_NUM + direction.ordinal()] = stop;
+		}
+
+		return stop;
+	}
+
+	/**
+	 * Get the type of a tile on the board.
+	 * @param row - Row of the tile.
+	 * @param column - Column of the tile.
+	 * @return The type of the tile, null if out of the board.
+	 */
+	private ETileType getTileType(int row, int column)
+	{
+		if (row < 0 || column < 0 || row >= mRowsNum || column >= mColumnsNum)
+		{
+			return null;
+		}
+
+		return ETileType.fromCode(mCodes[row * mColumnsNum + column]);
+	}
+}
@@ -0,0 +1,38 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Future of a stage board generated in the background,
+ * calling its listener once generating is done.
+ *
+ */
+public class StageFuture extends FutureTask<IceCaveBoard>
+{
+	/**
+	 * Listener to call once generating is done, null for none.
+	 */
+	private final IStageReadyListener mListener;
+
+	/**
+	 * Create a new instance of the StageFuture object.
+	 * @param generator - Generates the board.
+	 * @param listener - Listener to call once generating is done, null for none.
+	 */
+	StageFuture(Callable<IceCaveBoard> generator, IStageReadyListener listener)
+	{
+		super(generator);
+
+		mListener = listener;
+	}
+
+	@Override
+	protected void done()
+	{
+		if (mListener != null)
+		{
+			mListener.onStageReady(this);
+		}
+	}
+}
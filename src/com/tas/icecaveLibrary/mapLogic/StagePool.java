@@ -0,0 +1,476 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.tas.icecaveLibrary.general.EDifficulty;
+import com.tas.icecaveLibrary.general.EDirection;
+import com.tas.icecaveLibrary.utils.Point;
+import com.tas.icecaveLibrary.utils.random.ISplittableRandomServices;
+
+/**
+ * Pool of generated boards, kept per stage key and refilled in the background.
+ * A board is taken from the pool when one is ready, and generated on the calling thread otherwise.
+ * Once a key has no more than the low watermark of ready boards,
+ * a background task generates boards up to the high watermark.
+ *
+ */
+public class StagePool
+{
+	/**
+	 * Key of the boards of a stage, the values the boards are generated with.
+	 *
+	 */
+	public static final class StageKey
+	{
+		/**
+		 * The difficulty of the boards.
+		 */
+		private final EDifficulty mDifficulty;
+
+		/**
+		 * Number of rows on the boards.
+		 */
+		private final int mRows;
+
+		/**
+		 * Number of columns on the boards.
+		 */
+		private final int mColumns;
+
+		/**
+		 * Number of boulders on the boards.
+		 */
+		private final int mBoulderNum;
+
+		/**
+		 * The width of the wall on the boards.
+		 */
+		private final int mWallWidth;
+
+		/**
+		 * The starting location of the player.
+		 */
+		private final Point mStartPoint;
+
+		/**
+		 * The starting move of the player.
+		 */
+		private final EDirection mStartingMove;
+
+		/**
+		 * Create a new instance of the StageKey object.
+		 *
+		 * @param difficulty - The difficulty of the boards.
+		 * @param rows - Number of rows on the boards.
+		 * @param columns - Number of columns on the boards.
+		 * @param boulderNum - Number of boulders on the boards.
+		 * @param wallWidth - The width of the wall on the boards.
+		 * @param startPoint - The starting location of the player.
+		 * @param startingMove - The starting move of the player.
+		 */
+		public StageKey(EDifficulty difficulty,
+				int rows,
+				int columns,
+				int boulderNum,
+				int wallWidth,
+				Point startPoint,
+				EDirection startingMove)
+		{
+			mDifficulty = difficulty;
+			mRows = rows;
+			mColumns = columns;
+			mBoulderNum = boulderNum;
+			mWallWidth = wallWidth;
+			mStartPoint = new Point(startPoint);
+			mStartingMove = startingMove;
+		}
+
+		/**
+		 * Generate a board of the key.
+		 *
+		 * @param random - Random values for generating the board.
+		 * @param metricsSink - Sink for the statistics of generating the board, null to keep no statistics.
+		 * @return The board generated.
+		 */
+		IceCaveBoard generate(ISplittableRandomServices random, IGenerationMetricsSink metricsSink)
+		{
+			return new IceCaveBoard(mRows,
+					mColumns,
+					mStartPoint,
+					mStartingMove,
+					mBoulderNum,
+					mWallWidth,
+					mDifficulty,
+					EGenerationMode.DISTANCE_FIELD,
+					createContext(random, metricsSink));
+		}
+
+		/**
+		 * Generate a board of the key within a budget.
+		 *
+		 * @param random - Random values for generating the board.
+		 * @param metricsSink - Sink for the statistics of generating the board, null to keep no statistics.
+		 * @param budget - Bounds on generating the board.
+		 * @return The board generated.
+		 * @throws BoardGenerationException If the budget ran out before a board fit.
+		 */
+		IceCaveBoard generate(ISplittableRandomServices random,
+				IGenerationMetricsSink metricsSink,
+				GenerationBudget budget) throws BoardGenerationException
+		{
+			return IceCaveBoard.generate(mRows,
+					mColumns,
+					mStartPoint,
+					mStartingMove,
+					mBoulderNum,
+					mWallWidth,
+					mDifficulty,
+					EGenerationMode.DISTANCE_FIELD,
+					createContext(random, metricsSink),
+					budget);
+		}
+
+		/**
+		 * Create the context to generate a board of the key with.
+		 *
+		 * @param random - Random values for generating the board.
+		 * @param metricsSink - Sink for the statistics of generating the board, null to keep no statistics.
+		 * @return The context.
+		 */
+		private MapLogicContext createContext(ISplittableRandomServices random, IGenerationMetricsSink metricsSink)
+		{
+			return new MapLogicContext(null,
+					MapLogicServiceProvider.getInstance().getTileValidatorFactory(),
+					random,
+					metricsSink);
+		}
+
+		@Override
+		public boolean equals(Object other)
+		{
+			if (!(other instanceof StageKey))
+			{
+				return false;
+			}
+
+			StageKey key = (StageKey) other;
+
+			return mDifficulty == key.mDifficulty &&
+					mRows == key.mRows &&
+					mColumns == key.mColumns &&
+					mBoulderNum == key.mBoulderNum &&
+					mWallWidth == key.mWallWidth &&
+					mStartPoint.x == key.mStartPoint.x &&
+					mStartPoint.y == key.mStartPoint.y &&
+					mStartingMove == key.mStartingMove;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			int hash = mDifficulty.hashCode();
+			hash = hash * 31 + mRows;
+			hash = hash * 31 + mColumns;
+			hash = hash * 31 + mBoulderNum;
+			hash = hash * 31 + mWallWidth;
+			hash = hash * 31 + mStartPoint.x;
+			hash = hash * 31 + mStartPoint.y;
+			hash = hash * 31 + (mStartingMove == null ? 0 : mStartingMove.hashCode());
+
+			return hash;
+		}
+	}
+
+	/**
+	 * The ready boards of one key.
+	 *
+	 */
+	private static final class Boards
+	{
+		/**
+		 * The ready boards.
+		 */
+		final ConcurrentLinkedQueue<IceCaveBoard> mReady = new ConcurrentLinkedQueue<IceCaveBoard>();
+
+		/**
+		 * Number of ready boards.
+		 */
+		final AtomicInteger mReadyNum = new AtomicInteger();
+
+		/**
+		 * Indicates whether or not a refill task is running.
+		 */
+		final AtomicBoolean mRefilling = new AtomicBoolean();
+	}
+
+	/**
+	 * Executor to run the refill tasks on.
+	 */
+	private final ExecutorService mExecutor;
+
+	/**
+	 * Number of ready boards at which a refill starts.
+	 */
+	private final int mLowWatermark;
+
+	/**
+	 * Number of ready boards at which a refill stops.
+	 */
+	private final int mHighWatermark;
+
+	/**
+	 * Random services to split the random services of the generators from.
+	 */
+	private final ISplittableRandomServices mRandom;
+
+	/**
+	 * The ready boards of each key.
+	 */
+	private final ConcurrentHashMap<StageKey, Boards> mBoards = new ConcurrentHashMap<StageKey, Boards>();
+
+	/**
+	 * Number of boards taken ready.
+	 */
+	private final AtomicLong mHits = new AtomicLong();
+
+	/**
+	 * Number of boards generated on the calling thread.
+	 */
+	private final AtomicLong mMisses = new AtomicLong();
+
+	/**
+	 * Sink for the statistics of generating the boards, null to keep no statistics.
+	 */
+	private volatile IGenerationMetricsSink mGenerationMetricsSink;
+
+	/**
+	 * Create a new instance of the StagePool object.
+	 *
+	 * @param executor - Executor to run the refill tasks on.
+	 * @param lowWatermark - Number of ready boards at which a refill starts.
+	 * @param highWatermark - Number of ready boards at which a refill stops.
+	 * @param random - Random services to split the random services of the generators from.
+	 */
+	public StagePool(ExecutorService executor,
+			int lowWatermark,
+			int highWatermark,
+			ISplittableRandomServices random)
+	{
+		if (lowWatermark < 0 || highWatermark <= lowWatermark)
+		{
+			throw new IllegalArgumentException("Watermarks must satisfy 0 <= low < high");
+		}
+
+		mExecutor = executor;
+		mLowWatermark = lowWatermark;
+		mHighWatermark = highWatermark;
+		mRandom = random;
+	}
+
+	/**
+	 * Take a board of a key.
+	 * The board is taken ready if there is one, and generated on the calling thread otherwise.
+	 *
+	 * @param key - Key of the board.
+	 * @return The board, owned by the caller.
+	 */
+	public IceCaveBoard take(StageKey key)
+	{
+		IceCaveBoard board = poll(key);
+
+		if (board == null)
+		{
+			mMisses.incrementAndGet();
+			board = key.generate(split(), mGenerationMetricsSink);
+		}
+
+		return board;
+	}
+
+	/**
+	 * Take a board of a key, bounding the time the calling thread may spend generating it.
+	 * The board is taken ready if there is one, and generated on the calling thread within the budget otherwise.
+	 *
+	 * @param key - Key of the board.
+	 * @param budget - Bounds on generating the board on the calling thread.
+	 * @return The board, owned by the caller.
+	 * @throws BoardGenerationException If no board was ready, and the budget ran out before a board fit.
+	 */
+	public IceCaveBoard take(StageKey key, GenerationBudget budget) throws BoardGenerationException
+	{
+		IceCaveBoard board = poll(key);
+
+		if (board == null)
+		{
+			mMisses.incrementAndGet();
+			board = key.generate(split(), mGenerationMetricsSink, budget);
+		}
+
+		return board;
+	}
+
+	/**
+	 * Take a ready board of a key, starting a refill if the ready boards are low.
+	 *
+	 * @param key - Key of the board.
+	 * @return The board, null if none was ready.
+	 */
+	private IceCaveBoard poll(StageKey key)
+	{
+		Boards boards = getBoards(key);
+		IceCaveBoard board = boards.mReady.poll();
+
+		if (board != null)
+		{
+			boards.mReadyNum.decrementAndGet();
+			mHits.incrementAndGet();
+		}
+
+		refillIfLow(key, boards);
+
+		return board;
+	}
+
+	/**
+	 * Start filling the boards of a key in the background, before they are taken.
+	 *
+	 * @param key - Key of the boards.
+	 */
+	public void prefill(StageKey key)
+	{
+		refillIfLow(key, getBoards(key));
+	}
+
+	/**
+	 * Set the sink for the statistics of generating the boards.
+	 *
+	 * @param generationMetricsSink - The sink, null to keep no statistics.
+	 */
+	public void setGenerationMetricsSink(IGenerationMetricsSink generationMetricsSink)
+	{
+		mGenerationMetricsSink = generationMetricsSink;
+	}
+
+	/**
+	 * Get the number of ready boards of a key.
+	 *
+	 * @param key - Key of the boards.
+	 * @return Number of ready boards.
+	 */
+	public int getReadyNum(StageKey key)
+	{
+		Boards boards = mBoards.get(key);
+
+		return boards == null ? 0 : boards.mReadyNum.get();
+	}
+
+	/**
+	 * Get the number of boards taken ready.
+	 *
+	 * @return Number of hits.
+	 */
+	public long getHits()
+	{
+		return mHits.get();
+	}
+
+	/**
+	 * Get the number of boards generated on the calling thread, as none was ready.
+	 *
+	 * @return Number of misses.
+	 */
+	public long getMisses()
+	{
+		return mMisses.get();
+	}
+
+	/**
+	 * Get the ready boards of a key, creating them if missing.
+	 *
+	 * @param key - Key of the boards.
+	 * @return The ready boards of the key.
+	 */
+	private Boards getBoards(StageKey key)
+	{
+		Boards boards = mBoards.get(key);
+
+		if (boards == null)
+		{
+			Boards newBoards = new Boards();
+			boards = mBoards.putIfAbsent(key, newBoards);
+
+			if (boards == null)
+			{
+				boards = newBoards;
+			}
+		}
+
+		return boards;
+	}
+
+	/**
+	 * Start a refill task if the ready boards are low and no refill is running.
+	 *
+	 * @param key - Key of the boards.
+	 * @param boards - The ready boards of the key.
+	 */
+	private void refillIfLow(final StageKey key, final Boards boards)
+	{
+		if (boards.mReadyNum.get() > mLowWatermark || !boards.mRefilling.compareAndSet(false, true))
+		{
+			return;
+		}
+
+		final ISplittableRandomServices random = split();
+
+		try
+		{
+			mExecutor.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						// Generate up to the high watermark.
+						while (boards.mReadyNum.get() < mHighWatermark)
+						{
+							boards.mReady.add(key.generate(random, mGenerationMetricsSink));
+							boards.mReadyNum.incrementAndGet();
+						}
+					} catch (CancellationException e)
+					{
+						// The executor is shutting down.
+					} finally
+					{
+						boards.mRefilling.set(false);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e)
+		{
+			// No background refill, boards are generated on take.
+			boards.mRefilling.set(false);
+		}
+	}
+
+	/**
+	 * Split random services for a generator.
+	 *
+	 * @return Random services for a generator.
+	 */
+	private ISplittableRandomServices split()
+	{
+		synchronized (mRandom)
+		{
+			return mRandom.split();
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.tas.icecaveLibrary.mapLogic;
+
+import java.util.Arrays;
+
+/**
+ * Set of visited (cell, broken boulders mask) search states.
+ * Small state spaces are kept in a bit set, large ones in an open addressing hash set.
+ *
+ */
+class StateSet
+{
+	/**
+	 * Max number of states to keep in the bit set.
+	 */
+	private static final long MAX_DENSE_STATES = 1L << 23;
+
+	/**
+	 * Initial capacity of the hash set.
+	 */
+	private static final int INITIAL_CAPACITY = 1 << 12;
+
+	/**
+	 * Number of mask bits of each cell, when using the bit set.
+	 */
+	private int mMaskBits;
+
+	/**
+	 * The bit set, null when using the hash set.
+	 */
+	private long[] mBits;
+
+	/**
+	 * Number of words of the bit set in use.
+	 */
+	private int mWordsNum;
+
+	/**
+	 * The hash set keys, shifted by one so zero marks a free slot.
+	 */
+	private long[] mKeys;
+
+	/**
+	 * Number of keys in the hash set.
+	 */
+	private int mSize;
+
+	/**
+	 * Clear the set, and prepare it for a board.
+	 * @param cellsNum - Number of cells on the board.
+	 * @param breakableNum - Number of breakable boulders on the board.
+	 */
+	void reset(int cellsNum, int breakableNum)
+	{
+		long statesNum = (long) cellsNum << breakableNum;
+
+		mMaskBits = breakableNum;
+
+		if (statesNum <= MAX_DENSE_STATES)
+		{
+			mWordsNum = (int) ((statesNum + 63) >>> 6);
+
+			if (mBits == null || mBits.length < mWordsNum)
+			{
+				mBits = new long[mWordsNum];
+			}
+			else
+			{
+				Arrays.fill(mBits, 0, mWordsNum, 0L);
+			}
+
+			mKeys = null;
+		}
+		else
+		{
+			mBits = null;
+			mKeys = new long[INITIAL_CAPACITY];
+			mSize = 0;
+		}
+	}
+
+	/**
+	 * Add a state to the set.
+	 * @param cell - Cell of the state.
+	 * @param mask - Broken boulders mask of the state.
+	 * @return true if the state was not in the set.
+	 */
+	boolean add(int cell, int mask)
+	{
+		if (mBits != null)
+		{
+			long index = ((long) cell << mMaskBits) | mask;
+			int word = (int) (index >>> 6);
+			long bit = 1L << index;
+
+			if ((mBits[word] & bit) != 0)
+			{
+				return false;
+			}
+
+			mBits[word] |= bit;
+
+			return true;
+		}
+
+		// Grow at half load.
+		if (mSize * 2 >= mKeys.length)
+		{
+			rehash();
+		}
+
+		if (insert(mKeys, (((long) cell << 32) | (mask & 0xFFFFFFFFL)) + 1))
+		{
+			mSize++;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Insert a key to a hash table.
+	 * @param keys - Hash table.
+	 * @param key - Key to insert.
+	 * @return true if the key was not in the table.
+	 */
+	private static boolean insert(long[] keys, long key)
+	{
+		int slotMask = keys.length - 1;
+		long hash = key * 0x9E3779B97F4A7C15L;
+		int slot = (int) (hash ^ (hash >>> 32)) & slotMask;
+
+		while (keys[slot] != 0)
+		{
+			if (keys[slot] == key)
+			{
+				return false;
+			}
+
+			slot = (slot + 1) & slotMask;
+		}
+
+		keys[slot] = key;
+
+		return true;
+	}
+
+	/**
+	 * Double the hash table.
+	 */
+	private void rehash()
+	{
+		long[] keys = new long[mKeys.length * 2];
+
+		for (long key : mKeys)
+		{
+			if (key != 0)
+			{
+				insert(keys, key);
+			}
+		}
+
+		mKeys = keys;
+	}
+}
@@ -13,8 +13,20 @@ public class BaseCollisionInvoker<return_type> implements ICollisionInvoker<retu
 	}
 	
 	@Override
+	public return_type onCollision(int x, int y)
+	{
+		return mFunction.invoke(new Point(x, y));
+	}
+
+	/**
+	 * This function handles the collision of the player with a point.
+	 * @param collisionPoint - The point of collision.
+	 * @return result.
+	 * @deprecated Use onCollision(int, int).
+	 */
+	@Deprecated
 	public return_type onCollision(Point collisionPoint)
 	{
-		return mFunction.invoke(new Point(collisionPoint));
+		return onCollision(collisionPoint.x, collisionPoint.y);
 	}
 }
@@ -1,17 +1,72 @@
 package com.tas.icecaveLibrary.mapLogic.collision;
 
-import java.lang.reflect.Type;
-import java.util.HashMap;
+import com.tas.icecaveLibrary.mapLogic.tiles.ETileType;
+import com.tas.icecaveLibrary.utils.Point;
 
+/**
+ * Dispatches collisions to the invoker of the kind of the tile collided with.
+ *
+ */
 public abstract class CollisionManager
 {
-	@SuppressWarnings("rawtypes")
-	protected HashMap<Type, ICollisionInvoker> mCollisionInvokers = 
-			new HashMap<Type, ICollisionInvoker>();
-	
+	/**
+	 * The invokers, indexed by collision kind.
+	 */
+	private final ICollisionInvoker<?>[] mCollisionInvokers;
+
+	/**
+	 * Create a new instance of the CollisionManager object, with a kind for each tile type.
+	 * Serializable subclasses are rebuilt through this constructor.
+	 */
+	protected CollisionManager()
+	{
+		this(ETileType.values().length);
+	}
+
+	/**
+	 * Create a new instance of the CollisionManager object.
+	 * @param kindsNum - Number of collision kinds.
+	 */
+	protected CollisionManager(int kindsNum)
+	{
+		mCollisionInvokers = new ICollisionInvoker<?>[kindsNum];
+	}
+
+	/**
+	 * Set the invoker of a collision kind.
+	 * @param kind - The collision kind.
+	 * @param invoker - Invoker to call on collisions with the kind, null for none.
+	 */
+	protected void setCollisionInvoker(int kind, ICollisionInvoker<?> invoker)
+	{
+		mCollisionInvokers[kind] = invoker;
+	}
+
 	/**
 	 * Handles a collision with an object.
 	 * @param ICollisionable collisionable - Object collisioned with.
 	 */
-	public abstract void handleCollision(ICollisionable collisionable);
+	public void handleCollision(ICollisionable collisionable)
+	{
+		Point location = collisionable.getLocation();
+
+		handleCollision(collisionable.getCollisionKind(), location.x, location.y);
+	}
+
+	/**
+	 * Handles a collision with a tile.
+	 * @param kind - The collision kind of the tile.
+	 * @param x - X argument of the location of the tile.
+	 * @param y - Y argument of the location of the tile.
+	 */
+	public void handleCollision(int kind, int x, int y)
+	{
+		ICollisionInvoker<?> invoker = mCollisionInvokers[kind];
+
+		// Kinds without an invoker do not stop the player.
+		if (invoker != null)
+		{
+			invoker.onCollision(x, y);
+		}
+	}
 }
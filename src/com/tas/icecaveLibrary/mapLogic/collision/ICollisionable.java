@@ -13,4 +13,10 @@ public interface ICollisionable {
 	 * @return Location of the tile.
 	 */
 	Point getLocation();
+
+	/**
+	 * Get the kind of the tile, the index of its invoker in the collision manager.
+	 * @return Kind of the tile.
+	 */
+	int getCollisionKind();
 }
@@ -2,9 +2,13 @@ package com.tas.icecaveLibrary.mapLogic.tiles;
 
 import com.tas.icecaveLibrary.utils.Point;
 
-@SuppressWarnings("serial")
 public abstract class BaseTile implements ITile
 {
+	/**
+	 * Version of the serialized tile, kept from 1.0 so saved boards still load.
+	 */
+	private static final long serialVersionUID = -8895727927645713833L;
+
 	/**
 	 * Location for the tile.
 	 */
@@ -20,6 +24,11 @@ public abstract class BaseTile implements ITile
 		return mLocation;
 	}
 
+	@Override
+	public int getCollisionKind(){
+		return getType().getCode();
+	}
+
 	@Override
 	public abstract ITile clone();
 	
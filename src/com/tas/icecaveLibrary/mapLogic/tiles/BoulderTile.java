@@ -8,9 +8,13 @@ import com.tas.icecaveLibrary.utils.Point;
  * @author Tom
  *
  */
-@SuppressWarnings("serial")
 public class BoulderTile extends BaseTile implements IBlockingTile
 {
+	/**
+	 * Version of the serialized tile, the same as in 1.0.
+	 */
+	private static final long serialVersionUID = 4957693513695905401L;
+
 	/**
 	 * Create a new instance of the boulder tile object.
 	 * @param x - X position for the tiles.
@@ -30,6 +34,12 @@ public class BoulderTile extends BaseTile implements IBlockingTile
 		super(location);
 	}
 
+	@Override
+	public ETileType getType()
+	{
+		return ETileType.BOULDER;
+	}
+
 	@Override
 	public ITile clone()
 	{
@@ -4,12 +4,17 @@ import com.tas.icecaveLibrary.utils.Point;
 
 /**
  * A breakable boulder, on hit is removed.
+ * The player cannot move through this tile until it is removed.
  * @author Tom
  *
  */
-@SuppressWarnings("serial")
-public class BreakableBoulderTile extends BaseTile
+public class BreakableBoulderTile extends BaseTile implements IBlockingTile
 {
+	/**
+	 * Version of the serialized tile, the same as in 1.0.
+	 */
+	private static final long serialVersionUID = -891146193576954837L;
+
 	/**
 	 * Create a new instance of the Breakable boulder object.
 	 * @param x
@@ -29,6 +34,12 @@ public class BreakableBoulderTile extends BaseTile
 		super(location);
 	}
 
+	@Override
+	public ETileType getType()
+	{
+		return ETileType.BREAKABLE_BOULDER;
+	}
+
 	@Override
 	public ITile clone()
 	{
@@ -0,0 +1,115 @@
+package com.tas.icecaveLibrary.mapLogic.tiles;
+
+/**
+ * Enum representing the kind of a tile on the board.
+ * The ordinal of each kind is used as its code in the board tile grid.
+ *
+ */
+public enum ETileType
+{
+	/**
+	 * Empty tile, the player slides through it.
+	 */
+	EMPTY(EmptyTile.class),
+	/**
+	 * Wall tile.
+	 */
+	WALL(WallTile.class),
+	/**
+	 * Boulder tile.
+	 */
+	BOULDER(BoulderTile.class),
+	/**
+	 * Breakable boulder tile.
+	 */
+	BREAKABLE_BOULDER(BreakableBoulderTile.class),
+	/**
+	 * Flag tile.
+	 */
+	FLAG(FlagTile.class);
+
+	/**
+	 * All the tile types, indexed by code.
+	 */
+	private static final ETileType[] TYPES = values();
+
+	/**
+	 * The class of the tiles of this type.
+	 */
+	private Class<? extends ITile> mTileClass;
+
+	/**
+	 * Indicates whether or not this type blocks the player movement.
+	 */
+	private boolean mIsBlocking;
+
+	/**
+	 * Create a new instance of the ETileType object.
+	 * @param tileClass - Class of the tiles of this type.
+	 */
+	private ETileType(Class<? extends ITile> tileClass)
+	{
+		mTileClass = tileClass;
+		mIsBlocking = IBlockingTile.class.isAssignableFrom(tileClass);
+	}
+
+	/**
+	 * Get the code of the type, as stored in the board tile grid.
+	 * @return Code of the type.
+	 */
+	public byte getCode()
+	{
+		return (byte) ordinal();
+	}
+
+	/**
+	 * Get the class of the tiles of this type.
+	 * @return Class of the tiles of this type.
+	 */
+	public Class<? extends ITile> getTileClass()
+	{
+		return mTileClass;
+	}
+
+	/**
+	 * Get indication to whether or not tiles of this type block the player movement.
+	 * @return true if the tiles of this type are blocking.
+	 */
+	public boolean isBlocking()
+	{
+		return mIsBlocking;
+	}
+
+	/**
+	 * Create a new tile of this type.
+	 * @param x - X position for the tile.
+	 * @param y - Y position for the tile.
+	 * @return A new tile of this type.
+	 */
+	public ITile createTile(int x, int y)
+	{
+		switch (this)
+		{
+		case WALL:
+			return new WallTile(x, y);
+		case BOULDER:
+			return new BoulderTile(x, y);
+		case BREAKABLE_BOULDER:
+			return new BreakableBoulderTile(x, y);
+		case FLAG:
+			return new FlagTile(x, y);
+		default:
+			return new EmptyTile(x, y);
+		}
+	}
+
+	/**
+	 * Get the tile type of a code.
+	 * @param code - Code of the type, as stored in the board tile grid.
+	 * @return The tile type of the code.
+	 */
+	public static ETileType fromCode(byte code)
+	{
+		return TYPES[code];
+	}
+}
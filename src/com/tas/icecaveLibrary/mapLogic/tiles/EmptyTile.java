@@ -8,9 +8,13 @@ import com.tas.icecaveLibrary.utils.Point;
  * @author Tom
  *
  */
-@SuppressWarnings("serial")
 public class EmptyTile extends BaseTile
 {
+	/**
+	 * Version of the serialized tile, the same as in 1.0.
+	 */
+	private static final long serialVersionUID = 8889142201045455737L;
+
 	/**
 	 * Create a new instance of the EmptyTile object.
 	 * @param x - X position for the tiles.
@@ -30,6 +34,12 @@ public class EmptyTile extends BaseTile
 		super(location);
 	}
 
+	@Override
+	public ETileType getType()
+	{
+		return ETileType.EMPTY;
+	}
+
 	@Override
 	public ITile clone()
 	{
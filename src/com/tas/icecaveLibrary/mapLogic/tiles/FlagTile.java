@@ -8,9 +8,13 @@ import com.tas.icecaveLibrary.utils.Point;
  * @author Tom
  *
  */
-@SuppressWarnings("serial")
 public class FlagTile extends BaseTile
 {
+	/**
+	 * Version of the serialized tile, the same as in 1.0.
+	 */
+	private static final long serialVersionUID = 4190900699289166978L;
+
 	/**
 	 * Create a new instance of the FlagTile object.
 	 * @param x - X position for the tiles.
@@ -30,6 +34,12 @@ public class FlagTile extends BaseTile
 		super(location);
 	}
 
+	@Override
+	public ETileType getType()
+	{
+		return ETileType.FLAG;
+	}
+
 	@Override
 	public ITile clone()
 	{
@@ -13,5 +13,9 @@ import com.tas.icecaveLibrary.utils.board.IBoardTile;
  */
 public interface ITile extends IBoardTile, ICollisionable, Serializable
 {
-
+	/**
+	 * Get the type of the tile.
+	 * @return Type of the tile.
+	 */
+	ETileType getType();
 }
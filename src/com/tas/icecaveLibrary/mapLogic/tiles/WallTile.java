@@ -8,9 +8,13 @@ import com.tas.icecaveLibrary.utils.Point;
  * @author Tom
  *
  */
-@SuppressWarnings("serial")
 public class WallTile extends BaseTile implements IBlockingTile
 {
+	/**
+	 * Version of the serialized tile, the same as in 1.0.
+	 */
+	private static final long serialVersionUID = -5327009672556633662L;
+
 	/**
 	 * Create a new instance of the WallTile object.
 	 * @param x - X position for the tiles.
@@ -30,6 +34,12 @@ public class WallTile extends BaseTile implements IBlockingTile
 		super(location);
 	}
 
+	@Override
+	public ETileType getType()
+	{
+		return ETileType.WALL;
+	}
+
 	@Override
 	public ITile clone()
 	{
@@ -1,6 +1,8 @@
 package com.tas.icecaveLibrary.mapLogic.tiles.validators;
 
 import com.tas.icecaveLibrary.mapLogic.tiles.ITile;
+import com.tas.icecaveLibrary.utils.board.BaseBoard;
+import com.tas.icecaveLibrary.utils.board.IBoardTile;
 
 /**
  * Base implementation of the ITileValidator interface.
@@ -21,15 +23,74 @@ public abstract class BaseTileValidator implements ITileValidator {
 	public boolean isAdjacent(int       	   xLocation, 
 				  			  int       	   yLocation, 
 				  			  Class<?> 		   tileClass,
-				  			  ITile[][] 	   board){
+				  			  BaseBoard 	   board){
 		
-		return tileClass.isInstance(board[yLocation - 1][xLocation - 1]) ||
-			   tileClass.isInstance(board[yLocation - 1][xLocation + 0]) ||  
-			   tileClass.isInstance(board[yLocation - 1][xLocation + 1]) ||
-			   tileClass.isInstance(board[yLocation + 0][xLocation + 1]) ||
-			   tileClass.isInstance(board[yLocation + 1][xLocation + 1]) ||
-			   tileClass.isInstance(board[yLocation + 1][xLocation + 0]) ||
-			   tileClass.isInstance(board[yLocation + 1][xLocation - 1]) ||
-			   tileClass.isInstance(board[yLocation + 0][xLocation - 1]);  
+		return board.isTileOfType(yLocation - 1, xLocation - 1, tileClass) ||
+			   board.isTileOfType(yLocation - 1, xLocation + 0, tileClass) ||  
+			   board.isTileOfType(yLocation - 1, xLocation + 1, tileClass) ||
+			   board.isTileOfType(yLocation + 0, xLocation + 1, tileClass) ||
+			   board.isTileOfType(yLocation + 1, xLocation + 1, tileClass) ||
+			   board.isTileOfType(yLocation + 1, xLocation + 0, tileClass) ||
+			   board.isTileOfType(yLocation + 1, xLocation - 1, tileClass) ||
+			   board.isTileOfType(yLocation + 0, xLocation - 1, tileClass);  
+	}
+
+	/**
+	 * Validate location to place tile on, on a tile matrix.
+	 * The matrix is wrapped in a board and checked by the board signature.
+	 * @param xLocation - X argument of location for tile.
+	 * @param yLocation - Y argument of location for tile.
+	 * @param xPlayerLocation - X argument of location for player.
+	 * @param yPlayerLocation - Y argument of location for player.
+	 * @param board - The current stage used board.
+	 * @return true if valid.
+	 */
+	@Override
+	public boolean isValid(int 		  xLocation,
+						   int 		  yLocation,
+						   int 		  xPlayerLocation,
+						   int 		  yPlayerLocation,
+						   IBoardTile[][] board){
+
+		return isValid(xLocation, yLocation, xPlayerLocation, yPlayerLocation, new TileArrayBoard(board));
+	}
+
+	/**
+	 * Validate location to place tile on a board, reading its tiles without a tile matrix.
+	 * Subclasses override one of the two isValid methods: the validators of 1.0 override the matrix one,
+	 * which this calls with the matrix of the board, and new validators override this one.
+	 * @param xLocation - X argument of location for tile.
+	 * @param yLocation - Y argument of location for tile.
+	 * @param xPlayerLocation - X argument of location for player.
+	 * @param yPlayerLocation - Y argument of location for player.
+	 * @param board - The current stage used board.
+	 * @return true if valid.
+	 */
+	public boolean isValid(int 		  xLocation,
+						   int 		  yLocation,
+						   int 		  xPlayerLocation,
+						   int 		  yPlayerLocation,
+						   BaseBoard  board){
+
+		return isValid(xLocation, yLocation, xPlayerLocation, yPlayerLocation, board.getBoard());
+	}
+
+	/**
+	 * Check if the x and y location is adjacent to a given type on a tile matrix.
+	 * 
+	 * @param xLocation - x location to check.
+	 * @param yLocation - y location to check.
+	 * @param tileClass - Tile class to check if adjacent to.
+	 * @param board     - The current tile board.
+	 * @return true if adjacent to a tile from the specified type.
+	 * @deprecated Boards keep tile codes, pass the board itself to isAdjacent.
+	 */
+	@Deprecated
+	public boolean isAdjacent(int       	   xLocation, 
+				  			  int       	   yLocation, 
+				  			  Class<?> 		   tileClass,
+				  			  ITile[][] 	   board){
+
+		return isAdjacent(xLocation, yLocation, tileClass, new TileArrayBoard(board));
 	}
 }
@@ -4,7 +4,7 @@
 package com.tas.icecaveLibrary.mapLogic.tiles.validators;
 
 import com.tas.icecaveLibrary.mapLogic.tiles.EmptyTile;
-import com.tas.icecaveLibrary.utils.board.IBoardTile;
+import com.tas.icecaveLibrary.utils.board.BaseBoard;
 
 /**
  * @author Tom
@@ -17,13 +17,13 @@ public class BoulderTileValidator extends BaseTileValidator{
 						   int 		 yLocation, 
 						   int 		 xPlayerLocation,
 						   int 	     yPlayerLocation, 
-						   IBoardTile[][] board) {
+						   BaseBoard board) {
 
 		return(
 			// Check that the location is not the player.
 			!((xLocation == xPlayerLocation) && (yLocation == yPlayerLocation)) &&			
 			// Check that the location is an empty tile.
-			EmptyTile.class.isInstance(board[yLocation][xLocation]) 
+			board.isTileOfType(yLocation, xLocation, EmptyTile.class) 
 			// &&
 			// Check that it is not adjacent to any boulder.
 //			(!isAdjacent(xLocation, yLocation, BoulderTile.class,board)) &&
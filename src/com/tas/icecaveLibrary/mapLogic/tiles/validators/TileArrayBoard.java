@@ -0,0 +1,50 @@
+package com.tas.icecaveLibrary.mapLogic.tiles.validators;
+
+import com.tas.icecaveLibrary.utils.Point;
+import com.tas.icecaveLibrary.utils.board.BaseBoard;
+import com.tas.icecaveLibrary.utils.board.IBoardTile;
+
+/**
+ * Board over a tile matrix, for the validator calls that still pass one.
+ *
+ */
+class TileArrayBoard extends BaseBoard
+{
+	/**
+	 * The tiles of the board, indexed by row and column.
+	 */
+	private final IBoardTile[][] mTiles;
+
+	/**
+	 * Create a new instance of the TileArrayBoard object.
+	 * @param tiles - The tiles of the board, indexed by row and column.
+	 */
+	TileArrayBoard(IBoardTile[][] tiles)
+	{
+		mTiles = tiles;
+	}
+
+	@Override
+	public IBoardTile[][] getBoard()
+	{
+		return mTiles;
+	}
+
+	@Override
+	public boolean setTile(int row, int column, IBoardTile tile)
+	{
+		mTiles[row][column] = tile;
+
+		return true;
+	}
+
+	/**
+	 * The matrix does not know the player.
+	 * @return null.
+	 */
+	@Override
+	public Point getStartPoint()
+	{
+		return null;
+	}
+}
@@ -4,6 +4,7 @@ import java.util.HashMap;
 
 import com.tas.icecaveLibrary.mapLogic.tiles.BoulderTile;
 import com.tas.icecaveLibrary.mapLogic.tiles.BreakableBoulderTile;
+import com.tas.icecaveLibrary.utils.board.BaseBoard;
 import com.tas.icecaveLibrary.utils.board.IBoardTile;
 
 /**
@@ -39,17 +40,54 @@ public class TileValidatorFactory {
 							int       yLocation,
 							int		  xPlayerLocation,
 							int		  	   yPlayerLocation,
-							IBoardTile[][] board){
+							BaseBoard board){
 		// Check if there is a validator.
 		if(!mValidators.containsKey(toValidate)){
 			// Not an error.
 			return true;
 		}
 				
-		return mValidators.get(toValidate).isValid(xLocation, 
-												   yLocation, 
-												   xPlayerLocation, 
-												   yPlayerLocation, 
-												   board);
+		ITileValidator validator = mValidators.get(toValidate);
+
+		// The base validators read the board without building a tile matrix.
+		if(validator instanceof BaseTileValidator){
+			return ((BaseTileValidator) validator).isValid(xLocation, 
+														   yLocation, 
+														   xPlayerLocation, 
+														   yPlayerLocation, 
+														   board);
+		}
+
+		return validator.isValid(xLocation, 
+								 yLocation, 
+								 xPlayerLocation, 
+								 yPlayerLocation, 
+								 board.getBoard());
+	}
+
+	/**
+	 * Validate a tile on a tile matrix.
+	 * @param toValidate - tile to validate class.
+	 * @param xLocation - X argument of location for tile.
+	 * @param yLocation - Y argument of location for tile.
+	 * @param xPlayerLocation - X argument of location for player.
+	 * @param yPlayerLocation - Y argument of location for player.
+	 * @param board - The current stage used board.
+	 * @return true if valid.
+	 * @deprecated Boards keep tile codes, pass the board itself to validate.
+	 */
+	@Deprecated
+	public boolean validate(Class<?>  toValidate, 
+							int 	  xLocation,
+							int       yLocation,
+							int		  xPlayerLocation,
+							int		  	   yPlayerLocation,
+							IBoardTile[][] board){
+		return validate(toValidate,
+						xLocation,
+						yLocation,
+						xPlayerLocation,
+						yPlayerLocation,
+						new TileArrayBoard(board));
 	}
 }
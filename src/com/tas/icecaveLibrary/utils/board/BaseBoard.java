@@ -57,6 +57,17 @@ public abstract class BaseBoard
 		return getTile(tileLocation.y, tileLocation.x);
 	}
 	
+	/**
+	 * Check the type of a tile on the board.
+	 * @param row - Row of the tile on the board.
+	 * @param column - Column of the tile on the board.
+	 * @param tileClass - Class to check the tile against.
+	 * @return true if the tile in the given position is an instance of the class.
+	 */
+	public boolean isTileOfType(int row, int column, Class<?> tileClass){
+		return tileClass.isInstance(getTile(row, column));
+	}
+
 	/**
 	 * Sets a tile on the board.
 	 * @param row - Row of the tile on the board.
@@ -0,0 +1,42 @@
+package com.tas.icecaveLibrary.utils.random;
+
+import java.util.HashMap;
+
+import com.tas.icecaveLibrary.utils.Point;
+
+/**
+ * Base class for random service providers,
+ * keeping the random wrappers of the provider.
+ *
+ */
+public abstract class BaseRandomServiceProvider implements IRandomServices
+{
+	// Array of wrappers.
+	private HashMap<Class<?>, IRandomTypeWrapper<?>> mWrappers;
+
+	/**
+	 * Create a new instance of the BaseRandomServiceProvider object.
+	 */
+	protected BaseRandomServiceProvider()
+	{
+		mWrappers = new HashMap<Class<?>, IRandomTypeWrapper<?>>();
+		mWrappers.put(Point.class, new PointRandomWrapper(this));
+	}
+
+	/**
+	 * Add a random wrapper to the provider.
+	 * 
+	 * @param type - Type the wrapper returns random values of.
+	 * @param wrapper - The wrapper.
+	 */
+	public <random_type> void addRandomWrapper(Class<random_type> type, IRandomTypeWrapper<random_type> wrapper)
+	{
+		mWrappers.put(type, wrapper);
+	}
+
+	@Override
+	public IRandomTypeWrapper<?> getRandomWrapper(Class<?> type)
+	{
+		return mWrappers.get(type);
+	}
+}
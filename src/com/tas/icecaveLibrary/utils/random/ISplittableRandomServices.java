@@ -0,0 +1,18 @@
+package com.tas.icecaveLibrary.utils.random;
+
+/**
+ * Random services that can be split into independent random services,
+ * one for each thread or task.
+ *
+ */
+public interface ISplittableRandomServices extends IRandomServices
+{
+	/**
+	 * Split new random services from this one.
+	 * The new random services share no state with this one,
+	 * and can be used by another thread without locking.
+	 * 
+	 * @return New random services.
+	 */
+	ISplittableRandomServices split();
+}
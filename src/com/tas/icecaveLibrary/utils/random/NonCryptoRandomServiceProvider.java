@@ -1,6 +1,5 @@
 package com.tas.icecaveLibrary.utils.random;
 
-import java.util.HashMap;
 import java.util.Random;
 
 /**
@@ -8,13 +7,10 @@ import java.util.Random;
  * @author Tom
  *
  */
-public class NonCryptoRandomServiceProvider implements IRandomServices
+public class NonCryptoRandomServiceProvider extends BaseRandomServiceProvider
 {
 	// Random generator.
 	Random mRandom;
-	
-	// Array of wrappers.
-	HashMap<Class<?>, IRandomTypeWrapper<?>> wrappers;
 
 	/**
 	 * Create a new instance of the NonCryptoRandomServiceProvider object. 
@@ -33,16 +29,15 @@ public class NonCryptoRandomServiceProvider implements IRandomServices
 	{
 		mRandom = new Random(randomSeed);
 	}
-
-	@Override
-	public IRandomTypeWrapper<?> getRandomWrapper(Class<?> type)
+	
+	/**
+	 * Create a new instance of the NonCryptoRandomServiceProvider object.
+	 * 
+	 *  @param random - Random generator to get the values from.
+	 */
+	public NonCryptoRandomServiceProvider(Random random)
 	{
-		if(wrappers.containsKey(type))
-		{
-			return wrappers.get(type);
-		}
-		
-		return null;
+		mRandom = random;
 	}
 
 	@Override
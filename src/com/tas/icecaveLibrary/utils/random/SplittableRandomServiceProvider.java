@@ -0,0 +1,170 @@
+package com.tas.icecaveLibrary.utils.random;
+
+/**
+ * Provides non crypto random values from a SplitMix64 generator.
+ * The generator is not thread safe, each thread should use its own split.
+ * The same seed always gives the same values, and the same splits.
+ *
+ */
+public class SplittableRandomServiceProvider extends BaseRandomServiceProvider implements ISplittableRandomServices
+{
+	/**
+	 * The default gamma, the odd integer closest to 2^64 divided by the golden ratio.
+	 */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Multiplier of a random double, 2^-53.
+	 */
+	private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+	/**
+	 * Multiplier of a random float, 2^-24.
+	 */
+	private static final float FLOAT_UNIT = 1.0f / (1 << 24);
+
+	/**
+	 * The state of the generator.
+	 */
+	private long mSeed;
+
+	/**
+	 * The step of the state, always odd.
+	 */
+	private final long mGamma;
+
+	/**
+	 * Create a new instance of the SplittableRandomServiceProvider object.
+	 * 
+	 * @param seed - Seed for the random generator.
+	 */
+	public SplittableRandomServiceProvider(long seed)
+	{
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Create a new instance of the SplittableRandomServiceProvider object.
+	 * 
+	 * @param seed - Seed for the random generator.
+	 * @param gamma - The step of the state, must be odd.
+	 */
+	private SplittableRandomServiceProvider(long seed, long gamma)
+	{
+		mSeed = seed;
+		mGamma = gamma;
+	}
+
+	@Override
+	public ISplittableRandomServices split()
+	{
+		return new SplittableRandomServiceProvider(getRandomLong(), mixGamma(nextSeed()));
+	}
+
+	@Override
+	public int getRandomInt()
+	{
+		return mix32(nextSeed());
+	}
+
+	@Override
+	public int getRandomInt(int ceiling)
+	{
+		if (ceiling <= 0)
+		{
+			throw new IllegalArgumentException("ceiling must be positive");
+		}
+
+		int bound = ceiling - 1;
+
+		// Power of two ceiling, take the low bits.
+		if ((ceiling & bound) == 0)
+		{
+			return getRandomInt() & bound;
+		}
+
+		// Reject the values of the last partial range, so all the results are even.
+		int value;
+		int result;
+		do
+		{
+			value = getRandomInt() >>> 1;
+			result = value % ceiling;
+		} while (value - result + bound < 0);
+
+		return result;
+	}
+
+	@Override
+	public long getRandomLong()
+	{
+		return mix64(nextSeed());
+	}
+
+	@Override
+	public double getRandomDouble()
+	{
+		return (getRandomLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	@Override
+	public float getRandomFloat()
+	{
+		return (getRandomInt() >>> 8) * FLOAT_UNIT;
+	}
+
+	/**
+	 * Step the state of the generator.
+	 * 
+	 * @return The new state.
+	 */
+	private long nextSeed()
+	{
+		return mSeed += mGamma;
+	}
+
+	/**
+	 * Mix a state into 64 random bits.
+	 * 
+	 * @param z - State to mix.
+	 * @return Random bits.
+	 */
+	private static long mix64(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Mix a state into 32 random bits.
+	 * 
+	 * @param z - State to mix.
+	 * @return Random bits.
+	 */
+	private static int mix32(long z)
+	{
+		z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+
+		return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+	}
+
+	/**
+	 * Mix a state into a gamma for a split.
+	 * Gammas with too few bit changes give poor values, so they are fixed.
+	 * 
+	 * @param z - State to mix.
+	 * @return Odd gamma.
+	 */
+	private static long mixGamma(long z)
+	{
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		z = (z ^ (z >>> 33)) | 1L;
+
+		int changes = Long.bitCount(z ^ (z >>> 1));
+
+		return (changes < 24) ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+	}
+}